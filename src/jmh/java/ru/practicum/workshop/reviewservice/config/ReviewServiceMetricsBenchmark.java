@@ -0,0 +1,61 @@
+package ru.practicum.workshop.reviewservice.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import ru.practicum.workshop.reviewservice.service.ReviewService;
+
+import java.lang.reflect.Proxy;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The service call timers alone: a call through the Spring proxy of a service that does nothing, with and without
+ * {@link ReviewServiceMetrics} around it.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ReviewServiceMetricsBenchmark {
+    private ReviewService plain;
+    private ReviewService timed;
+    private long reviewId;
+
+    @Setup
+    public void setUp() {
+        ReviewService target = (ReviewService) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{ReviewService.class}, (proxy, method, args) -> null);
+        plain = proxy(target, null);
+        timed = proxy(target, new ReviewServiceMetrics(new SimpleMeterRegistry()));
+    }
+
+    @Benchmark
+    public void withoutMetrics() {
+        plain.addLike(++reviewId, 1L);
+    }
+
+    @Benchmark
+    public void withMetrics() {
+        timed.addLike(++reviewId, 1L);
+    }
+
+    private static ReviewService proxy(ReviewService target, ReviewServiceMetrics metrics) {
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.setInterfaces(ReviewService.class);
+        if (metrics != null) {
+            factory.addAspect(metrics);
+        }
+        return factory.getProxy();
+    }
+}
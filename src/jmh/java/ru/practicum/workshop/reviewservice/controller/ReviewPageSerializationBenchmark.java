@@ -0,0 +1,70 @@
+package ru.practicum.workshop.reviewservice.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import ru.practicum.workshop.reviewservice.dto.ReviewDto;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static ru.practicum.workshop.reviewservice.dto.ReviewDtoValidationConstants.CONTENT_MAX_SIZE;
+
+/**
+ * Writing a page of reviews with the longest content allowed, as {@code GET /reviews} answers it.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ReviewPageSerializationBenchmark {
+    private static final String SENTENCE = "Отличное мероприятие, спикеры знали своё дело. Great talks and venue. ";
+
+    @Param({"10", "100", "1000"})
+    private int pageSize;
+
+    private ObjectMapper objectMapper;
+    private List<ReviewDto> page;
+
+    @Setup
+    public void setUp() {
+        // Spring Boot configures the application's mapper the same way.
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        String content = SENTENCE.repeat(CONTENT_MAX_SIZE / SENTENCE.length() + 1).substring(0, CONTENT_MAX_SIZE);
+        LocalDateTime createdOn = LocalDateTime.of(2024, 10, 1, 12, 30, 15, 123_456_000);
+        page = new ArrayList<>(pageSize);
+        for (long id = 1; id <= pageSize; id++) {
+            page.add(new ReviewDto(id, 3L, "author" + id, "title " + id, content, createdOn.plusMinutes(id), null,
+                    (int) (id % 10) + 1, id * 3, id));
+        }
+    }
+
+    @Benchmark
+    public void writeToStream() throws IOException {
+        objectMapper.writeValue(OutputStream.nullOutputStream(), page);
+    }
+
+    @Benchmark
+    public byte[] writeToBytes() throws IOException {
+        return objectMapper.writeValueAsBytes(page);
+    }
+}
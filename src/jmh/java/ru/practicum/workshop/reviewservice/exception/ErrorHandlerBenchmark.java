@@ -0,0 +1,73 @@
+package ru.practicum.workshop.reviewservice.exception;
+
+import jakarta.persistence.EntityNotFoundException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.MethodParameter;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.web.bind.MethodArgumentNotValidException;
+import ru.practicum.workshop.reviewservice.controller.ReviewController;
+import ru.practicum.workshop.reviewservice.dto.ReviewCreateDto;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Turning the exceptions the service throws most often into error responses. The handler's error log is switched
+ * off in {@code logback-jmh.xml}, so the numbers are for building the response alone.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dlogback.configurationFile=logback-jmh.xml")
+@State(Scope.Benchmark)
+public class ErrorHandlerBenchmark {
+    private ErrorHandler errorHandler;
+    private EntityNotFoundException notFound;
+    private ConflictException conflict;
+    private MethodArgumentNotValidException notValid;
+    private IllegalStateException unexpected;
+
+    @Setup
+    public void setUp() throws NoSuchMethodException {
+        errorHandler = new ErrorHandler();
+        notFound = new EntityNotFoundException("Review with id = 1 was not found");
+        conflict = new ConflictException("User with id = 2 has already rated the review with id = 1");
+        ReviewCreateDto dto = new ReviewCreateDto(2L, 3L, "author", "title", "", 8);
+        BeanPropertyBindingResult bindingResult = new BeanPropertyBindingResult(dto, "reviewCreateDto");
+        bindingResult.rejectValue("content", "NotBlank", "Content cannot be blank");
+        MethodParameter parameter = new MethodParameter(
+                ReviewController.class.getMethod("createReview", String.class, ReviewCreateDto.class), 1);
+        notValid = new MethodArgumentNotValidException(parameter, bindingResult);
+        unexpected = new IllegalStateException("Unexpected state");
+    }
+
+    @Benchmark
+    public Map<String, String> notFound() {
+        return errorHandler.handleNotFound(notFound);
+    }
+
+    @Benchmark
+    public Map<String, String> conflict() {
+        return errorHandler.handleConflict(conflict);
+    }
+
+    @Benchmark
+    public Map<String, String> notValid() {
+        return errorHandler.handleValid(notValid);
+    }
+
+    @Benchmark
+    public Map<String, String> unexpected() {
+        return errorHandler.handleOtherExc(unexpected);
+    }
+}
@@ -0,0 +1,59 @@
+package ru.practicum.workshop.reviewservice.mapper;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.workshop.reviewservice.dto.ReviewCreateDto;
+import ru.practicum.workshop.reviewservice.dto.ReviewDto;
+import ru.practicum.workshop.reviewservice.dto.ReviewDtoWithAuthor;
+import ru.practicum.workshop.reviewservice.model.Review;
+import ru.practicum.workshop.reviewservice.model.User;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mapping done for every review a request reads or creates.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ReviewMapperBenchmark {
+    private ReviewMapper reviewMapper;
+    private Review review;
+    private ReviewCreateDto createDto;
+
+    @Setup
+    public void setUp() {
+        reviewMapper = new ReviewMapperImpl();
+        LocalDateTime createdOn = LocalDateTime.of(2024, 10, 1, 12, 30, 15, 123_456_000);
+        review = new Review(1L, new User(2L, "author"), 3L, "title", "content", createdOn,
+                createdOn.plusHours(1), 8, 12, 3);
+        createDto = new ReviewCreateDto(2L, 3L, "author", "title", "content", 8);
+    }
+
+    @Benchmark
+    public ReviewDtoWithAuthor toDtoWithAuthor() {
+        return reviewMapper.toDtoWithAuthor(review);
+    }
+
+    @Benchmark
+    public ReviewDto toDtoWithoutAuthor() {
+        return reviewMapper.toDtoWithoutAuthor(review);
+    }
+
+    @Benchmark
+    public Review toEntity() {
+        return reviewMapper.toEntity(createDto);
+    }
+}
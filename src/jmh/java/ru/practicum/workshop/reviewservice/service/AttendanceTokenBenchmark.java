@@ -0,0 +1,81 @@
+package ru.practicum.workshop.reviewservice.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Verification of an attendance token, against the straightforward one that splits the token and signs with a new
+ * {@link Mac} every time. A remote registration check costs a round trip to registration-service instead,
+ * milliseconds rather than microseconds.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AttendanceTokenBenchmark {
+    private static final long EVENT_ID = 42L;
+    private static final long USER_ID = 7L;
+
+    private AttendanceTokenVerifier hmacVerifier;
+    private String hmacToken;
+    private AttendanceTokenVerifier ed25519Verifier;
+    private String ed25519Token;
+
+    @Setup
+    public void setUp() throws GeneralSecurityException {
+        long expiresAt = Instant.now().plusSeconds(3600).getEpochSecond();
+        hmacVerifier = new AttendanceTokenVerifier(AttendanceTokens.HMAC_KEY, "", new SimpleMeterRegistry());
+        hmacToken = AttendanceTokens.hmac(AttendanceTokens.HMAC_KEY, EVENT_ID, USER_ID, "APPROVED", expiresAt);
+        KeyPair keys = KeyPairGenerator.getInstance("Ed25519").generateKeyPair();
+        ed25519Verifier = new AttendanceTokenVerifier("",
+                Base64.getEncoder().encodeToString(keys.getPublic().getEncoded()), new SimpleMeterRegistry());
+        ed25519Token = AttendanceTokens.ed25519(keys.getPrivate(), EVENT_ID, USER_ID, "APPROVED", expiresAt);
+    }
+
+    @Benchmark
+    public Optional<String> hmac() {
+        return hmacVerifier.verify(hmacToken, EVENT_ID, USER_ID);
+    }
+
+    @Benchmark
+    public Optional<String> hmacBySplitting() throws GeneralSecurityException {
+        String[] parts = hmacToken.split("\\.");
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(Base64.getDecoder().decode(AttendanceTokens.HMAC_KEY), "HmacSHA256"));
+        byte[] expected = mac.doFinal(String.join(".", parts[0], parts[1], parts[2], parts[3])
+                .getBytes(StandardCharsets.US_ASCII));
+        boolean valid = MessageDigest.isEqual(expected, Base64.getUrlDecoder().decode(parts[4]))
+                && Long.parseLong(parts[0]) == EVENT_ID
+                && Long.parseLong(parts[1]) == USER_ID
+                && Long.parseLong(parts[3]) > Instant.now().getEpochSecond();
+        return valid ? Optional.of(parts[2]) : Optional.empty();
+    }
+
+    @Benchmark
+    public Optional<String> ed25519() {
+        return ed25519Verifier.verify(ed25519Token, EVENT_ID, USER_ID);
+    }
+}
@@ -0,0 +1,55 @@
+package ru.practicum.workshop.reviewservice.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import ru.practicum.workshop.reviewservice.dto.analytics.EventIndicators;
+import ru.practicum.workshop.reviewservice.model.EventReviewStats;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Percentages of positive and negative reviews, computed for every event of an indicators or summary request.
+ * The counters cover all the branches: no reviews, only negative, only positive and both.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EventIndicatorsBenchmark {
+    private static final int EVENTS = 1024;
+
+    private EventReviewStats[] stats;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        stats = new EventReviewStats[EVENTS];
+        for (int i = 0; i < EVENTS; i++) {
+            long positive = random.nextInt(4) == 0 ? 0 : random.nextInt(1000);
+            long negative = random.nextInt(4) == 0 ? 0 : random.nextInt(1000);
+            stats[i] = new EventReviewStats((long) i, positive + negative, positive, negative, 0, 0, 0);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(EVENTS)
+    public void toEventIndicators(Blackhole blackhole) {
+        for (EventReviewStats eventStats : stats) {
+            EventIndicators indicators = ReviewServiceImpl.toEventIndicators(eventStats);
+            blackhole.consume(indicators);
+        }
+    }
+}
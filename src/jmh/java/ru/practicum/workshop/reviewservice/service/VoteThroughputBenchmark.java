@@ -0,0 +1,97 @@
+package ru.practicum.workshop.reviewservice.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.workshop.reviewservice.ReviewServiceApplication;
+import ru.practicum.workshop.reviewservice.enums.Label;
+import ru.practicum.workshop.reviewservice.model.Review;
+import ru.practicum.workshop.reviewservice.model.User;
+import ru.practicum.workshop.reviewservice.storage.OpinionStorage;
+import ru.practicum.workshop.reviewservice.storage.ReviewStorage;
+import ru.practicum.workshop.reviewservice.storage.UserStorage;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongConsumer;
+
+/**
+ * Likes on a single hot review from 16 threads, each from a new evaluator, written synchronously or taken by the
+ * write-behind buffer. The application runs with the test profile, on H2.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(16)
+@State(Scope.Benchmark)
+public class VoteThroughputBenchmark {
+    private static final Long EVENT_ID = 3_000_000L;
+    private static final Long AUTHOR_ID = 3_000_000L;
+
+    @Param({"synchronous", "write-behind"})
+    private String mode;
+
+    private final AtomicLong evaluatorIds = new AtomicLong(10_000L);
+    private ConfigurableApplicationContext context;
+    private VoteWriteBehindBuffer buffer;
+    private LongConsumer like;
+
+    @Setup
+    public void setUp() throws IOException {
+        context = new SpringApplicationBuilder(ReviewServiceApplication.class)
+                .properties("spring.profiles.active=test",
+                        "spring.main.web-application-type=none",
+                        // Info logs of every vote would outweigh the writes.
+                        "logging.level.ru.practicum.workshop.reviewservice=WARN")
+                .run();
+        ReviewStorage reviewStorage = context.getBean(ReviewStorage.class);
+        User author = context.getBean(UserStorage.class).save(new User(AUTHOR_ID, "benchmark author"));
+        Long reviewId = reviewStorage.save(Review.builder()
+                .author(author)
+                .eventId(EVENT_ID)
+                .title("title")
+                .content("content")
+                .createdOn(LocalDateTime.now())
+                .mark(7)
+                .build()).getId();
+        if (mode.equals("synchronous")) {
+            ReviewService reviewService = context.getBean(ReviewService.class);
+            like = evaluatorId -> reviewService.addLike(reviewId, evaluatorId);
+        } else {
+            buffer = new VoteWriteBehindBuffer(reviewStorage, context.getBean(OpinionStorage.class),
+                    context.getBean(OpinionChangeWriter.class), 16, 5, Files.createTempDirectory("vote-log"));
+            buffer.start();
+            like = evaluatorId -> buffer.addOpinion(reviewId, evaluatorId, Label.LIKE);
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws InterruptedException {
+        if (buffer != null) {
+            buffer.stop();
+        }
+        context.close();
+    }
+
+    @Benchmark
+    public void like() {
+        like.accept(evaluatorIds.incrementAndGet());
+    }
+}
@@ -0,0 +1,109 @@
+package ru.practicum.workshop.reviewservice.client;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * Stops calling a downstream service that fails most of its recent calls. The breaker opens when at least
+ * {@code failureRate} of the last {@code windowSize} calls failed, rejects calls for {@code openDuration}, then lets
+ * {@code halfOpenCalls} trial calls through: it closes if they all succeed and opens again on the first failure.
+ */
+public class CircuitBreaker {
+    private final int windowSize;
+    private final int minimumCalls;
+    private final double failureRate;
+    private final long openNanos;
+    private final int halfOpenCalls;
+    private final LongSupplier nanoClock;
+    private final boolean[] window;
+    private State state = State.CLOSED;
+    private int recorded;
+    private int failures;
+    private int next;
+    private long openedAt;
+    private int trialsStarted;
+    private int trialsSucceeded;
+
+    public CircuitBreaker(int windowSize, int minimumCalls, double failureRate, Duration openDuration,
+                          int halfOpenCalls) {
+        this(windowSize, minimumCalls, failureRate, openDuration, halfOpenCalls, System::nanoTime);
+    }
+
+    CircuitBreaker(int windowSize, int minimumCalls, double failureRate, Duration openDuration, int halfOpenCalls,
+                   LongSupplier nanoClock) {
+        this.windowSize = windowSize;
+        this.minimumCalls = Math.min(minimumCalls, windowSize);
+        this.failureRate = failureRate;
+        this.openNanos = openDuration.toNanos();
+        this.halfOpenCalls = halfOpenCalls;
+        this.nanoClock = nanoClock;
+        this.window = new boolean[windowSize];
+    }
+
+    /**
+     * Returns whether a call may be made now; every permitted call has to be followed by {@link #record}.
+     */
+    public synchronized boolean tryAcquire() {
+        if (state == State.OPEN && nanoClock.getAsLong() - openedAt >= openNanos) {
+            state = State.HALF_OPEN;
+            trialsStarted = 0;
+            trialsSucceeded = 0;
+        }
+        if (state == State.HALF_OPEN) {
+            if (trialsStarted == halfOpenCalls) {
+                return false;
+            }
+            trialsStarted++;
+            return true;
+        }
+        return state == State.CLOSED;
+    }
+
+    public synchronized void record(boolean failed) {
+        if (state == State.HALF_OPEN) {
+            if (failed) {
+                open();
+            } else if (++trialsSucceeded == halfOpenCalls) {
+                close();
+            }
+            return;
+        }
+        if (state == State.OPEN) {
+            // A call permitted before the breaker opened; its outcome is already accounted for.
+            return;
+        }
+        if (recorded == windowSize) {
+            failures -= window[next] ? 1 : 0;
+        } else {
+            recorded++;
+        }
+        window[next] = failed;
+        failures += failed ? 1 : 0;
+        next = (next + 1) % windowSize;
+        if (recorded >= minimumCalls && failures >= failureRate * recorded) {
+            open();
+        }
+    }
+
+    public synchronized boolean isOpen() {
+        return state != State.CLOSED;
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openedAt = nanoClock.getAsLong();
+    }
+
+    private void close() {
+        state = State.CLOSED;
+        recorded = 0;
+        failures = 0;
+        next = 0;
+    }
+
+    private enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+}
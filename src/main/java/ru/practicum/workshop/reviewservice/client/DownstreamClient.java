@@ -0,0 +1,333 @@
+package ru.practicum.workshop.reviewservice.client;
+
+import feign.Client;
+import feign.Request;
+import feign.RequestTemplate;
+import feign.Response;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import ru.practicum.workshop.reviewservice.exception.ServiceUnavailableException;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Transport of one Feign client. Calls beyond {@code maxConcurrentCalls} wait up to {@code maxWait} and are then
+ * rejected, so a slow service holds at most that many request threads; calls are also rejected while the
+ * circuit breaker is open. Both rejections are {@link ServiceUnavailableException}s. A GET that has not been
+ * answered within {@code hedgeDelay} is sent once more if a call is still allowed, and the first answer wins; a
+ * {@code null} delay turns hedging off. Each attempt holds a call of its own until it ends, and the losing attempt
+ * is cancelled through the hook its transport registered with {@link #onCancel}, or by interrupting it.
+ * <p>
+ * Every call is timed in {@code review-service.downstream.requests}, tagged with the client, the Feign method and
+ * the status, which is {@code IO_ERROR} for a call that got no answer and {@code REJECTED} for a call that was not
+ * made.
+ */
+@Slf4j
+public class DownstreamClient implements Client {
+    private static final String REQUESTS_METRIC = "review-service.downstream.requests";
+    private static final ThreadLocal<Attempt> CURRENT_ATTEMPT = new ThreadLocal<>();
+
+    private final String name;
+    private final Client delegate;
+    private final int maxConcurrentCalls;
+    private final Semaphore bulkhead;
+    private final Duration maxWait;
+    private final CircuitBreaker circuitBreaker;
+    private final Duration hedgeDelay;
+    private final ThreadPoolExecutor hedgeExecutor;
+    private final MeterRegistry meterRegistry;
+    private final Counter hedges;
+    private final Map<String, MethodTimers> timers = new ConcurrentHashMap<>();
+
+    public DownstreamClient(String name,
+                            Client delegate,
+                            int maxConcurrentCalls,
+                            Duration maxWait,
+                            CircuitBreaker circuitBreaker,
+                            Duration hedgeDelay,
+                            MeterRegistry meterRegistry) {
+        this.name = name;
+        this.delegate = delegate;
+        this.maxConcurrentCalls = maxConcurrentCalls;
+        this.bulkhead = new Semaphore(maxConcurrentCalls);
+        this.maxWait = maxWait;
+        this.circuitBreaker = circuitBreaker;
+        this.hedgeDelay = hedgeDelay;
+        this.hedgeExecutor = hedgeDelay == null ? null : hedgeExecutor(name, maxConcurrentCalls);
+        this.meterRegistry = meterRegistry;
+        this.hedges = Counter.builder("review-service.downstream.hedges")
+                .description("GET requests sent a second time because the first was not answered in time")
+                .tag("client", name)
+                .register(meterRegistry);
+        Gauge.builder("review-service.downstream.circuit.open", circuitBreaker, breaker -> breaker.isOpen() ? 1 : 0)
+                .description("Whether calls are being rejected or only trial calls are let through")
+                .tag("client", name)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Response execute(Request request, Request.Options options) throws IOException {
+        long start = System.nanoTime();
+        if (!acquire()) {
+            record(request, "REJECTED", start);
+            log.error("SERVICE UNAVAILABLE. Вызов {} отклонён: уже выполняются все {} разрешённых вызовов.", name,
+                    maxConcurrentCalls);
+            throw new ServiceUnavailableException(String.format("Call to %s is rejected: too many calls in progress",
+                    name));
+        }
+        boolean permitHandedOver = false;
+        try {
+            if (!circuitBreaker.tryAcquire()) {
+                record(request, "REJECTED", start);
+                log.error("SERVICE UNAVAILABLE. Вызов {} отклонён: сервис недавно отвечал ошибками.", name);
+                throw new ServiceUnavailableException(String.format("Call to %s is rejected: the service has been " +
+                        "failing", name));
+            }
+            String status = "IO_ERROR";
+            try {
+                Response response;
+                if (hedgeDelay != null && request.httpMethod() == Request.HttpMethod.GET) {
+                    // The first attempt takes over the permit and returns it when it ends, answered or not.
+                    permitHandedOver = true;
+                    response = executeHedged(request, options);
+                } else {
+                    response = delegate.execute(request, options);
+                }
+                status = String.valueOf(response.status());
+                circuitBreaker.record(response.status() >= 500);
+                return response;
+            } catch (IOException | RuntimeException e) {
+                circuitBreaker.record(true);
+                throw e;
+            } finally {
+                record(request, status, start);
+            }
+        } finally {
+            if (!permitHandedOver) {
+                bulkhead.release();
+            }
+        }
+    }
+
+    /**
+     * Lets the transport of the attempt running on this thread say how to cancel it, for an attempt of a hedged
+     * call that lost or whose caller gave up. Outside of a hedged call it does nothing.
+     */
+    public static void onCancel(Runnable cancel) {
+        Attempt attempt = CURRENT_ATTEMPT.get();
+        if (attempt != null) {
+            attempt.onCancel(cancel);
+        }
+    }
+
+    public void close() {
+        if (hedgeExecutor != null) {
+            hedgeExecutor.shutdownNow();
+        }
+    }
+
+    private boolean acquire() throws InterruptedIOException {
+        try {
+            return bulkhead.tryAcquire(maxWait.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting to call " + name);
+        }
+    }
+
+    private Response executeHedged(Request request, Request.Options options) throws IOException {
+        Hedge hedge = new Hedge();
+        hedge.start(request, options);
+        try {
+            try {
+                return hedge.answer.get(hedgeDelay.toNanos(), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                // Without a free call the slow attempt is left alone rather than growing past the bulkhead.
+                if (bulkhead.tryAcquire()) {
+                    hedges.increment();
+                    hedge.start(request, options);
+                }
+                return hedge.answer.get();
+            }
+        } catch (InterruptedException e) {
+            hedge.cancelAll();
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while calling " + name);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException failure) {
+                throw failure;
+            }
+            if (e.getCause() instanceof RuntimeException failure) {
+                throw failure;
+            }
+            throw new IOException(e.getCause());
+        }
+    }
+
+    private static ThreadPoolExecutor hedgeExecutor(String name, int maxConcurrentCalls) {
+        // Every attempt holds a permit, so there are never more attempts than threads.
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(maxConcurrentCalls, maxConcurrentCalls, 1,
+                TimeUnit.MINUTES, new LinkedBlockingQueue<>(), new CustomizableThreadFactory(name + "-"));
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * The attempts of one hedged call. The first answer completes {@code answer} and cancels the other attempts;
+     * the last of the attempts to fail completes it with its failure.
+     */
+    private final class Hedge {
+        private final CompletableFuture<Response> answer = new CompletableFuture<>();
+        private final List<Attempt> attempts = new CopyOnWriteArrayList<>();
+        private final AtomicInteger running = new AtomicInteger();
+
+        /**
+         * Runs one more attempt with a permit the caller has acquired.
+         */
+        private void start(Request request, Request.Options options) {
+            Attempt attempt = new Attempt(this, request, options);
+            attempts.add(attempt);
+            running.incrementAndGet();
+            try {
+                hedgeExecutor.execute(attempt);
+            } catch (RejectedExecutionException e) {
+                bulkhead.release();
+                failed(new IOException("Call to " + name + " is rejected: the client is closed", e));
+            }
+        }
+
+        private void answered(Attempt winner, Response response) {
+            if (!answer.complete(response)) {
+                response.close();
+                return;
+            }
+            for (Attempt attempt : attempts) {
+                if (attempt != winner) {
+                    attempt.cancel();
+                }
+            }
+        }
+
+        private void failed(Exception failure) {
+            if (running.decrementAndGet() == 0) {
+                answer.completeExceptionally(failure);
+            }
+        }
+
+        private void cancelAll() {
+            attempts.forEach(Attempt::cancel);
+        }
+    }
+
+    private final class Attempt implements Runnable {
+        private final Hedge hedge;
+        private final Request request;
+        private final Request.Options options;
+        private Thread thread;
+        private Runnable canceller;
+        private boolean cancelled;
+
+        private Attempt(Hedge hedge, Request request, Request.Options options) {
+            this.hedge = hedge;
+            this.request = request;
+            this.options = options;
+        }
+
+        @Override
+        public void run() {
+            try {
+                synchronized (this) {
+                    if (cancelled) {
+                        throw new InterruptedIOException("Call to " + name + " is cancelled");
+                    }
+                    thread = Thread.currentThread();
+                }
+                CURRENT_ATTEMPT.set(this);
+                hedge.answered(this, delegate.execute(request, options));
+            } catch (IOException | RuntimeException e) {
+                hedge.failed(e);
+            } finally {
+                CURRENT_ATTEMPT.remove();
+                synchronized (this) {
+                    thread = null;
+                }
+                // An interruption meant for this attempt must not reach the next task of the thread.
+                Thread.interrupted();
+                bulkhead.release();
+            }
+        }
+
+        private synchronized void onCancel(Runnable cancel) {
+            canceller = cancel;
+            if (cancelled) {
+                cancel.run();
+            }
+        }
+
+        private synchronized void cancel() {
+            cancelled = true;
+            if (canceller != null) {
+                canceller.run();
+            }
+            if (thread != null) {
+                thread.interrupt();
+            }
+        }
+    }
+
+    private void record(Request request, String status, long start) {
+        timers.computeIfAbsent(methodOf(request), MethodTimers::new)
+                .timer(status)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    private static String methodOf(Request request) {
+        RequestTemplate template = request.requestTemplate();
+        if (template == null || template.methodMetadata() == null) {
+            return "unknown";
+        }
+        return template.methodMetadata().method().getName();
+    }
+
+    private final class MethodTimers {
+        private final String method;
+        private final Map<String, Timer> byStatus = new ConcurrentHashMap<>();
+
+        private MethodTimers(String method) {
+            this.method = method;
+        }
+
+        private Timer timer(String status) {
+            return byStatus.computeIfAbsent(status, this::register);
+        }
+
+        private Timer register(String status) {
+            return Timer.builder(REQUESTS_METRIC)
+                    .description("Calls to the services review-service depends on")
+                    .tag("client", name)
+                    .tag("method", method)
+                    .tag("status", status)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry);
+        }
+    }
+}
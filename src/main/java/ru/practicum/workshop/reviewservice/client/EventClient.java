@@ -7,7 +7,7 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import ru.practicum.workshop.reviewservice.client.config.CustomFeignClientConfiguration;
 import ru.practicum.workshop.reviewservice.dto.EventResponse;
 
-@FeignClient(name = "event-service-client", url = "http://host.docker.internal:8082",
+@FeignClient(name = "event-service-client", url = "${review-service.event-service.url:http://host.docker.internal:8082}",
         configuration = CustomFeignClientConfiguration.class)
 public interface EventClient {
     @GetMapping("/events/{id}")
@@ -4,13 +4,25 @@ import jakarta.validation.constraints.Positive;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
 import ru.practicum.workshop.reviewservice.client.config.CustomFeignClientConfiguration;
 
-@FeignClient(name = "registration-service-client", url = "http://host.docker.internal:8084",
+import java.util.List;
+import java.util.Map;
+
+@FeignClient(name = "registration-service-client", url = "${review-service.registration-service.url:http://host.docker.internal:8084}",
         configuration = CustomFeignClientConfiguration.class)
 public interface RegistrationClient {
     @GetMapping("/registrations/internal/status-of-registration/{eventId}")
     String getStatusOfRegistration(@PathVariable @Positive Long eventId,
                                                  @RequestHeader("X-Review-User-Id") Long userId);
+
+    /**
+     * Returns the registration statuses of the given users by user id; users without a registration are left out.
+     */
+    @PostMapping("/registrations/internal/status-of-registrations/{eventId}")
+    Map<Long, String> getStatusesOfRegistrations(@PathVariable @Positive Long eventId,
+                                                 @RequestBody List<Long> userIds);
 }
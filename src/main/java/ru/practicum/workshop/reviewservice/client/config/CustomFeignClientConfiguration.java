@@ -1,15 +1,86 @@
 package ru.practicum.workshop.reviewservice.client.config;
 
+import feign.Request;
+import io.micrometer.core.instrument.MeterRegistry;
+import okhttp3.ConnectionPool;
+import okhttp3.Protocol;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.bind.Binder;
 import org.springframework.context.annotation.Bean;
-import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import ru.practicum.workshop.reviewservice.client.CircuitBreaker;
+import ru.practicum.workshop.reviewservice.client.DownstreamClient;
 
 import feign.okhttp.OkHttpClient;
 
-@Configuration
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Transport of a Feign client. Not a {@code @Configuration}, so that every client gets its own connection pool,
+ * bulkhead and circuit breaker in its own Feign context. The settings of a client are read under
+ * {@code review-service.<service>}, where the service is the client name without its {@code -client} suffix, e.g.
+ * {@code review-service.event-service.max-concurrent-calls}, next to the service url.
+ */
 public class CustomFeignClientConfiguration {
     @Bean
-    public OkHttpClient client() {
-        return new OkHttpClient();
+    public Request.Options options(@Value("${spring.cloud.openfeign.client.name}") String clientName,
+                                   Environment environment) {
+        Binder binder = Binder.get(environment);
+        String prefix = prefixOf(clientName);
+        return new Request.Options(
+                setting(binder, prefix, "connect-timeout", Duration.class, Duration.ofSeconds(1)).toMillis(),
+                TimeUnit.MILLISECONDS,
+                setting(binder, prefix, "read-timeout", Duration.class, Duration.ofSeconds(5)).toMillis(),
+                TimeUnit.MILLISECONDS,
+                true);
+    }
+
+    @Bean(destroyMethod = "close")
+    public DownstreamClient client(@Value("${spring.cloud.openfeign.client.name}") String clientName,
+                                   Request.Options options,
+                                   Environment environment,
+                                   MeterRegistry meterRegistry) {
+        Binder binder = Binder.get(environment);
+        String prefix = prefixOf(clientName);
+        // With the timeouts of the options Feign passes along, the client is not rebuilt for every request.
+        okhttp3.OkHttpClient.Builder okHttpClient = new okhttp3.OkHttpClient.Builder()
+                .connectTimeout(options.connectTimeoutMillis(), TimeUnit.MILLISECONDS)
+                .readTimeout(options.readTimeoutMillis(), TimeUnit.MILLISECONDS)
+                .connectionPool(new ConnectionPool(
+                        setting(binder, prefix, "max-idle-connections", Integer.class, 20),
+                        setting(binder, prefix, "keep-alive", Duration.class, Duration.ofMinutes(5)).toMillis(),
+                        TimeUnit.MILLISECONDS))
+                // The losing attempt of a hedged call is cancelled, which a blocked read does not notice otherwise.
+                .addInterceptor(chain -> {
+                    DownstreamClient.onCancel(chain.call()::cancel);
+                    return chain.proceed(chain.request());
+                });
+        // Over TLS, HTTP/2 is negotiated by default; a plain-text service has to be known to speak it.
+        if (setting(binder, prefix, "http2-prior-knowledge", Boolean.class, false)) {
+            okHttpClient.protocols(List.of(Protocol.H2_PRIOR_KNOWLEDGE));
+        }
+        CircuitBreaker circuitBreaker = new CircuitBreaker(
+                setting(binder, prefix, "circuit-breaker.window-size", Integer.class, 50),
+                setting(binder, prefix, "circuit-breaker.minimum-calls", Integer.class, 20),
+                setting(binder, prefix, "circuit-breaker.failure-rate", Double.class, 0.5),
+                setting(binder, prefix, "circuit-breaker.open-duration", Duration.class, Duration.ofSeconds(10)),
+                setting(binder, prefix, "circuit-breaker.half-open-calls", Integer.class, 5));
+        return new DownstreamClient(clientName,
+                new OkHttpClient(okHttpClient.build()),
+                setting(binder, prefix, "max-concurrent-calls", Integer.class, 64),
+                setting(binder, prefix, "max-wait", Duration.class, Duration.ZERO),
+                circuitBreaker,
+                binder.bind(prefix + ".hedge-delay", Duration.class).orElse(null),
+                meterRegistry);
     }
-}
 
+    private static String prefixOf(String clientName) {
+        return "review-service." + clientName.replaceFirst("-client$", "");
+    }
+
+    private static <T> T setting(Binder binder, String prefix, String name, Class<T> type, T defaultValue) {
+        return binder.bind(prefix + "." + name, type).orElse(defaultValue);
+    }
+}
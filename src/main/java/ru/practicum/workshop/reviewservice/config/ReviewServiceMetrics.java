@@ -0,0 +1,123 @@
+package ru.practicum.workshop.reviewservice.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityNotFoundException;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.practicum.workshop.reviewservice.exception.BadRequestException;
+import ru.practicum.workshop.reviewservice.exception.ConflictException;
+import ru.practicum.workshop.reviewservice.exception.ForbiddenException;
+import ru.practicum.workshop.reviewservice.service.ReviewService;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Times every {@link ReviewService} call in {@code review-service.service.calls}, tagged with the method, the
+ * outcome ({@code SUCCESS}, {@code CLIENT_ERROR} for the exceptions answered with 4xx, {@code SERVER_ERROR}
+ * otherwise), the exception's simple class name and, for likes and dislikes, the label. Overloads are told apart
+ * by their parameter types. Repository methods are timed by Spring Boot in
+ * {@code spring.data.repository.invocations} and Feign calls in {@code review-service.downstream.requests}.
+ * <p>
+ * Timers are looked up once per method and exception type, so a call costs two clock reads and a map lookup.
+ */
+@Aspect
+@Component
+@ConditionalOnProperty(name = "review-service.metrics.service-calls.enabled", havingValue = "true",
+        matchIfMissing = true)
+public class ReviewServiceMetrics {
+    private static final String CALLS_METRIC = "review-service.service.calls";
+    private static final String NO_EXCEPTION = "none";
+
+    private final MeterRegistry meterRegistry;
+    private final Map<Method, MethodTimers> timers = new ConcurrentHashMap<>();
+
+    public ReviewServiceMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Around("execution(* ru.practicum.workshop.reviewservice.service.ReviewService.*(..))")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        MethodTimers methodTimers = timers.computeIfAbsent(((MethodSignature) joinPoint.getSignature()).getMethod(),
+                MethodTimers::new);
+        long start = System.nanoTime();
+        Throwable failure = null;
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            failure = e;
+            throw e;
+        } finally {
+            long nanos = System.nanoTime() - start;
+            Timer timer = failure == null ? methodTimers.success : methodTimers.failure(failure.getClass());
+            timer.record(nanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private static String outcomeOf(Class<?> exceptionType) {
+        if (exceptionType == null) {
+            return "SUCCESS";
+        }
+        boolean clientError = EntityNotFoundException.class.isAssignableFrom(exceptionType)
+                || ConflictException.class.isAssignableFrom(exceptionType)
+                || ForbiddenException.class.isAssignableFrom(exceptionType)
+                || BadRequestException.class.isAssignableFrom(exceptionType);
+        return clientError ? "CLIENT_ERROR" : "SERVER_ERROR";
+    }
+
+    private static String tagOf(Method method) {
+        long overloads = Arrays.stream(ReviewService.class.getMethods())
+                .filter(other -> other.getName().equals(method.getName()))
+                .count();
+        if (overloads == 1) {
+            return method.getName();
+        }
+        return Arrays.stream(method.getParameterTypes())
+                .map(Class::getSimpleName)
+                .collect(Collectors.joining(",", method.getName() + "(", ")"));
+    }
+
+    private static String labelOf(String methodName) {
+        if (methodName.endsWith("Dislike")) {
+            return "DISLIKE";
+        }
+        return methodName.endsWith("Like") ? "LIKE" : "none";
+    }
+
+    private final class MethodTimers {
+        private final String method;
+        private final String label;
+        private final Timer success;
+        private final Map<Class<?>, Timer> failures = new ConcurrentHashMap<>();
+
+        private MethodTimers(Method method) {
+            this.method = tagOf(method);
+            this.label = labelOf(method.getName());
+            this.success = timer(null);
+        }
+
+        private Timer failure(Class<?> exceptionType) {
+            return failures.computeIfAbsent(exceptionType, this::timer);
+        }
+
+        private Timer timer(Class<?> exceptionType) {
+            return Timer.builder(CALLS_METRIC)
+                    .description("Calls to the review service")
+                    .tag("method", method)
+                    .tag("outcome", outcomeOf(exceptionType))
+                    .tag("exception", exceptionType == null ? NO_EXCEPTION : exceptionType.getSimpleName())
+                    .tag("label", label)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry);
+        }
+    }
+}
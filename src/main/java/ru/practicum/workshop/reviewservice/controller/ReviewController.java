@@ -1,38 +1,70 @@
 package ru.practicum.workshop.reviewservice.controller;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.workshop.reviewservice.dto.*;
 import ru.practicum.workshop.reviewservice.dto.analytics.AuthorAverageMark;
 import ru.practicum.workshop.reviewservice.dto.analytics.BestAndWorstReviews;
 import ru.practicum.workshop.reviewservice.dto.analytics.EventAverageMark;
 import ru.practicum.workshop.reviewservice.dto.analytics.EventIndicators;
+import ru.practicum.workshop.reviewservice.dto.analytics.EventSummary;
+import ru.practicum.workshop.reviewservice.dto.batch.ReviewBatchItem;
+import ru.practicum.workshop.reviewservice.dto.importing.ReviewImportResult;
+import ru.practicum.workshop.reviewservice.dto.opinion.OpinionBatchItem;
+import ru.practicum.workshop.reviewservice.dto.opinion.OpinionBatchItemResult;
+import ru.practicum.workshop.reviewservice.enums.ReviewExportFormat;
+import ru.practicum.workshop.reviewservice.exception.BadRequestException;
 import ru.practicum.workshop.reviewservice.mapper.ReviewMapper;
 import ru.practicum.workshop.reviewservice.model.Review;
+import ru.practicum.workshop.reviewservice.service.ReviewExportService;
+import ru.practicum.workshop.reviewservice.service.ReviewImportService;
 import ru.practicum.workshop.reviewservice.service.ReviewService;
 
+import java.io.InputStream;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
+import static ru.practicum.workshop.reviewservice.dto.Constants.MAX_IDS_IN_ANALYTICS_BATCH;
+import static ru.practicum.workshop.reviewservice.dto.Constants.MAX_OPINIONS_IN_BATCH;
+import static ru.practicum.workshop.reviewservice.dto.Constants.MAX_REVIEWS_IN_BATCH;
+import static ru.practicum.workshop.reviewservice.dto.Constants.MAX_REVIEWS_PAGE_SIZE;
+
 @Validated
 @RestController
 @RequiredArgsConstructor
 @RequestMapping(path = "/reviews")
 public class ReviewController {
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    public static final String IMPORT_MEDIA_TYPE = "application/x-ndjson";
+    public static final String ATTENDANCE_TOKEN_HEADER = "X-Attendance-Token";
+
     private final ReviewService reviewService;
     private final ReviewMapper reviewMapper;
+    private final ReviewImportService reviewImportService;
+    private final ReviewExportService reviewExportService;
 
     @ResponseStatus(code = HttpStatus.CREATED)
     @PostMapping
-    public ReviewDtoWithAuthor createReview(@Valid @RequestBody ReviewCreateDto dto) {
-        Review createdReview = reviewService.createReview(reviewMapper.toEntity(dto));
+    public ReviewDtoWithAuthor createReview(@RequestHeader(value = ATTENDANCE_TOKEN_HEADER, required = false)
+                                            String attendanceToken,
+                                            @Valid @RequestBody ReviewCreateDto dto) {
+        Review createdReview = reviewService.createReview(reviewMapper.toEntity(dto), attendanceToken);
         return reviewMapper.toDtoWithAuthor(createdReview);
     }
 
@@ -48,25 +80,89 @@ public class ReviewController {
         return reviewMapper.toDtoWithAuthor(updatedReview);
     }
 
+    @PostMapping(path = "/import", consumes = IMPORT_MEDIA_TYPE)
+    public ReviewImportResult importReviews(InputStream body) {
+        return reviewImportService.importReviews(body);
+    }
+
+    @GetMapping("/batch")
+    public List<ReviewBatchItem> getReviewsByIds(@RequestParam
+                                                 @NotEmpty(message = "List of review ids shouldn't be empty")
+                                                 @Size(max = MAX_REVIEWS_IN_BATCH,
+                                                         message = "List of review ids is too large")
+                                                 List<@NotNull(message = "Review's id shouldn't be null")
+                                                     @Positive(message = "Review's id should be positive")
+                                                     Long> ids) {
+        return toBatchItems(ids);
+    }
+
+    @PostMapping("/batch")
+    public List<ReviewBatchItem> getReviewsByIdsFromBody(@RequestBody
+                                                         @NotEmpty(message = "List of review ids shouldn't be empty")
+                                                         @Size(max = MAX_REVIEWS_IN_BATCH,
+                                                                 message = "List of review ids is too large")
+                                                         List<@NotNull(message = "Review's id shouldn't be null")
+                                                             @Positive(message = "Review's id should be positive")
+                                                             Long> ids) {
+        return toBatchItems(ids);
+    }
+
     @GetMapping("/{id}")
     public ReviewDto getReviewById(@PathVariable @Positive(message = "Review's id should be positive") Long id) {
-        return reviewMapper.toDtoWithoutAuthor(reviewService.getReviewById(id));
+        return reviewService.getReviewDtoById(id);
     }
 
     @GetMapping
-    public List<ReviewDto> getReviewsByEventId(@RequestParam(defaultValue = "0")
-                                                   @PositiveOrZero(message = "Parameter 'page' shouldn't be negative")
-                                                   int page,
-                                               @RequestParam(defaultValue = "10")
-                                               @Positive(message = "Parameter 'size' should be positive")
-                                               int size,
-                                               @RequestParam
-                                                   @Positive(message = "User's id should be positive")
-                                                   Long eventId) {
-        Sort sort = Sort.by(Sort.Direction.DESC, "createdOn");
-        return reviewService.getReviewsByEvent(eventId, PageRequest.of(page, size, sort)).stream()
+    public ResponseEntity<List<ReviewDto>> getReviewsByEventId(@RequestParam(defaultValue = "0")
+                                                                   @PositiveOrZero(message = "Parameter 'page' shouldn't be negative")
+                                                                   int page,
+                                                               @RequestParam(defaultValue = "10")
+                                                               @Positive(message = "Parameter 'size' should be positive")
+                                                               @Max(value = MAX_REVIEWS_PAGE_SIZE,
+                                                                       message = "Parameter 'size' shouldn't be more than " + MAX_REVIEWS_PAGE_SIZE)
+                                                               int size,
+                                                               @RequestParam
+                                                                   @Positive(message = "User's id should be positive")
+                                                                   Long eventId,
+                                                               @RequestParam(required = false)
+                                                                   ReviewCursor cursor) {
+        List<Review> reviews;
+        if (cursor == null) {
+            Sort sort = Sort.by(Sort.Direction.DESC, "createdOn").and(Sort.by(Sort.Direction.DESC, "id"));
+            reviews = reviewService.getReviewsByEvent(eventId, PageRequest.of(page, size, sort));
+        } else {
+            reviews = reviewService.getReviewsByEvent(eventId, cursor, size);
+        }
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (reviews.size() == size) {
+            response.header(NEXT_CURSOR_HEADER, ReviewCursor.of(reviews.get(reviews.size() - 1)).encode());
+        }
+        return response.body(reviews.stream()
                 .map(reviewMapper::toDtoWithoutAuthor)
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportReviews(@RequestParam(required = false)
+                                                               @Positive(message = "Event's id should be positive")
+                                                               Long eventId,
+                                                               @RequestParam(required = false)
+                                                               @Positive(message = "Author's id should be positive")
+                                                               Long authorId,
+                                                               @RequestParam(defaultValue = "NDJSON")
+                                                               ReviewExportFormat format) {
+        if ((eventId == null) == (authorId == null)) {
+            throw new BadRequestException("Exactly one of parameters 'eventId' and 'authorId' should be set");
+        }
+        StreamingResponseBody body = eventId != null
+                ? output -> reviewExportService.exportByEvent(eventId, format, output)
+                : output -> reviewExportService.exportByAuthor(authorId, format, output);
+        String fileName = eventId != null ? "reviews-event-" + eventId : "reviews-author-" + authorId;
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getMediaType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=" + fileName + "." + format.name().toLowerCase())
+                .body(body);
     }
 
     @ResponseStatus(code = HttpStatus.NO_CONTENT)
@@ -122,6 +218,24 @@ public class ReviewController {
         reviewService.removeDislike(id, evaluatorId);
     }
 
+    @PostMapping("/opinions/batch")
+    public List<OpinionBatchItemResult> applyOpinions(@RequestBody
+                                                      @NotEmpty(message = "Batch of opinions shouldn't be empty")
+                                                      @Size(max = MAX_OPINIONS_IN_BATCH,
+                                                              message = "Batch of opinions is too large")
+                                                      List<@Valid OpinionBatchItem> items) {
+        return reviewService.applyOpinions(items);
+    }
+
+    private List<ReviewBatchItem> toBatchItems(List<Long> ids) {
+        Map<Long, Review> reviews = reviewService.getReviewsByIds(ids);
+        return ids.stream()
+                .map(id -> reviews.containsKey(id)
+                        ? ReviewBatchItem.found(reviewMapper.toDtoWithoutAuthor(reviews.get(id)))
+                        : ReviewBatchItem.missing(id))
+                .collect(Collectors.toList());
+    }
+
     @GetMapping("/analytics/average-mark/event/{eventId}")
     public EventAverageMark getEventAverageMark(@PathVariable
                                                     @Positive(message = "Event's id should be positive")
@@ -149,4 +263,55 @@ public class ReviewController {
                                                           Long eventId) {
         return reviewService.getBestAndWorstReviews(eventId);
     }
+
+    @GetMapping("/analytics/event/{eventId}/summary")
+    public EventSummary getEventSummary(@PathVariable
+                                        @Positive(message = "Event's id should be positive")
+                                        Long eventId) {
+        return reviewService.getEventSummary(eventId);
+    }
+
+    @GetMapping("/analytics/average-mark/events")
+    public List<EventAverageMark> getEventAverageMarks(@RequestParam
+                                                       @NotEmpty(message = "List of event ids shouldn't be empty")
+                                                       @Size(max = MAX_IDS_IN_ANALYTICS_BATCH,
+                                                               message = "List of event ids is too large")
+                                                       List<@NotNull(message = "Event's id shouldn't be null")
+                                                           @Positive(message = "Event's id should be positive")
+                                                           Long> ids) {
+        return reviewService.getEventAverageMarks(ids);
+    }
+
+    @GetMapping("/analytics/average-mark/authors")
+    public List<AuthorAverageMark> getAuthorAverageMarks(@RequestParam
+                                                         @NotEmpty(message = "List of author ids shouldn't be empty")
+                                                         @Size(max = MAX_IDS_IN_ANALYTICS_BATCH,
+                                                                 message = "List of author ids is too large")
+                                                         List<@NotNull(message = "Author's id shouldn't be null")
+                                                             @Positive(message = "Author's id should be positive")
+                                                             Long> ids) {
+        return reviewService.getAuthorAverageMarks(ids);
+    }
+
+    @GetMapping("/analytics/indicators/events")
+    public List<EventIndicators> getEventIndicators(@RequestParam
+                                                    @NotEmpty(message = "List of event ids shouldn't be empty")
+                                                    @Size(max = MAX_IDS_IN_ANALYTICS_BATCH,
+                                                            message = "List of event ids is too large")
+                                                    List<@NotNull(message = "Event's id shouldn't be null")
+                                                        @Positive(message = "Event's id should be positive")
+                                                        Long> ids) {
+        return reviewService.getEventIndicators(ids);
+    }
+
+    @GetMapping("/analytics/best-and-worst/events")
+    public List<BestAndWorstReviews> getBestAndWorstReviews(@RequestParam
+                                                            @NotEmpty(message = "List of event ids shouldn't be empty")
+                                                            @Size(max = MAX_IDS_IN_ANALYTICS_BATCH,
+                                                                    message = "List of event ids is too large")
+                                                            List<@NotNull(message = "Event's id shouldn't be null")
+                                                                @Positive(message = "Event's id should be positive")
+                                                                Long> ids) {
+        return reviewService.getBestAndWorstReviews(ids);
+    }
 }
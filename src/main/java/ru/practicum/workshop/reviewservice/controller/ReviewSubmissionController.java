@@ -0,0 +1,84 @@
+package ru.practicum.workshop.reviewservice.controller;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import ru.practicum.workshop.reviewservice.dto.ReviewCreateDto;
+import ru.practicum.workshop.reviewservice.dto.ReviewSubmissionDto;
+import ru.practicum.workshop.reviewservice.mapper.ReviewMapper;
+import ru.practicum.workshop.reviewservice.model.PendingReview;
+import ru.practicum.workshop.reviewservice.service.ReviewSubmissionService;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static ru.practicum.workshop.reviewservice.dto.Constants.MAX_SUBMISSION_WAIT_SECONDS;
+
+/**
+ * Asynchronous counterpart of {@code POST /reviews}: the review is accepted once it is queued, and its outcome is
+ * polled, or long-polled with {@code waitSeconds}, under the returned location.
+ */
+@Validated
+@RestController
+@RequiredArgsConstructor
+@RequestMapping(path = "/reviews/submissions")
+@ConditionalOnProperty(name = "review-service.async-submissions.enabled", havingValue = "true")
+public class ReviewSubmissionController {
+    private final ReviewSubmissionService reviewSubmissionService;
+    private final ReviewMapper reviewMapper;
+
+    @PostMapping
+    public ResponseEntity<ReviewSubmissionDto> submitReview(@RequestHeader(
+                                                                    value = ReviewController.ATTENDANCE_TOKEN_HEADER,
+                                                                    required = false)
+                                                            String attendanceToken,
+                                                            @Valid @RequestBody ReviewCreateDto dto) {
+        PendingReview submission = reviewSubmissionService.submit(reviewMapper.toPendingReview(dto, attendanceToken));
+        return ResponseEntity.accepted()
+                .location(ServletUriComponentsBuilder.fromCurrentRequest()
+                        .path("/{submissionId}")
+                        .buildAndExpand(submission.getId())
+                        .toUri())
+                .body(reviewMapper.toSubmissionDto(submission));
+    }
+
+    @GetMapping("/{submissionId}")
+    public DeferredResult<ReviewSubmissionDto> getSubmission(@PathVariable
+                                                             @Positive(message = "Submission's id should be positive")
+                                                             Long submissionId,
+                                                             @RequestParam(defaultValue = "0")
+                                                             @PositiveOrZero(message = "Wait should be positive or zero")
+                                                             @Max(value = MAX_SUBMISSION_WAIT_SECONDS,
+                                                                     message = "Wait should not exceed "
+                                                                             + MAX_SUBMISSION_WAIT_SECONDS + " seconds")
+                                                             int waitSeconds) {
+        if (waitSeconds == 0) {
+            DeferredResult<ReviewSubmissionDto> result = new DeferredResult<>();
+            result.setResult(reviewMapper.toSubmissionDto(reviewSubmissionService.getSubmission(submissionId)));
+            return result;
+        }
+        DeferredResult<ReviewSubmissionDto> result = new DeferredResult<>(TimeUnit.SECONDS.toMillis(waitSeconds));
+        CompletableFuture<PendingReview> finished = reviewSubmissionService.awaitFinished(submissionId);
+        finished.thenAccept(submission -> result.setResult(reviewMapper.toSubmissionDto(submission)));
+        // Another instance may have finished the submission, so the timeout answers what is stored by then.
+        result.onTimeout(() ->
+                result.setResult(reviewMapper.toSubmissionDto(reviewSubmissionService.getSubmission(submissionId))));
+        result.onCompletion(() -> finished.cancel(false));
+        return result;
+    }
+}
@@ -6,4 +6,9 @@ public class Constants {
     public static final int MARK_LIMITATION_NEGATIVE_REVIEWS = 6;
     public static final int LIMIT_OF_SUM_LIKES_DISLIKES = 10;
     public static final int LIMIT_OF_REVIEWS_IN_ISSUE = 3;
+    public static final int MAX_OPINIONS_IN_BATCH = 10_000;
+    public static final int MAX_REVIEWS_PAGE_SIZE = 1000;
+    public static final int MAX_REVIEWS_IN_BATCH = 500;
+    public static final int MAX_IDS_IN_ANALYTICS_BATCH = 500;
+    public static final int MAX_SUBMISSION_WAIT_SECONDS = 30;
 }
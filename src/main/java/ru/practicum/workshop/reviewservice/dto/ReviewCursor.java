@@ -0,0 +1,45 @@
+package ru.practicum.workshop.reviewservice.dto;
+
+import lombok.Value;
+import ru.practicum.workshop.reviewservice.model.Review;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Opaque position in the (createdOn DESC, id DESC) ordering of an event's reviews.
+ * Spring binds the {@code cursor} request parameter through {@link #valueOf(String)},
+ * so a malformed value is rejected as a type mismatch (400).
+ */
+@Value
+public class ReviewCursor {
+    private static final String SEPARATOR = "|";
+
+    LocalDateTime createdOn;
+    Long id;
+
+    public static ReviewCursor of(Review review) {
+        return new ReviewCursor(review.getCreatedOn(), review.getId());
+    }
+
+    public static ReviewCursor valueOf(String value) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+            int separatorIndex = decoded.indexOf(SEPARATOR);
+            if (separatorIndex < 0) {
+                throw new IllegalArgumentException("Cursor is malformed");
+            }
+            return new ReviewCursor(LocalDateTime.parse(decoded.substring(0, separatorIndex)),
+                    Long.parseLong(decoded.substring(separatorIndex + 1)));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Cursor is malformed", e);
+        }
+    }
+
+    public String encode() {
+        String raw = createdOn + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,22 @@
+package ru.practicum.workshop.reviewservice.dto;
+
+import lombok.Value;
+import ru.practicum.workshop.reviewservice.enums.SubmissionStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * State of an asynchronously submitted review. {@code reviewId} is set once the review is created;
+ * {@code errorStatus} and {@code errorMessage} say why it was rejected or failed, with the status
+ * {@code POST /reviews} would have answered.
+ */
+@Value
+public class ReviewSubmissionDto {
+    Long id;
+    SubmissionStatus status;
+    Long reviewId;
+    Integer errorStatus;
+    String errorMessage;
+    LocalDateTime submittedOn;
+    LocalDateTime finishedOn;
+}
@@ -0,0 +1,17 @@
+package ru.practicum.workshop.reviewservice.dto.analytics;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class EventSummary {
+    protected Long eventId;
+    protected EventAverageMark averageMark;
+    protected EventIndicators indicators;
+    protected BestAndWorstReviews bestAndWorstReviews;
+}
@@ -0,0 +1,22 @@
+package ru.practicum.workshop.reviewservice.dto.batch;
+
+import lombok.Value;
+import org.springframework.http.HttpStatus;
+import ru.practicum.workshop.reviewservice.dto.ReviewDto;
+
+@Value
+public class ReviewBatchItem {
+    Long id;
+    HttpStatus status;
+    ReviewDto review;
+    String message;
+
+    public static ReviewBatchItem found(ReviewDto review) {
+        return new ReviewBatchItem(review.getId(), HttpStatus.OK, review, null);
+    }
+
+    public static ReviewBatchItem missing(Long id) {
+        return new ReviewBatchItem(id, HttpStatus.NOT_FOUND, null,
+                String.format("Review with id = %d was not found", id));
+    }
+}
@@ -0,0 +1,9 @@
+package ru.practicum.workshop.reviewservice.dto.importing;
+
+import lombok.Value;
+
+@Value
+public class ReviewImportError {
+    long line;
+    String message;
+}
@@ -0,0 +1,16 @@
+package ru.practicum.workshop.reviewservice.dto.importing;
+
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * Outcome of an import. {@code failed} counts every rejected line, while {@code errors} lists at most
+ * {@code review-service.import.max-errors} of them.
+ */
+@Value
+public class ReviewImportResult {
+    long imported;
+    long failed;
+    List<ReviewImportError> errors;
+}
@@ -0,0 +1,21 @@
+package ru.practicum.workshop.reviewservice.dto.opinion;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.Value;
+import ru.practicum.workshop.reviewservice.enums.Label;
+import ru.practicum.workshop.reviewservice.enums.OpinionAction;
+
+@Value
+public class OpinionBatchItem {
+    @NotNull(message = "Review's id shouldn't be null")
+    @Positive(message = "Review's id should be positive")
+    Long reviewId;
+    @NotNull(message = "User's id shouldn't be null")
+    @Positive(message = "User's id should be positive")
+    Long evaluatorId;
+    @NotNull(message = "Label shouldn't be null")
+    Label label;
+    @NotNull(message = "Action shouldn't be null")
+    OpinionAction action;
+}
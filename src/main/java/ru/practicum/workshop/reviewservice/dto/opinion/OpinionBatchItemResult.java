@@ -0,0 +1,26 @@
+package ru.practicum.workshop.reviewservice.dto.opinion;
+
+import lombok.Value;
+import org.springframework.http.HttpStatus;
+import ru.practicum.workshop.reviewservice.enums.Label;
+import ru.practicum.workshop.reviewservice.enums.OpinionAction;
+
+@Value
+public class OpinionBatchItemResult {
+    Long reviewId;
+    Long evaluatorId;
+    Label label;
+    OpinionAction action;
+    HttpStatus status;
+    String message;
+
+    public static OpinionBatchItemResult applied(OpinionBatchItem item) {
+        return new OpinionBatchItemResult(item.getReviewId(), item.getEvaluatorId(), item.getLabel(),
+                item.getAction(), HttpStatus.OK, null);
+    }
+
+    public static OpinionBatchItemResult rejected(OpinionBatchItem item, HttpStatus status, String message) {
+        return new OpinionBatchItemResult(item.getReviewId(), item.getEvaluatorId(), item.getLabel(),
+                item.getAction(), status, message);
+    }
+}
@@ -0,0 +1,5 @@
+package ru.practicum.workshop.reviewservice.enums;
+
+public enum OpinionAction {
+    ADD, REMOVE
+}
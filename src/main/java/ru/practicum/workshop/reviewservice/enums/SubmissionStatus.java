@@ -0,0 +1,9 @@
+package ru.practicum.workshop.reviewservice.enums;
+
+public enum SubmissionStatus {
+    PENDING, PROCESSING, CREATED, REJECTED, FAILED;
+
+    public boolean isFinished() {
+        return this == CREATED || this == REJECTED || this == FAILED;
+    }
+}
@@ -0,0 +1,7 @@
+package ru.practicum.workshop.reviewservice.exception;
+
+public class BadRequestException extends RuntimeException {
+    public BadRequestException(String message) {
+        super(message);
+    }
+}
@@ -13,6 +13,7 @@ import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 import ru.practicum.workshop.reviewservice.controller.ReviewController;
+import ru.practicum.workshop.reviewservice.controller.ReviewSubmissionController;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
@@ -21,7 +22,7 @@ import java.util.List;
 import java.util.Map;
 
 @Slf4j
-@RestControllerAdvice(assignableTypes = ReviewController.class)
+@RestControllerAdvice(assignableTypes = {ReviewController.class, ReviewSubmissionController.class})
 public class ErrorHandler {
 
     private void log(Throwable e) {
@@ -49,7 +50,8 @@ public class ErrorHandler {
     @ExceptionHandler({MissingServletRequestParameterException.class,
             MethodArgumentTypeMismatchException.class,
             MissingRequestHeaderException.class,
-            ConstraintViolationException.class})
+            ConstraintViolationException.class,
+            BadRequestException.class})
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     public Map<String, String> handleValid(final Exception e) {
         log(e);
@@ -79,6 +81,22 @@ public class ErrorHandler {
                 e.getMessage());
     }
 
+    @ExceptionHandler(GatewayTimeoutException.class)
+    @ResponseStatus(HttpStatus.GATEWAY_TIMEOUT)
+    public Map<String, String> handleGatewayTimeout(final GatewayTimeoutException e) {
+        log(e);
+        return createMap("GATEWAY_TIMEOUT", "The services the request depends on did not answer in time.",
+                e.getMessage());
+    }
+
+    @ExceptionHandler(ServiceUnavailableException.class)
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public Map<String, String> handleServiceUnavailable(final ServiceUnavailableException e) {
+        log(e);
+        return createMap("SERVICE_UNAVAILABLE", "A service the request depends on is not accepting calls now.",
+                e.getMessage());
+    }
+
     @ExceptionHandler(Exception.class)
     @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
     public Map<String, String> handleOtherExc(final Exception e) {
@@ -2,12 +2,15 @@ package ru.practicum.workshop.reviewservice.mapper;
 
 import org.mapstruct.*;
 import ru.practicum.workshop.reviewservice.dto.*;
+import ru.practicum.workshop.reviewservice.dto.importing.ReviewImportDto;
+import ru.practicum.workshop.reviewservice.enums.SubmissionStatus;
+import ru.practicum.workshop.reviewservice.model.PendingReview;
 import ru.practicum.workshop.reviewservice.model.Review;
 
 import java.time.LocalDateTime;
 
 @Mapper(componentModel = "spring", builder = @Builder(disableBuilder = true),
-        unmappedTargetPolicy = ReportingPolicy.IGNORE, imports = {LocalDateTime.class})
+        unmappedTargetPolicy = ReportingPolicy.IGNORE, imports = {LocalDateTime.class, SubmissionStatus.class})
 public interface ReviewMapper {
     @Mapping(source = "review.author.id", target = "authorId")
     @Mapping(source = "review.author.username", target = "username")
@@ -23,9 +26,30 @@ public interface ReviewMapper {
     @Mapping(target = "createdOn", expression = "java(LocalDateTime.now())")
     Review toEntity(ReviewCreateDto dto);
 
+    @Mapping(source = "dto.authorId", target = "author.id")
+    @Mapping(source = "dto.username", target = "author.username")
+    @Mapping(target = "id", expression = "java(null)")
+    @Mapping(target = "updatedOn", expression = "java(null)")
+    @Mapping(source = "dto.createdOn", target = "createdOn", defaultExpression = "java(LocalDateTime.now())")
+    Review toEntity(ReviewImportDto dto);
+
     @Mapping(source = "reviewId", target = "id")
     @Mapping(source = "authorId", target = "author.id")
     @Mapping(source = "dto.username", target = "author.username")
     @Mapping(target = "updatedOn", expression = "java(LocalDateTime.now())")
     Review toEntity(ReviewUpdateDto dto, Long reviewId, Long authorId);
+
+    @Mapping(target = "id", expression = "java(null)")
+    @Mapping(target = "status", expression = "java(SubmissionStatus.PENDING)")
+    @Mapping(target = "submittedOn", expression = "java(LocalDateTime.now())")
+    PendingReview toPendingReview(ReviewCreateDto dto, String attendanceToken);
+
+    @Mapping(target = "id", ignore = true)
+    @Mapping(source = "authorId", target = "author.id")
+    @Mapping(source = "username", target = "author.username")
+    @Mapping(source = "submittedOn", target = "createdOn")
+    @Mapping(target = "updatedOn", expression = "java(null)")
+    Review toEntity(PendingReview pendingReview);
+
+    ReviewSubmissionDto toSubmissionDto(PendingReview pendingReview);
 }
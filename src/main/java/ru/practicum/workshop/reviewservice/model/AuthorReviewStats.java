@@ -0,0 +1,32 @@
+package ru.practicum.workshop.reviewservice.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@ToString
+@Entity
+@Table(name = "author_review_stats")
+public class AuthorReviewStats {
+    @Id
+    @Column(name = "author_id")
+    private Long authorId;
+    @Column(name = "reviews_count", nullable = false)
+    private long reviewsCount;
+    @Column(name = "mark_sum", nullable = false)
+    private long markSum;
+    @Column(name = "trusted_count", nullable = false)
+    private long trustedCount;
+    @Column(name = "trusted_mark_sum", nullable = false)
+    private long trustedMarkSum;
+}
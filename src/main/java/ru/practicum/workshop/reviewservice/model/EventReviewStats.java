@@ -0,0 +1,36 @@
+package ru.practicum.workshop.reviewservice.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@ToString
+@Entity
+@Table(name = "event_review_stats")
+public class EventReviewStats {
+    @Id
+    @Column(name = "event_id")
+    private Long eventId;
+    @Column(name = "reviews_count", nullable = false)
+    private long reviewsCount;
+    @Column(name = "positive_count", nullable = false)
+    private long positiveCount;
+    @Column(name = "negative_count", nullable = false)
+    private long negativeCount;
+    @Column(name = "mark_sum", nullable = false)
+    private long markSum;
+    @Column(name = "trusted_count", nullable = false)
+    private long trustedCount;
+    @Column(name = "trusted_mark_sum", nullable = false)
+    private long trustedMarkSum;
+}
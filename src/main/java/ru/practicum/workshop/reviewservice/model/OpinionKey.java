@@ -0,0 +1,9 @@
+package ru.practicum.workshop.reviewservice.model;
+
+import lombok.Value;
+
+@Value
+public class OpinionKey {
+    Long reviewId;
+    Long evaluatorId;
+}
@@ -0,0 +1,83 @@
+package ru.practicum.workshop.reviewservice.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.Hibernate;
+import ru.practicum.workshop.reviewservice.enums.SubmissionStatus;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * A review submitted for asynchronous creation, together with the state of its processing.
+ */
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@Entity
+@Table(name = "pending_reviews")
+public class PendingReview {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    @Column(name = "event_id", nullable = false)
+    private Long eventId;
+    @Column(name = "author_id", nullable = false)
+    private Long authorId;
+    @Column(nullable = false)
+    private String username;
+    private String title;
+    @Column(nullable = false)
+    private String content;
+    @Column(nullable = false)
+    private Integer mark;
+    @Column(name = "attendance_token")
+    private String attendanceToken;
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private SubmissionStatus status;
+    @Column(nullable = false)
+    private int attempts;
+    @Column(name = "not_before")
+    private LocalDateTime notBefore;
+    private String claim;
+    @Column(name = "claimed_on")
+    private LocalDateTime claimedOn;
+    @Column(name = "review_id")
+    private Long reviewId;
+    @Column(name = "error_status")
+    private Integer errorStatus;
+    @Column(name = "error_message")
+    private String errorMessage;
+    @Column(name = "submitted_on", nullable = false)
+    private LocalDateTime submittedOn;
+    @Column(name = "finished_on")
+    private LocalDateTime finishedOn;
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || Hibernate.getClass(this) != Hibernate.getClass(o)) return false;
+        PendingReview pendingReview = (PendingReview) o;
+        return Objects.equals(id, pendingReview.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(id);
+    }
+
+    @Override
+    public String toString() {
+        return "PendingReview{" +
+                "id=" + id +
+                ", eventId=" + eventId +
+                ", authorId=" + authorId +
+                ", status=" + status +
+                ", attempts=" + attempts +
+                ", reviewId=" + reviewId +
+                ", errorStatus=" + errorStatus +
+                '}';
+    }
+}
@@ -16,7 +16,8 @@ import java.util.Objects;
 @Table(name = "reviews")
 public class Review {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "reviews_seq")
+    @SequenceGenerator(name = "reviews_seq", sequenceName = "reviews_seq", allocationSize = 50)
     private Long id;
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "author_id")
@@ -30,9 +31,10 @@ public class Review {
     @Column(name = "updated_date", nullable = false)
     private LocalDateTime updatedOn;
     private Integer mark;
-    @Column(nullable = false)
+    // Only votes move the counters, with atomic updates, so edits must not write back the values they read.
+    @Column(nullable = false, updatable = false)
     private long likes;
-    @Column(nullable = false)
+    @Column(nullable = false, updatable = false)
     private long dislikes;
 
     @Override
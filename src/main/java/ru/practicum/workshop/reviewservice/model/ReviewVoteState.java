@@ -0,0 +1,15 @@
+package ru.practicum.workshop.reviewservice.model;
+
+public interface ReviewVoteState {
+    Long getId();
+
+    Long getAuthorId();
+
+    Long getEventId();
+
+    Integer getMark();
+
+    Long getLikes();
+
+    Long getDislikes();
+}
@@ -0,0 +1,10 @@
+package ru.practicum.workshop.reviewservice.model;
+
+import lombok.Value;
+
+@Value
+public class VoteDelta {
+    Long reviewId;
+    long likes;
+    long dislikes;
+}
@@ -0,0 +1,240 @@
+package ru.practicum.workshop.reviewservice.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.ShortBufferException;
+import javax.crypto.spec.SecretKeySpec;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.security.SignatureException;
+import java.security.spec.X509EncodedKeySpec;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Optional;
+
+/**
+ * Verifies attendance tokens issued by registration-service, so that a reviewer who brings one needs no remote
+ * registration check. A token is {@code <eventId>.<userId>.<status>.<expiresAt>.<signature>}, where
+ * {@code expiresAt} is in epoch seconds and the signature is the unpadded base64url HMAC-SHA256 or Ed25519
+ * signature of the ASCII text before the last dot. Which one is expected depends on whether
+ * {@code review-service.attendance-token.hmac-key} or {@code review-service.attendance-token.ed25519-public-key}
+ * is configured; with neither, tokens are ignored.
+ * <p>
+ * Verification runs on every review creation, so it parses the token in place and signs into per-thread buffers
+ * instead of splitting and decoding it into new strings and arrays.
+ */
+@Slf4j
+@Component
+public class AttendanceTokenVerifier {
+    static final int MAX_PAYLOAD_LENGTH = 128;
+    private static final int HMAC_LENGTH = 32;
+    private static final int ED25519_SIGNATURE_LENGTH = 64;
+    private static final String APPROVED = "APPROVED";
+    private static final byte[] BASE64URL_VALUES = new byte[128];
+
+    static {
+        Arrays.fill(BASE64URL_VALUES, (byte) -1);
+        String alphabet = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_";
+        for (int i = 0; i < alphabet.length(); i++) {
+            BASE64URL_VALUES[alphabet.charAt(i)] = (byte) i;
+        }
+    }
+
+    private final SecretKeySpec hmacKey;
+    private final PublicKey ed25519Key;
+    private final ThreadLocal<Scratch> scratch;
+    private final Counter valid;
+    private final Counter invalid;
+    private final Counter expired;
+    private final Counter mismatched;
+
+    public AttendanceTokenVerifier(@Value("${review-service.attendance-token.hmac-key:}") String hmacKey,
+                                   @Value("${review-service.attendance-token.ed25519-public-key:}")
+                                   String ed25519PublicKey,
+                                   MeterRegistry meterRegistry) {
+        if (!hmacKey.isBlank() && !ed25519PublicKey.isBlank()) {
+            throw new IllegalArgumentException("Only one of the attendance token keys may be configured");
+        }
+        this.hmacKey = hmacKey.isBlank() ? null : new SecretKeySpec(Base64.getDecoder().decode(hmacKey), "HmacSHA256");
+        this.ed25519Key = ed25519PublicKey.isBlank() ? null : ed25519Key(ed25519PublicKey);
+        this.scratch = ThreadLocal.withInitial(this::newScratch);
+        this.valid = counter(meterRegistry, "valid");
+        this.invalid = counter(meterRegistry, "invalid");
+        this.expired = counter(meterRegistry, "expired");
+        this.mismatched = counter(meterRegistry, "mismatched");
+    }
+
+    public boolean isEnabled() {
+        return hmacKey != null || ed25519Key != null;
+    }
+
+    /**
+     * Returns the registration status the token attests for the user and the event, or an empty optional if there is
+     * no token or it is malformed, forged, expired or issued for someone or something else.
+     */
+    public Optional<String> verify(String token, Long eventId, Long userId) {
+        if (token == null || !isEnabled()) {
+            return Optional.empty();
+        }
+        int eventEnd = token.indexOf('.');
+        int userEnd = eventEnd < 0 ? -1 : token.indexOf('.', eventEnd + 1);
+        int statusEnd = userEnd < 0 ? -1 : token.indexOf('.', userEnd + 1);
+        int payloadEnd = statusEnd < 0 ? -1 : token.indexOf('.', statusEnd + 1);
+        if (payloadEnd < 0 || payloadEnd > MAX_PAYLOAD_LENGTH || statusEnd == userEnd + 1) {
+            invalid.increment();
+            return Optional.empty();
+        }
+        long tokenEventId;
+        long tokenUserId;
+        long expiresAt;
+        try {
+            tokenEventId = Long.parseLong(token, 0, eventEnd, 10);
+            tokenUserId = Long.parseLong(token, eventEnd + 1, userEnd, 10);
+            expiresAt = Long.parseLong(token, statusEnd + 1, payloadEnd, 10);
+        } catch (NumberFormatException e) {
+            invalid.increment();
+            return Optional.empty();
+        }
+        if (!isSigned(token, payloadEnd)) {
+            invalid.increment();
+            log.warn("Подпись токена участия в событии с id {} не прошла проверку.", eventId);
+            return Optional.empty();
+        }
+        if (tokenEventId != eventId || tokenUserId != userId) {
+            mismatched.increment();
+            return Optional.empty();
+        }
+        if (Instant.now().getEpochSecond() >= expiresAt) {
+            expired.increment();
+            return Optional.empty();
+        }
+        valid.increment();
+        int statusLength = statusEnd - userEnd - 1;
+        boolean approved = statusLength == APPROVED.length()
+                && token.regionMatches(userEnd + 1, APPROVED, 0, APPROVED.length());
+        return Optional.of(approved ? APPROVED : token.substring(userEnd + 1, statusEnd));
+    }
+
+    private boolean isSigned(String token, int payloadEnd) {
+        Scratch buffers = scratch.get();
+        for (int i = 0; i < payloadEnd; i++) {
+            char c = token.charAt(i);
+            if (c > 127) {
+                return false;
+            }
+            buffers.payload[i] = (byte) c;
+        }
+        int signatureLength = decodeBase64Url(token, payloadEnd + 1, buffers.signature);
+        try {
+            if (buffers.mac != null) {
+                if (signatureLength != HMAC_LENGTH) {
+                    return false;
+                }
+                buffers.mac.update(buffers.payload, 0, payloadEnd);
+                buffers.mac.doFinal(buffers.expectedMac, 0);
+                return equalsInConstantTime(buffers.expectedMac, buffers.signature, HMAC_LENGTH);
+            }
+            if (signatureLength != ED25519_SIGNATURE_LENGTH) {
+                return false;
+            }
+            buffers.signer.update(buffers.payload, 0, payloadEnd);
+            return buffers.signer.verify(buffers.signature, 0, ED25519_SIGNATURE_LENGTH);
+        } catch (ShortBufferException | SignatureException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Compares the first bytes of the arrays without stopping at the first difference, like
+     * {@link java.security.MessageDigest#isEqual}, which needs arrays of the same length.
+     */
+    private static boolean equalsInConstantTime(byte[] expected, byte[] actual, int length) {
+        int difference = 0;
+        for (int i = 0; i < length; i++) {
+            difference |= expected[i] ^ actual[i];
+        }
+        return difference == 0;
+    }
+
+    /**
+     * Decodes unpadded base64url from the given index to the end of the text into the buffer and returns the number
+     * of bytes decoded, or -1 if the text is not base64url or does not fit.
+     */
+    static int decodeBase64Url(String text, int from, byte[] out) {
+        int length = text.length() - from;
+        if (length % 4 == 1 || length * 3 / 4 > out.length) {
+            return -1;
+        }
+        int bits = 0;
+        int bitCount = 0;
+        int written = 0;
+        for (int i = from; i < text.length(); i++) {
+            char c = text.charAt(i);
+            int value = c < 128 ? BASE64URL_VALUES[c] : -1;
+            if (value < 0) {
+                return -1;
+            }
+            bits = bits << 6 | value;
+            bitCount += 6;
+            if (bitCount >= 8) {
+                bitCount -= 8;
+                out[written++] = (byte) (bits >> bitCount);
+            }
+        }
+        return written;
+    }
+
+    private Scratch newScratch() {
+        try {
+            Mac mac = null;
+            Signature signer = null;
+            if (hmacKey != null) {
+                mac = Mac.getInstance("HmacSHA256");
+                mac.init(hmacKey);
+            } else {
+                signer = Signature.getInstance("Ed25519");
+                signer.initVerify(ed25519Key);
+            }
+            return new Scratch(mac, signer);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static PublicKey ed25519Key(String encodedKey) {
+        try {
+            return KeyFactory.getInstance("Ed25519")
+                    .generatePublic(new X509EncodedKeySpec(Base64.getDecoder().decode(encodedKey)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalArgumentException("Attendance token public key is not an X.509 encoded Ed25519 key", e);
+        }
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("review-service.attendance-tokens")
+                .description("Attendance tokens presented with new reviews")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private static class Scratch {
+        private final Mac mac;
+        private final Signature signer;
+        private final byte[] payload = new byte[MAX_PAYLOAD_LENGTH];
+        private final byte[] signature = new byte[ED25519_SIGNATURE_LENGTH];
+        private final byte[] expectedMac = new byte[HMAC_LENGTH];
+
+        private Scratch(Mac mac, Signature signer) {
+            this.mac = mac;
+            this.signer = signer;
+        }
+    }
+}
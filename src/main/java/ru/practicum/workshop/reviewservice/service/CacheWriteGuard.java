@@ -0,0 +1,99 @@
+package ru.practicum.workshop.reviewservice.service;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+/**
+ * Orders cache loads against the transactions that change the cached data. A value loaded from the database may
+ * be cached only if no write to its key was pending or completed while it was being loaded; otherwise it could
+ * miss a committed change, or contain one the cache applies again. Keys are tracked in stripes, so the guard
+ * costs two counters per stripe instead of a record per key.
+ */
+class CacheWriteGuard {
+    private static final int STRIPES = 64;
+    private static final int[] ALL_STRIPES = IntStream.range(0, STRIPES).toArray();
+
+    private final AtomicLongArray versions = new AtomicLongArray(STRIPES);
+    private final AtomicIntegerArray pendingWrites = new AtomicIntegerArray(STRIPES);
+
+    /**
+     * Version to remember before loading the value of the key.
+     */
+    long version(Object key) {
+        return versions.get(stripe(key));
+    }
+
+    /**
+     * Whether a value loaded since {@link #version(Object)} returned {@code version} may be cached. Callers check
+     * this atomically with installing the value, e.g. inside {@code compute}.
+     */
+    boolean isUnchanged(Object key, long version) {
+        int stripe = stripe(key);
+        return pendingWrites.get(stripe) == 0 && versions.get(stripe) == version;
+    }
+
+    /**
+     * Registers a write to the key in the current transaction. {@code beforeCommit} runs only if the transaction
+     * is about to commit, {@code afterCompletion} gets its outcome. Without a transaction the write has already
+     * been committed and both run at once, with an unknown outcome.
+     */
+    void onWrite(Object key, Runnable beforeCommit, IntConsumer afterCompletion) {
+        onWrite(new int[]{stripe(key)}, beforeCommit, afterCompletion);
+    }
+
+    void onWriteToAll(Runnable beforeCommit, IntConsumer afterCompletion) {
+        onWrite(ALL_STRIPES, beforeCommit, afterCompletion);
+    }
+
+    private void onWrite(int[] stripes, Runnable beforeCommit, IntConsumer afterCompletion) {
+        bumpVersions(stripes);
+        for (int stripe : stripes) {
+            pendingWrites.incrementAndGet(stripe);
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            try {
+                beforeCommit.run();
+            } finally {
+                complete(stripes, afterCompletion, TransactionSynchronization.STATUS_UNKNOWN);
+            }
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                beforeCommit.run();
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                complete(stripes, afterCompletion, status);
+            }
+        });
+    }
+
+    private void complete(int[] stripes, IntConsumer afterCompletion, int status) {
+        try {
+            bumpVersions(stripes);
+            afterCompletion.accept(status);
+        } finally {
+            for (int stripe : stripes) {
+                pendingWrites.decrementAndGet(stripe);
+            }
+        }
+    }
+
+    private void bumpVersions(int[] stripes) {
+        for (int stripe : stripes) {
+            versions.incrementAndGet(stripe);
+        }
+    }
+
+    private static int stripe(Object key) {
+        return Math.floorMod(key.hashCode(), STRIPES);
+    }
+}
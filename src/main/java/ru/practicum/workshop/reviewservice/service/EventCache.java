@@ -0,0 +1,162 @@
+package ru.practicum.workshop.reviewservice.service;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import feign.FeignException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import ru.practicum.workshop.reviewservice.client.EventClient;
+import ru.practicum.workshop.reviewservice.dto.EventResponse;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Caches the answers of event-service by event id. An ended event never changes its end, so it is kept for long;
+ * an event that is still going on is kept for a short time and never past its end, and a missing event is
+ * remembered briefly. Concurrent misses of one event wait for a single call, made on a thread of the cache, so a
+ * caller that gives up waiting does not fail the call for the others.
+ */
+@Slf4j
+@Component
+public class EventCache {
+    private final EventClient eventClient;
+    private final Duration endedEventTtl;
+    private final Duration activeEventTtl;
+    private final Duration notFoundTtl;
+    private final AsyncCache<Long, EventLookup> cache;
+    private final ThreadPoolExecutor loader;
+
+    public EventCache(EventClient eventClient,
+                      @Value("${review-service.event-cache.max-size:10000}") long maxSize,
+                      @Value("${review-service.event-cache.ended-event-ttl:24h}") Duration endedEventTtl,
+                      @Value("${review-service.event-cache.active-event-ttl:1m}") Duration activeEventTtl,
+                      @Value("${review-service.event-cache.not-found-ttl:30s}") Duration notFoundTtl,
+                      @Value("${review-service.event-cache.loaders:64}") int loaders,
+                      MeterRegistry meterRegistry) {
+        this.eventClient = eventClient;
+        this.endedEventTtl = endedEventTtl;
+        this.activeEventTtl = activeEventTtl;
+        this.notFoundTtl = notFoundTtl;
+        loader = new ThreadPoolExecutor(loaders, loaders, 1, TimeUnit.MINUTES, new LinkedBlockingQueue<>(),
+                new CustomizableThreadFactory("event-cache-"));
+        loader.allowCoreThreadTimeOut(true);
+        cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<Long, EventLookup>() {
+                    @Override
+                    public long expireAfterCreate(Long eventId, EventLookup lookup, long currentTime) {
+                        return timeToLive(lookup, LocalDateTime.now()).toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(Long eventId, EventLookup lookup, long currentTime,
+                                                  long currentDuration) {
+                        return expireAfterCreate(eventId, lookup, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(Long eventId, EventLookup lookup, long currentTime,
+                                                long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache.synchronous(), "events");
+    }
+
+    @PreDestroy
+    public void stop() {
+        loader.shutdownNow();
+    }
+
+    /**
+     * Returns the event as {@link EventClient#readEventById} does, including its {@link FeignException.NotFound}.
+     * Other failures are not cached. The user id is only sent along with the call that loads the event. The wait
+     * can be interrupted; the call goes on for the other callers then.
+     */
+    public EventResponse getEvent(Long userId, Long eventId) {
+        try {
+            return getEvent(userId, eventId, Duration.ofNanos(Long.MAX_VALUE));
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("Timed out while waiting for event " + eventId, e);
+        }
+    }
+
+    /**
+     * Returns the event as {@link #getEvent(Long, Long)} does, giving up after the timeout. The call goes on then.
+     */
+    public EventResponse getEvent(Long userId, Long eventId, Duration timeout) throws TimeoutException {
+        CompletableFuture<EventLookup> lookup = cache.get(eventId,
+                (id, executor) -> CompletableFuture.supplyAsync(() -> load(userId, id), loader));
+        try {
+            return lookup.get(timeout.toNanos(), TimeUnit.NANOSECONDS).getEvent();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for event " + eventId, e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Failed to load event " + eventId, e.getCause());
+        }
+    }
+
+    private EventLookup load(Long userId, Long eventId) {
+        try {
+            return new EventLookup(eventClient.readEventById(userId, eventId), null);
+        } catch (FeignException.NotFound e) {
+            log.debug("Event not found, caching the answer: eventId={}", eventId);
+            return new EventLookup(null, e);
+        }
+    }
+
+    Duration timeToLive(EventLookup lookup, LocalDateTime now) {
+        if (!lookup.isFound()) {
+            return notFoundTtl;
+        }
+        LocalDateTime end = lookup.getEvent().getEndDateTime();
+        if (end == null) {
+            return activeEventTtl;
+        }
+        if (!end.isAfter(now)) {
+            return endedEventTtl;
+        }
+        Duration untilEnd = Duration.between(now, end);
+        return untilEnd.compareTo(activeEventTtl) < 0 ? untilEnd : activeEventTtl;
+    }
+
+    @AllArgsConstructor
+    static class EventLookup {
+        private final EventResponse event;
+        private final FeignException.NotFound notFound;
+
+        boolean isFound() {
+            return notFound == null;
+        }
+
+        EventResponse getEvent() {
+            if (notFound != null) {
+                throw notFound;
+            }
+            return event;
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package ru.practicum.workshop.reviewservice.service;
+
+import lombok.Value;
+import ru.practicum.workshop.reviewservice.dto.ReviewDto;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static ru.practicum.workshop.reviewservice.dto.Constants.MARK_LIMITATION_NEGATIVE_REVIEWS;
+import static ru.practicum.workshop.reviewservice.dto.Constants.MARK_LIMITATION_POSITIVE_REVIEWS;
+
+/**
+ * Best and worst reviews of one event, at most {@code limit} of each, in display order. A list shorter than the
+ * limit holds every qualifying review of the event. A full list knows nothing about the reviews ranked after it,
+ * so a change that would have to pull one of them in leaves the snapshot unusable: such changes return
+ * {@code null} and the event is reloaded on the next read.
+ */
+@Value
+public class EventTopReviews {
+    public static final Comparator<RankedReview> BEST_ORDER = Comparator
+            .comparing(RankedReview::getMark, Comparator.reverseOrder())
+            .thenComparing(RankedReview::getLikes, Comparator.reverseOrder())
+            .thenComparing(RankedReview::getId);
+    public static final Comparator<RankedReview> WORST_ORDER = Comparator
+            .comparing(RankedReview::getMark)
+            .thenComparing(RankedReview::getLikes, Comparator.reverseOrder())
+            .thenComparing(RankedReview::getId);
+
+    int limit;
+    List<RankedReview> best;
+    List<RankedReview> worst;
+
+    public static EventTopReviews of(int limit, Collection<RankedReview> reviews) {
+        return new EventTopReviews(limit,
+                reviews.stream().filter(RankedReview::isPositive).sorted(BEST_ORDER).limit(limit).toList(),
+                reviews.stream().filter(RankedReview::isNegative).sorted(WORST_ORDER).limit(limit).toList());
+    }
+
+    public List<ReviewDto> getBestReviews() {
+        return best.stream().map(RankedReview::getReview).toList();
+    }
+
+    public List<ReviewDto> getWorstReviews() {
+        return worst.stream().map(RankedReview::getReview).toList();
+    }
+
+    public boolean hasAuthor(Long authorId) {
+        return Stream.concat(best.stream(), worst.stream()).anyMatch(review -> review.getAuthorId().equals(authorId));
+    }
+
+    /**
+     * Applies a created or edited review. With {@code keepVotes} the review's counters are taken from the
+     * snapshot, because the caller's copy may predate votes committed after it was read.
+     */
+    public EventTopReviews withReview(RankedReview review, boolean keepVotes) {
+        Optional<RankedReview> current = find(review.getId());
+        if (keepVotes && current.isEmpty()) {
+            return wouldEnter(review) ? null : this;
+        }
+        RankedReview updated = keepVotes
+                ? review.withVotes(current.get().getLikes(), current.get().getDislikes())
+                : review;
+        return rerank(review.getId(), updated);
+    }
+
+    public EventTopReviews withoutReview(Long reviewId) {
+        return rerank(reviewId, null);
+    }
+
+    public EventTopReviews withVotes(Long reviewId, ReviewScore scoreBefore, ReviewScore scoreAfter) {
+        Optional<RankedReview> current = find(reviewId);
+        if (current.isEmpty()) {
+            // Only the score is known here, which is enough to tell whether the review would enter a list.
+            ReviewDto probe = new ReviewDto(reviewId, scoreAfter.getEventId(), null, null, null, null, null,
+                    scoreAfter.getMark(), scoreAfter.getLikes(), scoreAfter.getDislikes());
+            return wouldEnter(new RankedReview(scoreAfter.getAuthorId(), probe)) ? null : this;
+        }
+        RankedReview review = current.get();
+        return rerank(reviewId, review.withVotes(
+                review.getLikes() + scoreAfter.getLikes() - scoreBefore.getLikes(),
+                review.getDislikes() + scoreAfter.getDislikes() - scoreBefore.getDislikes()));
+    }
+
+    private Optional<RankedReview> find(Long reviewId) {
+        return Stream.concat(best.stream(), worst.stream())
+                .filter(review -> review.getId().equals(reviewId))
+                .findFirst();
+    }
+
+    private boolean wouldEnter(RankedReview review) {
+        return review.isPositive() && wouldEnter(best, review, BEST_ORDER)
+                || review.isNegative() && wouldEnter(worst, review, WORST_ORDER);
+    }
+
+    private boolean wouldEnter(List<RankedReview> reviews, RankedReview review, Comparator<RankedReview> order) {
+        return reviews.size() < limit || order.compare(review, reviews.get(reviews.size() - 1)) < 0;
+    }
+
+    private EventTopReviews rerank(Long reviewId, RankedReview updated) {
+        List<RankedReview> rankedBest = rerank(best, reviewId,
+                updated != null && updated.isPositive() ? updated : null, BEST_ORDER);
+        List<RankedReview> rankedWorst = rerank(worst, reviewId,
+                updated != null && updated.isNegative() ? updated : null, WORST_ORDER);
+        if (rankedBest == null || rankedWorst == null) {
+            return null;
+        }
+        return rankedBest == best && rankedWorst == worst ? this : new EventTopReviews(limit, rankedBest, rankedWorst);
+    }
+
+    private List<RankedReview> rerank(List<RankedReview> reviews, Long reviewId, RankedReview updated,
+                                      Comparator<RankedReview> order) {
+        boolean full = reviews.size() >= limit;
+        List<RankedReview> ranked = new ArrayList<>(reviews);
+        boolean member = ranked.removeIf(review -> review.getId().equals(reviewId));
+        // Reviews outside a full list all rank after its last entry, so anything up to that entry stays ahead of them.
+        boolean inside = updated != null
+                && (!full || order.compare(updated, reviews.get(reviews.size() - 1)) <= 0);
+        if (!inside) {
+            if (member && full) {
+                return null;
+            }
+            return member ? List.copyOf(ranked) : reviews;
+        }
+        ranked.add(updated);
+        ranked.sort(order);
+        return List.copyOf(ranked.subList(0, Math.min(limit, ranked.size())));
+    }
+
+    @Value
+    public static class RankedReview {
+        Long authorId;
+        ReviewDto review;
+
+        public Long getId() {
+            return review.getId();
+        }
+
+        public Integer getMark() {
+            return review.getMark();
+        }
+
+        public Long getLikes() {
+            return review.getLikes();
+        }
+
+        public Long getDislikes() {
+            return review.getDislikes();
+        }
+
+        public boolean isPositive() {
+            return review.getMark() > MARK_LIMITATION_POSITIVE_REVIEWS;
+        }
+
+        public boolean isNegative() {
+            return review.getMark() < MARK_LIMITATION_NEGATIVE_REVIEWS;
+        }
+
+        RankedReview withVotes(long likes, long dislikes) {
+            return new RankedReview(authorId, new ReviewDto(review.getId(), review.getEventId(), review.getUsername(),
+                    review.getTitle(), review.getContent(), review.getCreatedOn(), review.getUpdatedOn(),
+                    review.getMark(), likes, dislikes));
+        }
+    }
+}
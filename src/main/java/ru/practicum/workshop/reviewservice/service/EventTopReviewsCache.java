@@ -0,0 +1,164 @@
+package ru.practicum.workshop.reviewservice.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import ru.practicum.workshop.reviewservice.dto.ReviewDto;
+import ru.practicum.workshop.reviewservice.service.EventTopReviews.RankedReview;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+/**
+ * Keeps the best and worst reviews of recently read events in memory. Writes are applied to the cached snapshots
+ * once their transaction commits. Writes made through other instances of the service are not seen here, so a
+ * snapshot is dropped the configured time after it was loaded, however often it is read or changed since. Loads
+ * are ordered against concurrent writes by {@link CacheWriteGuard}.
+ */
+@Slf4j
+@Component
+public class EventTopReviewsCache {
+    private final Cache<Long, EventTopReviews> cache;
+    private final CacheWriteGuard writeGuard = new CacheWriteGuard();
+
+    public EventTopReviewsCache(@Value("${review-service.top-reviews.max-events:10000}") long maxEvents,
+                                @Value("${review-service.top-reviews.ttl:1m}") Duration ttl,
+                                MeterRegistry meterRegistry) {
+        cache = Caffeine.newBuilder()
+                .maximumSize(maxEvents)
+                .expireAfter(new Expiry<Long, EventTopReviews>() {
+                    @Override
+                    public long expireAfterCreate(Long eventId, EventTopReviews topReviews, long currentTime) {
+                        return ttl.toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(Long eventId, EventTopReviews topReviews, long currentTime,
+                                                  long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(Long eventId, EventTopReviews topReviews, long currentTime,
+                                                long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "event-top-reviews");
+    }
+
+    public EventTopReviews get(Long eventId, Function<Long, EventTopReviews> loader) {
+        return getAll(Set.of(eventId), eventIds -> Map.of(eventId, loader.apply(eventId))).get(eventId);
+    }
+
+    /**
+     * Returns the snapshots of the given events, loading the missing ones with a single call of the loader.
+     */
+    public Map<Long, EventTopReviews> getAll(Collection<Long> eventIds,
+                                             Function<Set<Long>, Map<Long, EventTopReviews>> loader) {
+        Map<Long, EventTopReviews> topReviews = new HashMap<>(cache.getAllPresent(eventIds));
+        Set<Long> missingIds = new LinkedHashSet<>(eventIds);
+        missingIds.removeAll(topReviews.keySet());
+        if (missingIds.isEmpty()) {
+            return topReviews;
+        }
+        Map<Long, Long> versionsBeforeLoad = new HashMap<>();
+        missingIds.forEach(eventId -> versionsBeforeLoad.put(eventId, writeGuard.version(eventId)));
+        Map<Long, EventTopReviews> loaded = loader.apply(missingIds);
+        loaded.forEach((eventId, eventTopReviews) -> cache.asMap().compute(eventId, (id, cached) -> cached != null
+                ? cached
+                : writeGuard.isUnchanged(eventId, versionsBeforeLoad.get(eventId)) ? eventTopReviews : null));
+        topReviews.putAll(loaded);
+        log.debug("Top reviews got: events={}, loaded={}", eventIds.size(), loaded.size());
+        return topReviews;
+    }
+
+    public void reviewCreated(Long authorId, ReviewDto review) {
+        RankedReview rankedReview = new RankedReview(authorId, asStored(review));
+        afterCompletion(review.getEventId(), eventTopReviews -> eventTopReviews.withReview(rankedReview, false));
+    }
+
+    public void reviewUpdated(Long authorId, ReviewDto review) {
+        RankedReview rankedReview = new RankedReview(authorId, asStored(review));
+        afterCompletion(review.getEventId(), eventTopReviews -> eventTopReviews.withReview(rankedReview, true));
+    }
+
+    public void reviewDeleted(Long eventId, Long reviewId) {
+        afterCompletion(eventId, eventTopReviews -> eventTopReviews.withoutReview(reviewId));
+    }
+
+    public void votesChanged(Long reviewId, ReviewScore scoreBefore, ReviewScore scoreAfter) {
+        afterCompletion(scoreBefore.getEventId(),
+                eventTopReviews -> eventTopReviews.withVotes(reviewId, scoreBefore, scoreAfter));
+    }
+
+    /**
+     * Drops the given events after the commit, for bulk writes that are cheaper to reload than to replay.
+     */
+    public void eventsChanged(Collection<Long> eventIds) {
+        eventIds.forEach(eventId -> afterCompletion(eventId, eventTopReviews -> null));
+    }
+
+    /**
+     * Usernames are copied into the cached reviews, so a rename drops every event the authors appear in.
+     */
+    public void authorsRenamed(Set<Long> authorIds) {
+        writeGuard.onWriteToAll(() -> { }, status -> {
+            if (status != TransactionSynchronization.STATUS_ROLLED_BACK) {
+                cache.asMap().values()
+                        .removeIf(eventTopReviews -> authorIds.stream().anyMatch(eventTopReviews::hasAuthor));
+            }
+        });
+    }
+
+    /**
+     * Drops everything, for writes that bypass the service, such as maintenance scripts and test fixtures.
+     */
+    public void invalidateAll() {
+        writeGuard.onWriteToAll(() -> { }, status -> cache.invalidateAll());
+    }
+
+    private void afterCompletion(Long eventId, UnaryOperator<EventTopReviews> change) {
+        writeGuard.onWrite(eventId, () -> { }, status -> {
+            if (status == TransactionSynchronization.STATUS_COMMITTED) {
+                cache.asMap().computeIfPresent(eventId, (id, eventTopReviews) -> change.apply(eventTopReviews));
+            } else if (status == TransactionSynchronization.STATUS_UNKNOWN) {
+                cache.invalidate(eventId);
+            }
+        });
+    }
+
+    /**
+     * Timestamp columns round to microseconds, so a review written from memory is brought to what a reload would
+     * return.
+     */
+    private static ReviewDto asStored(ReviewDto review) {
+        return new ReviewDto(review.getId(), review.getEventId(), review.getUsername(), review.getTitle(),
+                review.getContent(), round(review.getCreatedOn()), round(review.getUpdatedOn()),
+                review.getMark(), review.getLikes(), review.getDislikes());
+    }
+
+    private static LocalDateTime round(LocalDateTime dateTime) {
+        if (dateTime == null) {
+            return null;
+        }
+        LocalDateTime truncated = dateTime.truncatedTo(ChronoUnit.MICROS);
+        return dateTime.getNano() % 1000 >= 500 ? truncated.plus(1, ChronoUnit.MICROS) : truncated;
+    }
+}
@@ -0,0 +1,86 @@
+package ru.practicum.workshop.reviewservice.service;
+
+import jakarta.persistence.EntityNotFoundException;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import ru.practicum.workshop.reviewservice.enums.Label;
+import ru.practicum.workshop.reviewservice.exception.ConflictException;
+import ru.practicum.workshop.reviewservice.exception.ForbiddenException;
+
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import static ru.practicum.workshop.reviewservice.dto.Constants.LIKES_DISLIKES_CHANGE_AT_NEW_OPINION_OR_DELETE_OPINION;
+
+/**
+ * A like/dislike request resolved against the evaluator's current opinion: either an insert of a new
+ * opinion row ({@code change > 0}) or a delete of an existing one ({@code change < 0}). Replaying a
+ * resolved change is idempotent as long as the counters move only when the row actually changed.
+ */
+@Slf4j
+@Value
+public class OpinionChange {
+    Long reviewId;
+    Long evaluatorId;
+    Label label;
+    long change;
+
+    public static OpinionChange insert(Long reviewId, Long evaluatorId, Label label) {
+        return new OpinionChange(reviewId, evaluatorId, label, LIKES_DISLIKES_CHANGE_AT_NEW_OPINION_OR_DELETE_OPINION);
+    }
+
+    public static OpinionChange delete(Long reviewId, Long evaluatorId, Label label) {
+        return new OpinionChange(reviewId, evaluatorId, label, -LIKES_DISLIKES_CHANGE_AT_NEW_OPINION_OR_DELETE_OPINION);
+    }
+
+    public static OpinionChange addition(Long reviewId, Long evaluatorId, Label label, Long authorId,
+                                         Supplier<Optional<Label>> existingLabel) {
+        if (evaluatorId.equals(authorId)) {
+            log.error("FORBIDDEN. Пользователь с id {} не может поставить {} своему отзыву с id {}.",
+                    evaluatorId, label, reviewId);
+            throw new ForbiddenException(String.format("As author of review, you can't put %s to review with id = %d", label, reviewId));
+        }
+        Optional<Label> existing = existingLabel.get();
+        if (existing.isEmpty()) {
+            return insert(reviewId, evaluatorId, label);
+        }
+        if (existing.get().equals(label)) {
+            log.error("CONFLICT. Пользователь с id {} уже поставил {} отзыву с id {}, и больше" +
+                    " поставить не может.", evaluatorId, label, reviewId);
+            throw new ConflictException(String.format("You have already put %s review with id = %d and cannot do it again", label, reviewId));
+        }
+        return delete(reviewId, evaluatorId, existing.get());
+    }
+
+    public static OpinionChange removal(Long reviewId, Long evaluatorId, Label label, Optional<Label> existingLabel) {
+        Label existing = existingLabel.orElseThrow(() -> {
+            log.error("NOT FOUND. {} на ревью с id={} от пользователя с id={} не найден. Удаление отклонено.", label,
+                    reviewId, evaluatorId);
+            return new EntityNotFoundException(String.format("%s to review with id=%d from user with id=%d was not found",
+                    label, reviewId, evaluatorId));
+        });
+        if (!existing.equals(label)) {
+            log.error("CONFLICT. Пользователь с id {} поставил {} отзыву с id {}, а удалить предлагает {}." +
+                    " Операция не может быть выполнена.", evaluatorId, existing, reviewId, label);
+            throw new ConflictException(String.format("You have put %s to review with id = %d, but want to delete %s. " +
+                    " The operation cannot be performed.", existing, reviewId, label));
+        }
+        return delete(reviewId, evaluatorId, label);
+    }
+
+    public boolean isInsert() {
+        return change > 0;
+    }
+
+    public long getLikesChange() {
+        return label.equals(Label.LIKE) ? change : 0;
+    }
+
+    public long getDislikesChange() {
+        return label.equals(Label.DISLIKE) ? change : 0;
+    }
+
+    public Optional<Label> getResultingLabel() {
+        return isInsert() ? Optional.of(label) : Optional.empty();
+    }
+}
@@ -0,0 +1,122 @@
+package ru.practicum.workshop.reviewservice.service;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.workshop.reviewservice.enums.Label;
+import ru.practicum.workshop.reviewservice.model.OpinionKey;
+import ru.practicum.workshop.reviewservice.model.ReviewVoteState;
+import ru.practicum.workshop.reviewservice.model.VoteDelta;
+import ru.practicum.workshop.reviewservice.storage.OpinionBatchStorage;
+import ru.practicum.workshop.reviewservice.storage.ReviewStorage;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * Writes resolved opinion changes to {@code opinions} with JDBC batches and folds them into one counter
+ * update per review. Changes of the same opinion are collapsed to their net effect first, and counters move
+ * only for rows that were actually inserted or deleted, so a batch can be replayed safely.
+ */
+@Slf4j
+@Service
+@Transactional
+@RequiredArgsConstructor
+public class OpinionChangeWriter {
+    private static final int LOCK_CHUNK_SIZE = 1000;
+
+    private final ReviewStorage reviewStorage;
+    private final OpinionBatchStorage opinionBatchStorage;
+    private final ReviewStatsService reviewStatsService;
+    private final EventTopReviewsCache eventTopReviewsCache;
+    private final ReviewCache reviewCache;
+    private final EntityManager entityManager;
+
+    public void apply(List<OpinionChange> changes) {
+        applyLocked(lockReviews(changes.stream().map(OpinionChange::getReviewId).toList()), changes);
+    }
+
+    /**
+     * Locks the vote state of the existing reviews among the given ones, in id order so that concurrent
+     * batches cannot deadlock each other.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Map<Long, ReviewVoteState> lockReviews(Collection<Long> reviewIds) {
+        List<Long> sortedIds = new ArrayList<>(new TreeSet<>(reviewIds));
+        Map<Long, ReviewVoteState> voteStates = new HashMap<>();
+        for (int from = 0; from < sortedIds.size(); from += LOCK_CHUNK_SIZE) {
+            reviewStorage.lockVoteStates(sortedIds.subList(from, Math.min(from + LOCK_CHUNK_SIZE, sortedIds.size())))
+                    .forEach(voteState -> voteStates.put(voteState.getId(), voteState));
+        }
+        return voteStates;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void applyLocked(Map<Long, ReviewVoteState> voteStates, List<OpinionChange> changes) {
+        Map<OpinionKey, List<OpinionChange>> changesByOpinion = changes.stream()
+                .collect(Collectors.groupingBy(change -> new OpinionKey(change.getReviewId(), change.getEvaluatorId()),
+                        LinkedHashMap::new, Collectors.toList()));
+        Map<OpinionKey, Label> deletes = new LinkedHashMap<>();
+        Map<OpinionKey, Label> inserts = new LinkedHashMap<>();
+        changesByOpinion.forEach((key, opinionChanges) -> {
+            if (!voteStates.containsKey(key.getReviewId())) {
+                log.warn("Отзыв с id {} не найден, изменения оценки пользователя с id {} отброшены.",
+                        key.getReviewId(), key.getEvaluatorId());
+                return;
+            }
+            OpinionChange first = opinionChanges.get(0);
+            Optional<Label> initialLabel = first.isInsert() ? Optional.empty() : Optional.of(first.getLabel());
+            Optional<Label> finalLabel = opinionChanges.get(opinionChanges.size() - 1).getResultingLabel();
+            if (!initialLabel.equals(finalLabel)) {
+                initialLabel.ifPresent(label -> deletes.put(key, label));
+                finalLabel.ifPresent(label -> inserts.put(key, label));
+            }
+        });
+
+        entityManager.flush();
+        Map<Long, VoteDelta> deltas = new TreeMap<>();
+        if (!deletes.isEmpty()) {
+            addDeltas(deltas, opinionBatchStorage.delete(deletes), deletes, -1);
+        }
+        if (!inserts.isEmpty()) {
+            addDeltas(deltas, opinionBatchStorage.insertIfAbsent(inserts), inserts, 1);
+        }
+        deltas.values().removeIf(delta -> delta.getLikes() == 0 && delta.getDislikes() == 0);
+        if (deltas.isEmpty()) {
+            return;
+        }
+        opinionBatchStorage.addVotes(deltas.values());
+        // The counters were changed behind Hibernate's back, so drop any review it still holds.
+        entityManager.clear();
+        for (VoteDelta delta : deltas.values()) {
+            ReviewScore scoreBeforeChanges = ReviewScore.of(voteStates.get(delta.getReviewId()));
+            ReviewScore scoreAfterChanges = scoreBeforeChanges.withVotes(delta.getLikes(), delta.getDislikes());
+            reviewStatsService.recordChanged(scoreBeforeChanges, scoreAfterChanges);
+            eventTopReviewsCache.votesChanged(delta.getReviewId(), scoreBeforeChanges, scoreAfterChanges);
+            reviewCache.reviewChanged(delta.getReviewId());
+        }
+        log.debug("Opinion changes applied: changes={}, reviews={}", changes.size(), deltas.size());
+    }
+
+    private static void addDeltas(Map<Long, VoteDelta> deltas, Set<OpinionKey> changedKeys,
+                                  Map<OpinionKey, Label> labels, long change) {
+        for (OpinionKey key : changedKeys) {
+            boolean like = labels.get(key).equals(Label.LIKE);
+            deltas.merge(key.getReviewId(), new VoteDelta(key.getReviewId(), like ? change : 0, like ? 0 : change),
+                    (previous, next) -> new VoteDelta(previous.getReviewId(), previous.getLikes() + next.getLikes(),
+                            previous.getDislikes() + next.getDislikes()));
+        }
+    }
+}
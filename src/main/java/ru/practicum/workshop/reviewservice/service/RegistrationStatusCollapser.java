@@ -0,0 +1,170 @@
+package ru.practicum.workshop.reviewservice.service;
+
+import feign.FeignException;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import ru.practicum.workshop.reviewservice.client.RegistrationClient;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Looks up registration statuses. When enabled, concurrent lookups for one event are collected for up to
+ * {@code window} or until {@code maxBatchSize} users are waiting and sent to registration-service as one bulk
+ * lookup. The bulk call is made by one of {@code senders} threads of the collapser rather than by a thread of one
+ * of the requests, so a request that gives up and interrupts its thread does not fail the lookups of the others.
+ * While registration-service does not offer the bulk lookup, users are looked up one by one and the bulk lookup is
+ * tried again after {@code bulkRetryInterval}.
+ */
+@Slf4j
+@Component
+public class RegistrationStatusCollapser {
+    private final RegistrationClient registrationClient;
+    private final boolean enabled;
+    private final Duration window;
+    private final int maxBatchSize;
+    private final Duration bulkRetryInterval;
+    private final ScheduledExecutorService sender;
+    private final Map<Long, Batch> openBatches = new HashMap<>();
+    private volatile Instant bulkRetryAt = Instant.MIN;
+
+    public RegistrationStatusCollapser(RegistrationClient registrationClient,
+                                       @Value("${review-service.registration-batch.enabled:false}") boolean enabled,
+                                       @Value("${review-service.registration-batch.window:5ms}") Duration window,
+                                       @Value("${review-service.registration-batch.max-size:50}") int maxBatchSize,
+                                       @Value("${review-service.registration-batch.bulk-retry-interval:1m}")
+                                       Duration bulkRetryInterval,
+                                       @Value("${review-service.registration-batch.senders:8}") int senders) {
+        this.registrationClient = registrationClient;
+        this.enabled = enabled;
+        this.window = window;
+        this.maxBatchSize = maxBatchSize;
+        this.bulkRetryInterval = bulkRetryInterval;
+        this.sender = enabled
+                ? Executors.newScheduledThreadPool(senders, new CustomizableThreadFactory("registration-batch-"))
+                : null;
+    }
+
+    @PreDestroy
+    void stop() {
+        if (sender != null) {
+            sender.shutdownNow();
+        }
+    }
+
+    /**
+     * Returns the status of the user's registration to the event, or an empty optional if there is none.
+     */
+    public Optional<String> getStatus(Long eventId, Long userId) {
+        if (!enabled || Instant.now().isBefore(bulkRetryAt)) {
+            return getSingleStatus(eventId, userId);
+        }
+        Batch batch;
+        boolean full;
+        try {
+            synchronized (openBatches) {
+                batch = openBatches.get(eventId);
+                if (batch == null) {
+                    Batch newBatch = new Batch();
+                    sender.schedule(() -> send(eventId, newBatch), window.toNanos(), TimeUnit.NANOSECONDS);
+                    openBatches.put(eventId, newBatch);
+                    batch = newBatch;
+                }
+                batch.userIds.add(userId);
+                full = batch.userIds.size() == maxBatchSize;
+                if (full) {
+                    openBatches.remove(eventId);
+                }
+            }
+        } catch (RejectedExecutionException e) {
+            // The collapser is stopping: nothing will send the batch any more.
+            return getSingleStatus(eventId, userId);
+        }
+        if (full) {
+            Batch fullBatch = batch;
+            try {
+                sender.execute(() -> send(eventId, fullBatch));
+            } catch (RejectedExecutionException e) {
+                // No statuses: everyone in the batch looks the status up on their own.
+                batch.statuses.complete(null);
+            }
+        }
+        Map<Long, String> statuses = await(batch);
+        if (statuses == null) {
+            return getSingleStatus(eventId, userId);
+        }
+        return Optional.ofNullable(statuses.get(userId));
+    }
+
+    /**
+     * Sends the batch once, when it is full or its window is over, whichever comes first.
+     */
+    private void send(Long eventId, Batch batch) {
+        List<Long> userIds;
+        synchronized (openBatches) {
+            if (batch.sent) {
+                return;
+            }
+            batch.sent = true;
+            openBatches.remove(eventId, batch);
+            userIds = new ArrayList<>(batch.userIds);
+        }
+        try {
+            Map<Long, String> statuses = registrationClient.getStatusesOfRegistrations(eventId, userIds);
+            log.debug("Registration statuses got in bulk: eventId={}, users={}", eventId, userIds.size());
+            batch.statuses.complete(statuses);
+        } catch (FeignException.NotFound | FeignException.MethodNotAllowed | FeignException.NotImplemented e) {
+            bulkRetryAt = Instant.now().plus(bulkRetryInterval);
+            log.warn("Сервис регистраций не поддерживает пакетную проверку статусов ({}), статусы проверяются по " +
+                    "одному до {}.", e.status(), bulkRetryAt);
+            // No statuses: everyone in the batch looks the status up on their own.
+            batch.statuses.complete(null);
+        } catch (RuntimeException e) {
+            batch.statuses.completeExceptionally(e);
+        }
+    }
+
+    private static Map<Long, String> await(Batch batch) {
+        try {
+            return batch.statuses.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for registration statuses", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private Optional<String> getSingleStatus(Long eventId, Long userId) {
+        try {
+            return Optional.of(registrationClient.getStatusOfRegistration(eventId, userId));
+        } catch (FeignException.NotFound e) {
+            return Optional.empty();
+        }
+    }
+
+    private static class Batch {
+        private final Set<Long> userIds = new LinkedHashSet<>();
+        private boolean sent;
+        private final CompletableFuture<Map<Long, String>> statuses = new CompletableFuture<>();
+    }
+}
@@ -0,0 +1,78 @@
+package ru.practicum.workshop.reviewservice.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.workshop.reviewservice.dto.ReviewDto;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Read-through cache of single reviews as they are returned by {@code GET /reviews/{id}}. A write drops the
+ * review both before its transaction commits and after it completes, and loads that overlap the write are not
+ * cached, so once a write has committed no reader of this instance gets the review as it was before. Writes made
+ * through other instances of the service are not seen here, so a review is kept for at most the configured time
+ * after it was loaded, and that is how stale a read can be.
+ */
+@Component
+public class ReviewCache {
+    private final Cache<Long, CachedReview> cache;
+    private final CacheWriteGuard writeGuard = new CacheWriteGuard();
+
+    public ReviewCache(@Value("${review-service.review-cache.max-size:100000}") long maxSize,
+                       @Value("${review-service.review-cache.ttl:30s}") Duration ttl,
+                       MeterRegistry meterRegistry) {
+        cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "reviews");
+    }
+
+    public ReviewDto get(Long reviewId, Function<Long, CachedReview> loader) {
+        CachedReview cached = cache.getIfPresent(reviewId);
+        if (cached != null) {
+            return cached.getReview();
+        }
+        long version = writeGuard.version(reviewId);
+        CachedReview loaded = loader.apply(reviewId);
+        cache.asMap().compute(reviewId, (id, current) -> current != null ? current
+                : writeGuard.isUnchanged(reviewId, version) ? loaded : null);
+        return loaded.getReview();
+    }
+
+    public void reviewChanged(Long reviewId) {
+        writeGuard.onWrite(reviewId, () -> cache.invalidate(reviewId), status -> cache.invalidate(reviewId));
+    }
+
+    /**
+     * Usernames are copied into the cached reviews, so a rename drops every review of the authors.
+     */
+    public void authorsRenamed(Set<Long> authorIds) {
+        Runnable dropReviews = () -> cache.asMap().values()
+                .removeIf(cachedReview -> authorIds.contains(cachedReview.getAuthorId()));
+        writeGuard.onWriteToAll(dropReviews, status -> dropReviews.run());
+    }
+
+    /**
+     * Drops everything, for writes that bypass the service, such as maintenance scripts and test fixtures.
+     */
+    public void invalidateAll() {
+        writeGuard.onWriteToAll(cache::invalidateAll, status -> cache.invalidateAll());
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class CachedReview {
+        private final Long authorId;
+        private final ReviewDto review;
+    }
+}
@@ -0,0 +1,129 @@
+package ru.practicum.workshop.reviewservice.service;
+
+import feign.FeignException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import ru.practicum.workshop.reviewservice.dto.EventResponse;
+import ru.practicum.workshop.reviewservice.exception.ConflictException;
+import ru.practicum.workshop.reviewservice.exception.ForbiddenException;
+import ru.practicum.workshop.reviewservice.exception.GatewayTimeoutException;
+import ru.practicum.workshop.reviewservice.model.Review;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Checks with event-service and registration-service that a review may be created. Both calls run at once, so
+ * creation waits for the slower of them rather than for their sum: the registration call on a pool thread, the
+ * event one on a thread of {@link EventCache} while the request thread waits for it, so a creation takes a single
+ * pool thread. A failed event check wins over a failed registration check, as it did when the event was checked
+ * first, and cancels the registration call. A valid attendance token stands in for the registration call.
+ */
+@Slf4j
+@Component
+public class ReviewCreationChecks {
+    private final EventCache eventCache;
+    private final RegistrationStatusCollapser registrationStatusCollapser;
+    private final AttendanceTokenVerifier attendanceTokenVerifier;
+    private final ThreadPoolTaskExecutor remoteCallExecutor;
+    private final Duration timeout;
+
+    public ReviewCreationChecks(EventCache eventCache,
+                                RegistrationStatusCollapser registrationStatusCollapser,
+                                AttendanceTokenVerifier attendanceTokenVerifier,
+                                ThreadPoolTaskExecutor remoteCallExecutor,
+                                @Value("${review-service.create.checks-timeout:5s}") Duration timeout) {
+        this.eventCache = eventCache;
+        this.registrationStatusCollapser = registrationStatusCollapser;
+        this.attendanceTokenVerifier = attendanceTokenVerifier;
+        this.remoteCallExecutor = remoteCallExecutor;
+        this.timeout = timeout;
+    }
+
+    public void check(Review review) {
+        check(review, null);
+    }
+
+    public void check(Review review, String attendanceToken) {
+        Optional<String> attestedStatus =
+                attendanceTokenVerifier.verify(attendanceToken, review.getEventId(), review.getAuthor().getId());
+        long deadline = System.nanoTime() + timeout.toNanos();
+        Future<Optional<String>> registrationStatus = attestedStatus.isPresent() ? null
+                : remoteCallExecutor.submit(() ->
+                        registrationStatusCollapser.getStatus(review.getEventId(), review.getAuthor().getId()));
+        try {
+            checkEvent(review, deadline);
+            // A registration failure is reported only once the event check has passed.
+            checkRegistrationStatus(review,
+                    registrationStatus == null ? attestedStatus : awaitRegistration(review, registrationStatus, deadline));
+        } finally {
+            if (registrationStatus != null) {
+                registrationStatus.cancel(true);
+            }
+        }
+    }
+
+    private void checkEvent(Review review, long deadline) {
+        EventResponse eventResponse;
+        try {
+            eventResponse = eventCache.getEvent(review.getAuthor().getId(), review.getEventId(),
+                    Duration.ofNanos(deadline - System.nanoTime()));
+        } catch (FeignException.NotFound e) {
+            log.error("CONFLICT. Отзыв к событию с id {} отклонен. Событие не найдено.", review.getEventId());
+            throw new ConflictException(String.format("Adding of review for event with id = %d is rejected. " +
+                    "Event is not found", review.getEventId()));
+        } catch (TimeoutException e) {
+            throw timedOut(review);
+        }
+        if (eventResponse.getEndDateTime().isAfter(LocalDateTime.now())) {
+            log.error("CONFLICT. Публикация отзыва. Событие с id {} не завершено.", eventResponse.getId());
+            throw new ConflictException(String.format("The event with id = %d is not completed", eventResponse.getId()));
+        }
+    }
+
+    private Optional<String> awaitRegistration(Review review, Future<Optional<String>> registrationStatus,
+                                               long deadline) {
+        try {
+            return registrationStatus.get(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            throw timedOut(review);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while checking registration", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException failure) {
+                throw failure;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private GatewayTimeoutException timedOut(Review review) {
+        log.error("GATEWAY TIMEOUT. Отзыв к событию с id {} отклонен. Событие и регистрация не проверены " +
+                "за {}.", review.getEventId(), timeout);
+        return new GatewayTimeoutException(String.format("Adding of review for event with id = %d is " +
+                "rejected. Event and registration were not checked in %s", review.getEventId(), timeout));
+    }
+
+    private static void checkRegistrationStatus(Review review, Optional<String> registrationStatus) {
+        if (registrationStatus.isEmpty()) {
+            log.error("FORBIDDEN. Отзыв к событию с id {} отклонен. Регистрация на событие не найдена.", review.getEventId());
+            throw new ForbiddenException(String.format("Adding of review for event with id = %d is rejected. " +
+                    "Registration to event is not found", review.getEventId()));
+        }
+        if (!registrationStatus.get().equals("APPROVED")) {
+            log.error("FORBIDDEN. Публикация отзыва. Регистрация на событие с id {} не подтверждена.", review.getEventId());
+            throw new ForbiddenException(String.format("Registration to event with id = %d is not APPROVED", review.getEventId()));
+        }
+    }
+}
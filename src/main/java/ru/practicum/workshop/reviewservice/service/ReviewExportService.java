@@ -0,0 +1,118 @@
+package ru.practicum.workshop.reviewservice.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.workshop.reviewservice.dto.ReviewDto;
+import ru.practicum.workshop.reviewservice.enums.ReviewExportFormat;
+import ru.practicum.workshop.reviewservice.storage.ReviewStorage;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Writes all reviews of an event or an author to a stream. Rows come from a forward-only cursor as DTO
+ * projections, so neither the result list nor managed entities are kept in memory, whatever the number of
+ * reviews.
+ */
+@Slf4j
+@Service
+@Transactional(readOnly = true)
+public class ReviewExportService {
+    private static final String CSV_HEADER = "id,eventId,username,title,content,createdOn,updatedOn,mark,likes,dislikes";
+
+    private final ReviewStorage reviewStorage;
+    private final ObjectWriter reviewWriter;
+
+    public ReviewExportService(ReviewStorage reviewStorage, ObjectMapper objectMapper) {
+        this.reviewStorage = reviewStorage;
+        this.reviewWriter = objectMapper.writerFor(ReviewDto.class)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    public long exportByEvent(Long eventId, ReviewExportFormat format, OutputStream output) {
+        long count = export(reviewStorage.streamByEventId(eventId), format, output);
+        log.info("Reviews exported by eventId={}: count={}, format={}", eventId, count, format);
+        return count;
+    }
+
+    public long exportByAuthor(Long authorId, ReviewExportFormat format, OutputStream output) {
+        long count = export(reviewStorage.streamByAuthorId(authorId), format, output);
+        log.info("Reviews exported by authorId={}: count={}, format={}", authorId, count, format);
+        return count;
+    }
+
+    private long export(Stream<ReviewDto> reviews, ReviewExportFormat format, OutputStream output) {
+        long count = 0;
+        try (reviews) {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+            if (format == ReviewExportFormat.CSV) {
+                writer.write(CSV_HEADER);
+                writer.write('\n');
+            }
+            Iterator<ReviewDto> iterator = reviews.iterator();
+            while (iterator.hasNext()) {
+                ReviewDto review = iterator.next();
+                if (format == ReviewExportFormat.CSV) {
+                    writeCsv(writer, review);
+                } else {
+                    reviewWriter.writeValue(writer, review);
+                }
+                writer.write('\n');
+                count++;
+            }
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return count;
+    }
+
+    private static void writeCsv(Writer writer, ReviewDto review) throws IOException {
+        writer.write(String.valueOf(review.getId()));
+        writer.write(',');
+        writer.write(String.valueOf(review.getEventId()));
+        writer.write(',');
+        writeCsvField(writer, review.getUsername());
+        writer.write(',');
+        writeCsvField(writer, review.getTitle());
+        writer.write(',');
+        writeCsvField(writer, review.getContent());
+        writer.write(',');
+        writeCsvField(writer, review.getCreatedOn());
+        writer.write(',');
+        writeCsvField(writer, review.getUpdatedOn());
+        writer.write(',');
+        writeCsvField(writer, review.getMark());
+        writer.write(',');
+        writer.write(String.valueOf(review.getLikes()));
+        writer.write(',');
+        writer.write(String.valueOf(review.getDislikes()));
+    }
+
+    private static void writeCsvField(Writer writer, Object value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        String text = value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            writer.write(text);
+            return;
+        }
+        writer.write('"');
+        writer.write(text.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
@@ -0,0 +1,155 @@
+package ru.practicum.workshop.reviewservice.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Service;
+import ru.practicum.workshop.reviewservice.dto.importing.ReviewImportDto;
+import ru.practicum.workshop.reviewservice.dto.importing.ReviewImportError;
+import ru.practicum.workshop.reviewservice.dto.importing.ReviewImportResult;
+import ru.practicum.workshop.reviewservice.mapper.ReviewMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Imports reviews from NDJSON, one review per line. The input is read line by line and written in chunks of
+ * {@code review-service.import.chunk-size}, so memory does not depend on the size of the import. Imported
+ * reviews are trusted migration data: events and registrations are not checked with the other services.
+ */
+@Slf4j
+@Service
+public class ReviewImportService {
+    private final ReviewImportWriter reviewImportWriter;
+    private final ReviewMapper reviewMapper;
+    private final Validator validator;
+    private final ObjectReader reviewReader;
+    private final int chunkSize;
+    private final int maxErrors;
+
+    public ReviewImportService(ReviewImportWriter reviewImportWriter,
+                               ReviewMapper reviewMapper,
+                               Validator validator,
+                               ObjectMapper objectMapper,
+                               @Value("${review-service.import.chunk-size:500}") int chunkSize,
+                               @Value("${review-service.import.max-errors:1000}") int maxErrors) {
+        this.reviewImportWriter = reviewImportWriter;
+        this.reviewMapper = reviewMapper;
+        this.validator = validator;
+        this.reviewReader = objectMapper.readerFor(ReviewImportDto.class);
+        this.chunkSize = chunkSize;
+        this.maxErrors = maxErrors;
+    }
+
+    public ReviewImportResult importReviews(InputStream input) {
+        ImportProgress progress = new ImportProgress();
+        List<ReviewImportDto> chunk = new ArrayList<>(chunkSize);
+        List<Long> chunkLines = new ArrayList<>(chunkSize);
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            long lineNumber = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                ReviewImportDto dto = parse(lineNumber, line, progress);
+                if (dto == null) {
+                    continue;
+                }
+                chunk.add(dto);
+                chunkLines.add(lineNumber);
+                if (chunk.size() == chunkSize) {
+                    write(chunk, chunkLines, progress);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (!chunk.isEmpty()) {
+            write(chunk, chunkLines, progress);
+        }
+        log.info("Reviews imported: imported={}, failed={}", progress.imported, progress.failed);
+        return new ReviewImportResult(progress.imported, progress.failed, progress.errors);
+    }
+
+    private ReviewImportDto parse(long lineNumber, String line, ImportProgress progress) {
+        ReviewImportDto dto;
+        try {
+            dto = reviewReader.readValue(line);
+        } catch (JsonProcessingException e) {
+            progress.fail(lineNumber, "Malformed JSON: " + e.getOriginalMessage());
+            return null;
+        }
+        if (dto == null) {
+            progress.fail(lineNumber, "Line doesn't contain a review");
+            return null;
+        }
+        List<String> violations = validator.validate(dto).stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.toList());
+        if (!violations.isEmpty()) {
+            progress.fail(lineNumber, String.join("; ", violations));
+            return null;
+        }
+        return dto;
+    }
+
+    /**
+     * Saves the chunk in one transaction. If that fails, the lines are saved one by one, so that only the lines
+     * that cannot be saved are reported. Entities are mapped anew for every attempt, since a rolled back save leaves
+     * ids and author references behind in the ones it was given.
+     */
+    private void write(List<ReviewImportDto> chunk, List<Long> chunkLines, ImportProgress progress) {
+        try {
+            reviewImportWriter.write(chunk.stream().map(reviewMapper::toEntity).toList());
+            progress.imported += chunk.size();
+        } catch (RuntimeException e) {
+            log.error("Импорт отзывов. Строки {}-{} не сохранены одним пакетом, сохраняются по одной: {}",
+                    chunkLines.get(0), chunkLines.get(chunkLines.size() - 1),
+                    NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+            for (int i = 0; i < chunk.size(); i++) {
+                writeAlone(chunk.get(i), chunkLines.get(i), progress);
+            }
+        }
+        chunk.clear();
+        chunkLines.clear();
+    }
+
+    private void writeAlone(ReviewImportDto dto, long lineNumber, ImportProgress progress) {
+        try {
+            reviewImportWriter.write(List.of(reviewMapper.toEntity(dto)));
+            progress.imported++;
+        } catch (RuntimeException e) {
+            String message = NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+            log.error("Импорт отзывов. Строка {} не сохранена: {}", lineNumber, message);
+            progress.fail(lineNumber, "Review was not saved: " + message);
+        }
+    }
+
+    private class ImportProgress {
+        private final List<ReviewImportError> errors = new ArrayList<>();
+        private long imported;
+        private long failed;
+
+        private void fail(long lineNumber, String message) {
+            failed++;
+            if (errors.size() < maxErrors) {
+                errors.add(new ReviewImportError(lineNumber, message));
+            }
+        }
+    }
+}
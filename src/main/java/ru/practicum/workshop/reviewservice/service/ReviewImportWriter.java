@@ -0,0 +1,57 @@
+package ru.practicum.workshop.reviewservice.service;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.workshop.reviewservice.model.Review;
+import ru.practicum.workshop.reviewservice.model.User;
+import ru.practicum.workshop.reviewservice.storage.ReviewStorage;
+import ru.practicum.workshop.reviewservice.storage.UserBatchStorage;
+import ru.practicum.workshop.reviewservice.storage.UserStorage;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Saves one chunk of imported or asynchronously submitted reviews in its own transaction, or in the caller's:
+ * authors are upserted with a JDBC batch, reviews are inserted through Hibernate batches with ids taken from the
+ * pooled {@code reviews_seq}, and the stats get one delta per event and author of the chunk. Cached top reviews of
+ * the touched events are dropped rather than patched review by review.
+ */
+@Slf4j
+@Service
+@Transactional
+@RequiredArgsConstructor
+public class ReviewImportWriter {
+    private final ReviewStorage reviewStorage;
+    private final UserStorage userStorage;
+    private final UserBatchStorage userBatchStorage;
+    private final ReviewStatsService reviewStatsService;
+    private final EventTopReviewsCache eventTopReviewsCache;
+    private final ReviewCache reviewCache;
+    private final EntityManager entityManager;
+
+    public void write(List<Review> reviews) {
+        Map<Long, User> authors = new TreeMap<>();
+        reviews.forEach(review -> authors.put(review.getAuthor().getId(), review.getAuthor()));
+        Set<Long> renamedAuthorIds = userBatchStorage.upsert(authors.values());
+        reviews.forEach(review -> review.setAuthor(userStorage.getReferenceById(review.getAuthor().getId())));
+
+        reviewStorage.saveAll(reviews);
+        entityManager.flush();
+        reviewStatsService.recordCreated(reviews.stream().map(ReviewScore::of).toList());
+        eventTopReviewsCache.eventsChanged(reviews.stream().map(Review::getEventId).collect(Collectors.toSet()));
+        if (!renamedAuthorIds.isEmpty()) {
+            eventTopReviewsCache.authorsRenamed(renamedAuthorIds);
+            reviewCache.authorsRenamed(renamedAuthorIds);
+        }
+        // Imported reviews are not read back, so keep the persistence context from growing with the import.
+        entityManager.clear();
+        log.debug("Imported chunk saved: reviews={}, authors={}", reviews.size(), authors.size());
+    }
+}
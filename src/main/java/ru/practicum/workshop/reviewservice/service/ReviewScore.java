@@ -0,0 +1,45 @@
+package ru.practicum.workshop.reviewservice.service;
+
+import lombok.Value;
+import ru.practicum.workshop.reviewservice.model.Review;
+import ru.practicum.workshop.reviewservice.model.ReviewVoteState;
+
+import static ru.practicum.workshop.reviewservice.dto.Constants.LIMIT_OF_SUM_LIKES_DISLIKES;
+import static ru.practicum.workshop.reviewservice.dto.Constants.MARK_LIMITATION_NEGATIVE_REVIEWS;
+import static ru.practicum.workshop.reviewservice.dto.Constants.MARK_LIMITATION_POSITIVE_REVIEWS;
+
+@Value
+public class ReviewScore {
+    Long eventId;
+    Long authorId;
+    int mark;
+    long likes;
+    long dislikes;
+
+    public static ReviewScore of(Review review) {
+        Long authorId = review.getAuthor() != null ? review.getAuthor().getId() : null;
+        return new ReviewScore(review.getEventId(), authorId, review.getMark(), review.getLikes(),
+                review.getDislikes());
+    }
+
+    public static ReviewScore of(ReviewVoteState state) {
+        return new ReviewScore(state.getEventId(), state.getAuthorId(), state.getMark(), state.getLikes(),
+                state.getDislikes());
+    }
+
+    public ReviewScore withVotes(long likesChange, long dislikesChange) {
+        return new ReviewScore(eventId, authorId, mark, likes + likesChange, dislikes + dislikesChange);
+    }
+
+    public boolean isPositive() {
+        return mark > MARK_LIMITATION_POSITIVE_REVIEWS;
+    }
+
+    public boolean isNegative() {
+        return mark < MARK_LIMITATION_NEGATIVE_REVIEWS;
+    }
+
+    public boolean isTrusted() {
+        return likes + dislikes <= LIMIT_OF_SUM_LIKES_DISLIKES || dislikes < likes;
+    }
+}
@@ -1,23 +1,42 @@
 package ru.practicum.workshop.reviewservice.service;
 
 import org.springframework.data.domain.Pageable;
+import ru.practicum.workshop.reviewservice.dto.ReviewCursor;
+import ru.practicum.workshop.reviewservice.dto.ReviewDto;
 import ru.practicum.workshop.reviewservice.dto.analytics.AuthorAverageMark;
 import ru.practicum.workshop.reviewservice.dto.analytics.BestAndWorstReviews;
 import ru.practicum.workshop.reviewservice.dto.analytics.EventAverageMark;
 import ru.practicum.workshop.reviewservice.dto.analytics.EventIndicators;
+import ru.practicum.workshop.reviewservice.dto.analytics.EventSummary;
+import ru.practicum.workshop.reviewservice.dto.opinion.OpinionBatchItem;
+import ru.practicum.workshop.reviewservice.dto.opinion.OpinionBatchItemResult;
 import ru.practicum.workshop.reviewservice.model.Review;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 public interface ReviewService {
     Review createReview(Review review);
 
+    /**
+     * Creates the review, taking the author's registration from the attendance token instead of asking
+     * registration-service when the token is valid.
+     */
+    Review createReview(Review review, String attendanceToken);
+
     Review updateReview(Review review);
 
     Review getReviewById(Long id);
 
+    ReviewDto getReviewDtoById(Long id);
+
+    Map<Long, Review> getReviewsByIds(Collection<Long> ids);
+
     List<Review> getReviewsByEvent(Long eventId, Pageable pageable);
 
+    List<Review> getReviewsByEvent(Long eventId, ReviewCursor cursor, int size);
+
     Long deleteReview(Long reviewId, Long authorId);
 
     void addLike(Long reviewId, Long evaluatorId);
@@ -28,6 +47,8 @@ public interface ReviewService {
 
     void removeDislike(Long reviewId, Long evaluatorId);
 
+    List<OpinionBatchItemResult> applyOpinions(List<OpinionBatchItem> items);
+
     EventAverageMark getEventAverageMark(Long eventId);
 
     AuthorAverageMark getAuthorAverageMark(Long authorId);
@@ -36,4 +57,14 @@ public interface ReviewService {
 
     BestAndWorstReviews getBestAndWorstReviews(Long eventId);
 
+    EventSummary getEventSummary(Long eventId);
+
+    List<EventAverageMark> getEventAverageMarks(List<Long> eventIds);
+
+    List<AuthorAverageMark> getAuthorAverageMarks(List<Long> authorIds);
+
+    List<EventIndicators> getEventIndicators(List<Long> eventIds);
+
+    List<BestAndWorstReviews> getBestAndWorstReviews(List<Long> eventIds);
+
 }
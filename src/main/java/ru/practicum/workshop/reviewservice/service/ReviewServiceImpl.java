@@ -1,34 +1,50 @@
 package ru.practicum.workshop.reviewservice.service;
 
-import feign.FeignException;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
-import ru.practicum.workshop.reviewservice.client.EventClient;
-import ru.practicum.workshop.reviewservice.client.RegistrationClient;
-import ru.practicum.workshop.reviewservice.dto.Constants;
-import ru.practicum.workshop.reviewservice.dto.EventResponse;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.workshop.reviewservice.dto.ReviewCursor;
 import ru.practicum.workshop.reviewservice.dto.ReviewDto;
 import ru.practicum.workshop.reviewservice.dto.analytics.AuthorAverageMark;
 import ru.practicum.workshop.reviewservice.dto.analytics.BestAndWorstReviews;
 import ru.practicum.workshop.reviewservice.dto.analytics.EventAverageMark;
 import ru.practicum.workshop.reviewservice.dto.analytics.EventIndicators;
+import ru.practicum.workshop.reviewservice.dto.analytics.EventSummary;
+import ru.practicum.workshop.reviewservice.dto.opinion.OpinionBatchItem;
+import ru.practicum.workshop.reviewservice.dto.opinion.OpinionBatchItemResult;
 import ru.practicum.workshop.reviewservice.enums.Label;
+import ru.practicum.workshop.reviewservice.enums.OpinionAction;
 import ru.practicum.workshop.reviewservice.exception.ConflictException;
 import ru.practicum.workshop.reviewservice.exception.ForbiddenException;
 import ru.practicum.workshop.reviewservice.mapper.ReviewMapper;
+import ru.practicum.workshop.reviewservice.service.EventTopReviews.RankedReview;
+import ru.practicum.workshop.reviewservice.service.ReviewCache.CachedReview;
 import ru.practicum.workshop.reviewservice.storage.*;
 import ru.practicum.workshop.reviewservice.model.*;
 
-import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 import static ru.practicum.workshop.reviewservice.dto.Constants.LIMIT_OF_REVIEWS_IN_ISSUE;
-import static ru.practicum.workshop.reviewservice.dto.Constants.LIMIT_OF_SUM_LIKES_DISLIKES;
 import static ru.practicum.workshop.reviewservice.dto.Constants.MARK_LIMITATION_POSITIVE_REVIEWS;
 import static ru.practicum.workshop.reviewservice.dto.Constants.MARK_LIMITATION_NEGATIVE_REVIEWS;
 
@@ -41,59 +57,50 @@ public class ReviewServiceImpl implements ReviewService {
     private final ReviewStorage reviewStorage;
     private final UserStorage userStorage;
     private final OpinionStorage opinionStorage;
-    private final EventClient eventClient;
-    private final RegistrationClient registrationClient;
-
-    private void saveUser(User user) {
+    private final ReviewCreationChecks reviewCreationChecks;
+    private final ReviewStatsService reviewStatsService;
+    private final OpinionChangeWriter opinionChangeWriter;
+    private final OpinionBatchStorage opinionBatchStorage;
+    private final Optional<VoteWriteBehindBuffer> voteWriteBehindBuffer;
+    private final ThreadPoolTaskExecutor analyticsExecutor;
+    private final EventTopReviewsCache eventTopReviewsCache;
+    private final ReviewCache reviewCache;
+    private final TransactionTemplate transactionTemplate;
+
+    private User saveUser(User user) {
         User newUser = userStorage.save(user);
 
         log.info("User added: {}", newUser);
+        return newUser;
     }
 
-    @Transactional
+    /**
+     * The remote checks run before the write transaction starts, so a slow event-service or registration-service
+     * does not keep a pooled connection busy. A caller's transaction is joined, not suspended.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
     @Override
     public Review createReview(Review review) {
+        return createReview(review, null);
+    }
 
-        checkEvent(review);
-
-        checkRegistration(review);
-
-        saveUser(review.getAuthor());
+    @Transactional(propagation = Propagation.SUPPORTS)
+    @Override
+    public Review createReview(Review review, String attendanceToken) {
 
-        Review newReview = reviewStorage.save(review);
-        log.info("Review added: {}", newReview);
+        reviewCreationChecks.check(review, attendanceToken);
 
-        return newReview;
-    }
+        return transactionTemplate.execute(status -> {
+            // save() merges the author, so the review has to reference the managed copy, not the argument.
+            review.setAuthor(saveUser(review.getAuthor()));
 
-    private void checkEvent(Review review) {
-        EventResponse eventResponse;
-        try {
-            eventResponse = eventClient.readEventById(review.getAuthor().getId(), review.getEventId());
-        } catch (FeignException.NotFound e) {
-            log.error("CONFLICT. Отзыв к событию с id {} отклонен. Событие не найдено.", review.getEventId());
-            throw new ConflictException(String.format("Adding of review for event with id = %d is rejected. " +
-                    "Event is not found", review.getEventId()));
-        }
-        if (eventResponse.getEndDateTime().isAfter(LocalDateTime.now())) {
-            log.error("CONFLICT. Публикация отзыва. Событие с id {} не завершено.", eventResponse.getId());
-            throw new ConflictException(String.format("The event with id = %d is not completed", eventResponse.getId()));
-        }
-    }
+            Review newReview = reviewStorage.save(review);
+            reviewStatsService.recordCreated(ReviewScore.of(newReview));
+            eventTopReviewsCache.reviewCreated(newReview.getAuthor().getId(), reviewMapper.toDtoWithoutAuthor(newReview));
+            log.info("Review added: {}", newReview);
 
-    private void checkRegistration(Review review) {
-        String registrationStatus;
-        try {
-            registrationStatus = registrationClient.getStatusOfRegistration(review.getEventId(), review.getAuthor().getId());
-        } catch (FeignException.NotFound e) {
-            log.error("FORBIDDEN. Отзыв к событию с id {} отклонен. Регистрация на событие не найдена.", review.getEventId());
-            throw new ForbiddenException(String.format("Adding of review for event with id = %d is rejected. " +
-                    "Registration to event is not found", review.getEventId()));
-        }
-        if (!registrationStatus.equals("APPROVED")) {
-            log.error("FORBIDDEN. Публикация отзыва. Регистрация на событие с id {} не подтверждена.", review.getEventId());
-            throw new ForbiddenException(String.format("Registration to event with id = %d is not APPROVED", review.getEventId()));
-        }
+            return newReview;
+        });
     }
 
     private void updateFields(Review toUpdateReview, Review fromUpdateReview) {
@@ -102,6 +109,8 @@ public class ReviewServiceImpl implements ReviewService {
                 && !author.getUsername().equals(toUpdateReview.getAuthor().getUsername())) {
             toUpdateReview.getAuthor().setUsername(author.getUsername());
             saveUser(author);
+            eventTopReviewsCache.authorsRenamed(Set.of(author.getId()));
+            reviewCache.authorsRenamed(Set.of(author.getId()));
         }
         if (fromUpdateReview.getTitle() != null) toUpdateReview.setTitle(fromUpdateReview.getTitle());
         if (fromUpdateReview.getContent() != null) toUpdateReview.setContent(fromUpdateReview.getContent());
@@ -109,29 +118,42 @@ public class ReviewServiceImpl implements ReviewService {
         toUpdateReview.setUpdatedOn(fromUpdateReview.getUpdatedOn());
     }
 
+    /**
+     * The review is locked the way votes lock it, so the score its stats are moved from is the current one and no
+     * vote can commit between the read and the write.
+     */
     @Transactional
     @Override
     public Review updateReview(Review review) {
-        Review toUpdateReview = reviewStorage.findByIdAndAuthorId(review.getId(), review.getAuthor().getId())
-                .orElseThrow(() -> {
-                    log.error("NOT FOUND. Обновление отзыва. Отзыв с id {} пользователя с id {} не найден.",
-                            review.getId(), review.getAuthor().getId());
-                    return new EntityNotFoundException(String.format(
-                            "Review with id = %d for user with id = %d was not found",
-                            review.getId(), review.getAuthor().getId()));
-        });
+        Long authorId = review.getAuthor().getId();
+        ReviewVoteState voteState = reviewStorage.lockVoteState(review.getId())
+                .filter(state -> authorId.equals(state.getAuthorId()))
+                .orElseThrow(() -> reviewOfAuthorNotFound(review.getId(), authorId));
+        Review toUpdateReview = reviewStorage.findByIdAndAuthorId(review.getId(), authorId)
+                .orElseThrow(() -> reviewOfAuthorNotFound(review.getId(), authorId));
+        ReviewScore scoreBeforeUpdate = ReviewScore.of(voteState);
         updateFields(toUpdateReview, review);
         Review updatedReview = reviewStorage.save(toUpdateReview);
+        reviewStatsService.recordChanged(scoreBeforeUpdate, ReviewScore.of(updatedReview));
+        eventTopReviewsCache.reviewUpdated(updatedReview.getAuthor().getId(),
+                reviewMapper.toDtoWithoutAuthor(updatedReview));
+        reviewCache.reviewChanged(updatedReview.getId());
 
         log.info("Review updated: {}", updatedReview);
 
         return updatedReview;
     }
 
+    private static EntityNotFoundException reviewOfAuthorNotFound(Long reviewId, Long authorId) {
+        log.error("NOT FOUND. Обновление отзыва. Отзыв с id {} пользователя с id {} не найден.", reviewId, authorId);
+        return new EntityNotFoundException(String.format("Review with id = %d for user with id = %d was not found",
+                reviewId, authorId));
+    }
+
     @Transactional(readOnly = true)
     @Override
     public Review getReviewById(Long id) {
-        Review review = reviewStorage.findById(id).orElseThrow(() -> {
+        Review review = reviewStorage.findWithAuthorById(id).orElseThrow(() -> {
             log.error("NOT FOUND. Получение отзыва по id. Отзыв с id {} не найден.", id);
             return new EntityNotFoundException(String.format("Review with id = %d was not found", id));
         });
@@ -141,6 +163,27 @@ public class ReviewServiceImpl implements ReviewService {
         return review;
     }
 
+    @Transactional(propagation = Propagation.SUPPORTS)
+    @Override
+    public ReviewDto getReviewDtoById(Long id) {
+        if (!isCacheable()) {
+            return reviewMapper.toDtoWithoutAuthor(getReviewById(id));
+        }
+        return reviewCache.get(id, reviewId -> {
+            Review review = getReviewById(reviewId);
+            return new CachedReview(review.getAuthor().getId(), reviewMapper.toDtoWithoutAuthor(review));
+        });
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public Map<Long, Review> getReviewsByIds(Collection<Long> ids) {
+        Map<Long, Review> reviews = reviewStorage.findByIdIn(new HashSet<>(ids)).stream()
+                .collect(Collectors.toMap(Review::getId, Function.identity()));
+        log.info("Reviews got by ids: requested={}, found={}", ids.size(), reviews.size());
+        return reviews;
+    }
+
     @Transactional(readOnly = true)
     @Override
     public List<Review> getReviewsByEvent(Long eventId, Pageable pageable) {
@@ -149,15 +192,29 @@ public class ReviewServiceImpl implements ReviewService {
         return reviews;
     }
 
+    @Transactional(readOnly = true)
+    @Override
+    public List<Review> getReviewsByEvent(Long eventId, ReviewCursor cursor, int size) {
+        List<Review> reviews = reviewStorage.findByEventIdBefore(eventId, cursor.getCreatedOn(), cursor.getId(), size);
+        log.info("Review got by eventId={} after cursor: count={}", eventId, reviews.size());
+        return reviews;
+    }
+
+    /**
+     * Like an edit, the deletion locks the review first, so the stats lose the score votes left it with.
+     */
     @Override
     public Long deleteReview(Long reviewId, Long authorId) {
-        Review review = getReviewById(reviewId);
-        if (!review.getAuthor().getId().equals(authorId)) {
+        ReviewVoteState voteState = lockVoteState(reviewId);
+        if (!authorId.equals(voteState.getAuthorId())) {
             log.error("FORBIDDEN. Удаление отзыва. Пользователь с id {} не имеет доступа к отзыву с id {}.",
                     authorId, reviewId);
             throw new ForbiddenException(String.format("You don't have access to review with id = %d", reviewId));
         } else {
-            reviewStorage.deleteById(reviewId);
+            reviewStorage.deleteAllByIdInBatch(List.of(reviewId));
+            reviewStatsService.recordDeleted(ReviewScore.of(voteState));
+            eventTopReviewsCache.reviewDeleted(voteState.getEventId(), reviewId);
+            reviewCache.reviewChanged(reviewId);
             log.info("Review deleted: id={}", reviewId);
             return reviewId;
         }
@@ -187,110 +244,141 @@ public class ReviewServiceImpl implements ReviewService {
         removeOpinion(reviewId, evaluatorId, Label.DISLIKE);
     }
 
-    private void addOpinion(Long reviewId, Long evaluatorId, Label label) {
-        Review review = getReviewById(reviewId);
-        if (review.getAuthor().getId().equals(evaluatorId)) {
-            log.error("FORBIDDEN. Пользователь с id {} не может поставить {} своему отзыву с id {}.",
-                    evaluatorId, label, reviewId);
-            throw new ForbiddenException(String.format("As author of review, you can't put %s to review with id = %d", label, reviewId));
-        }
-        Optional<Opinion> resultOfOpinionRequest = opinionStorage.findOneByReview_IdAndEvaluatorId(reviewId, evaluatorId);
-        if (resultOfOpinionRequest.isPresent()) {
-            Opinion opinion = resultOfOpinionRequest.get();
-            if (opinion.getLabel().equals(label)) {
-                log.error("CONFLICT. Пользователь с id {} уже поставил {} отзыву с id {}, и больше" +
-                                " поставить не может.", evaluatorId, label, reviewId);
-                throw new ConflictException(String.format("You have already put %s review with id = %d and cannot do it again", label, reviewId));
-            } else {
-                if (label.equals(Label.LIKE)) {
-                    dislikesDecrease(review, evaluatorId);
-                } else {
-                    likesDecrease(review, evaluatorId);
-                }
-                opinionStorage.delete(opinion);
-            }
-        } else {
-            Opinion opinion = new Opinion(0L, evaluatorId, review, label);
-            if (label.equals(Label.LIKE)) {
-                likesIncrease(review, evaluatorId);
-            } else {
-                dislikesIncrease(review, evaluatorId);
-            }
-            opinionStorage.save(opinion);
-        }
+    private ReviewVoteState lockVoteState(Long reviewId) {
+        return reviewStorage.lockVoteState(reviewId).orElseThrow(() -> {
+            log.error("NOT FOUND. Получение отзыва по id. Отзыв с id {} не найден.", reviewId);
+            return new EntityNotFoundException(String.format("Review with id = %d was not found", reviewId));
+        });
     }
 
-    private void dislikesDecrease(Review review, Long evaluatorId) {
-        review.setDislikes(review.getDislikes() - Constants.LIKES_DISLIKES_CHANGE_AT_NEW_OPINION_OR_DELETE_OPINION);
-        log.info("Dislike from user with id={} to review with id={} deleted", evaluatorId, review.getId());
-        reviewStorage.save(review);
+    private void addOpinion(Long reviewId, Long evaluatorId, Label label) {
+        if (voteWriteBehindBuffer.isPresent()) {
+            voteWriteBehindBuffer.get().addOpinion(reviewId, evaluatorId, label);
+            return;
+        }
+        ReviewVoteState voteState = lockVoteState(reviewId);
+        OpinionChange change = OpinionChange.addition(reviewId, evaluatorId, label, voteState.getAuthorId(),
+                () -> opinionStorage.findLabel(reviewId, evaluatorId));
+        applyChange(voteState, change);
     }
 
-    private void dislikesIncrease(Review review, Long evaluatorId) {
-        review.setDislikes(review.getDislikes() + Constants.LIKES_DISLIKES_CHANGE_AT_NEW_OPINION_OR_DELETE_OPINION);
-        log.info("Dislike from user with id={} to review with id={} added", evaluatorId, review.getId());
-        reviewStorage.save(review);
+    private void removeOpinion(Long reviewId, Long evaluatorId, Label label) {
+        if (voteWriteBehindBuffer.isPresent()) {
+            voteWriteBehindBuffer.get().removeOpinion(reviewId, evaluatorId, label);
+            return;
+        }
+        ReviewVoteState voteState = lockVoteState(reviewId);
+        OpinionChange change = OpinionChange.removal(reviewId, evaluatorId, label,
+                opinionStorage.findLabel(reviewId, evaluatorId));
+        applyChange(voteState, change);
     }
 
-    private void likesDecrease(Review review, Long evaluatorId) {
-        review.setLikes(review.getLikes() - Constants.LIKES_DISLIKES_CHANGE_AT_NEW_OPINION_OR_DELETE_OPINION);
-        log.info("Like from user with id={} to review with id={} deleted", evaluatorId, review.getId());
-        reviewStorage.save(review);
+    private void applyChange(ReviewVoteState voteState, OpinionChange change) {
+        opinionChangeWriter.applyLocked(Map.of(change.getReviewId(), voteState), List.of(change));
+        log.info("{} from user with id={} to review with id={} {}", change.getLabel(), change.getEvaluatorId(),
+                change.getReviewId(), change.isInsert() ? "added" : "deleted");
     }
 
-    private void likesIncrease(Review review, Long evaluatorId) {
-        review.setLikes(review.getLikes() + Constants.LIKES_DISLIKES_CHANGE_AT_NEW_OPINION_OR_DELETE_OPINION);
-        log.info("Like from user with id={} to review with id={} added", evaluatorId, review.getId());
-        reviewStorage.save(review);
+    @Transactional
+    @Override
+    public List<OpinionBatchItemResult> applyOpinions(List<OpinionBatchItem> items) {
+        List<OpinionBatchItemResult> results;
+        if (voteWriteBehindBuffer.isPresent()) {
+            VoteWriteBehindBuffer buffer = voteWriteBehindBuffer.get();
+            List<Long> positions = new ArrayList<>();
+            results = resolveOpinions(items, item -> item.getAction() == OpinionAction.ADD
+                    ? buffer.submitAddition(item.getReviewId(), item.getEvaluatorId(), item.getLabel())
+                    : buffer.submitRemoval(item.getReviewId(), item.getEvaluatorId(), item.getLabel()), positions);
+            positions.stream().max(Long::compare).ifPresent(buffer::awaitDurable);
+        } else {
+            Map<Long, ReviewVoteState> voteStates = opinionChangeWriter.lockReviews(
+                    items.stream().map(OpinionBatchItem::getReviewId).toList());
+            Map<OpinionKey, Label> storedLabels = opinionBatchStorage.findLabels(items.stream()
+                    .map(item -> new OpinionKey(item.getReviewId(), item.getEvaluatorId()))
+                    .collect(Collectors.toSet()));
+            Map<OpinionKey, Optional<Label>> currentLabels = new HashMap<>();
+            List<OpinionChange> changes = new ArrayList<>();
+            results = resolveOpinions(items, item -> {
+                OpinionKey key = new OpinionKey(item.getReviewId(), item.getEvaluatorId());
+                ReviewVoteState voteState = voteStates.get(item.getReviewId());
+                Supplier<Optional<Label>> existingLabel = () -> voteState == null ? Optional.empty()
+                        : currentLabels.computeIfAbsent(key, k -> Optional.ofNullable(storedLabels.get(k)));
+                OpinionChange change;
+                if (item.getAction() == OpinionAction.ADD) {
+                    if (voteState == null) {
+                        log.error("NOT FOUND. Получение отзыва по id. Отзыв с id {} не найден.", item.getReviewId());
+                        throw new EntityNotFoundException(String.format("Review with id = %d was not found",
+                                item.getReviewId()));
+                    }
+                    change = OpinionChange.addition(item.getReviewId(), item.getEvaluatorId(), item.getLabel(),
+                            voteState.getAuthorId(), existingLabel);
+                } else {
+                    change = OpinionChange.removal(item.getReviewId(), item.getEvaluatorId(), item.getLabel(),
+                            existingLabel.get());
+                }
+                currentLabels.put(key, change.getResultingLabel());
+                return change;
+            }, changes);
+            opinionChangeWriter.applyLocked(voteStates, changes);
+        }
+        log.info("Opinion batch applied: items={}, rejected={}", items.size(),
+                results.stream().filter(result -> result.getStatus() != HttpStatus.OK).count());
+        return results;
     }
 
-    private void removeOpinion(Long reviewId, Long evaluatorId, Label label) {
-        Opinion opinion = opinionStorage.findOneByReview_IdAndEvaluatorId(reviewId, evaluatorId).orElseThrow(() -> {
-            log.error("NOT FOUND. {} на ревью с id={} от пользователя с id={} не найден. Удаление отклонено.", label,
-                    reviewId, evaluatorId);
-            return new EntityNotFoundException(String.format("%s to review with id=%d from user with id=%d was not found",
-                    label, reviewId, evaluatorId));
-        });
-        if (!opinion.getLabel().equals(label)) {
-            log.error("CONFLICT. Пользователь с id {} поставил {} отзыву с id {}, а удалить предлагает {}." +
-                    " Операция не может быть выполнена.", evaluatorId, opinion.getLabel(), reviewId, label);
-            throw new ConflictException(String.format("You have put %s to review with id = %d, but want to delete %s. " +
-                    " The operation cannot be performed.", opinion.getLabel(), reviewId, label));
-        }
-        Review review = getReviewById(reviewId);
-        if (label.equals(Label.LIKE)) {
-            likesDecrease(review, evaluatorId);
-        } else {
-            dislikesDecrease(review, evaluatorId);
+    private <T> List<OpinionBatchItemResult> resolveOpinions(List<OpinionBatchItem> items,
+                                                             Function<OpinionBatchItem, T> operation,
+                                                             List<T> accepted) {
+        List<OpinionBatchItemResult> results = new ArrayList<>(items.size());
+        for (OpinionBatchItem item : items) {
+            try {
+                accepted.add(operation.apply(item));
+                results.add(OpinionBatchItemResult.applied(item));
+            } catch (EntityNotFoundException e) {
+                results.add(OpinionBatchItemResult.rejected(item, HttpStatus.NOT_FOUND, e.getMessage()));
+            } catch (ForbiddenException e) {
+                results.add(OpinionBatchItemResult.rejected(item, HttpStatus.FORBIDDEN, e.getMessage()));
+            } catch (ConflictException e) {
+                results.add(OpinionBatchItemResult.rejected(item, HttpStatus.CONFLICT, e.getMessage()));
+            }
         }
-        opinionStorage.delete(opinion);
+        return results;
     }
 
     @Transactional(readOnly = true)
     @Override
     public EventAverageMark getEventAverageMark(Long eventId) {
-        Optional<Double> eventAverageMarkInOptional = reviewStorage.getEventAverageMark(eventId, LIMIT_OF_SUM_LIKES_DISLIKES);
-        Double eventAverageMark = eventAverageMarkInOptional.map(aDouble -> Math.floor(aDouble * 10) / 10).orElse(null);
-        return new EventAverageMark(eventId, eventAverageMark);
+        return toEventAverageMark(reviewStatsService.getEventStats(eventId));
+    }
+
+    private EventAverageMark toEventAverageMark(EventReviewStats stats) {
+        Double eventAverageMark = stats.getTrustedCount() == 0 ? null
+                : Math.floor((double) stats.getTrustedMarkSum() / stats.getTrustedCount() * 10) / 10;
+        return new EventAverageMark(stats.getEventId(), eventAverageMark);
     }
 
     @Transactional(readOnly = true)
     @Override
     public AuthorAverageMark getAuthorAverageMark(Long authorId) {
-        Optional<Double> authorAverageMarkInOptional = reviewStorage.getAuthorAverageMark(authorId, LIMIT_OF_SUM_LIKES_DISLIKES);
-        Double authorAverageMark = authorAverageMarkInOptional.map(aDouble -> Math.floor(aDouble * 10) / 10).orElse(null);
-        return new AuthorAverageMark(authorId, authorAverageMark);
+        return toAuthorAverageMark(reviewStatsService.getAuthorStats(authorId));
+    }
+
+    private AuthorAverageMark toAuthorAverageMark(AuthorReviewStats stats) {
+        Double authorAverageMark = stats.getTrustedCount() == 0 ? null
+                : Math.floor((double) stats.getTrustedMarkSum() / stats.getTrustedCount() * 10) / 10;
+        return new AuthorAverageMark(stats.getAuthorId(), authorAverageMark);
     }
 
     @Transactional(readOnly = true)
     @Override
     public EventIndicators getEventIndicators(Long eventId) {
-        Optional<Integer> numberOfNegativeReviewsInOptional = reviewStorage.getNumberOfNegativeReviews(eventId,
-                MARK_LIMITATION_NEGATIVE_REVIEWS);
-        Integer numberOfNegativeReviews = numberOfNegativeReviewsInOptional.orElse(null);
-        Optional<Integer> numberOfPositiveReviewsInOptional = reviewStorage.getNumberOfPositiveReviews(eventId,
-                MARK_LIMITATION_POSITIVE_REVIEWS);
-        Integer numberOfPositiveReviews = numberOfPositiveReviewsInOptional.orElse(null);
+        return toEventIndicators(reviewStatsService.getEventStats(eventId));
+    }
+
+    static EventIndicators toEventIndicators(EventReviewStats stats) {
+        Long eventId = stats.getEventId();
+        Integer numberOfNegativeReviews = stats.getNegativeCount() == 0 ? null : (int) stats.getNegativeCount();
+        Integer numberOfPositiveReviews = stats.getPositiveCount() == 0 ? null : (int) stats.getPositiveCount();
         if (numberOfNegativeReviews == null && numberOfPositiveReviews == null) {
             return new EventIndicators(eventId, null, null, null);
         } else if (numberOfNegativeReviews != null && numberOfPositiveReviews == null) {
@@ -305,19 +393,140 @@ public class ReviewServiceImpl implements ReviewService {
         }
     }
 
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS)
     @Override
     public BestAndWorstReviews getBestAndWorstReviews(Long eventId) {
-        List<ReviewDto> bestReviews = reviewStorage.findBestEvents(eventId, MARK_LIMITATION_POSITIVE_REVIEWS,
-                        LIMIT_OF_REVIEWS_IN_ISSUE)
+        EventTopReviews topReviews = isCacheable()
+                ? eventTopReviewsCache.get(eventId, this::loadTopReviews)
+                : loadTopReviews(eventId);
+        return toBestAndWorstReviews(eventId, topReviews);
+    }
+
+    /**
+     * The caches hold committed data only, so callers that may have written in their own transaction read the
+     * database instead.
+     */
+    private static boolean isCacheable() {
+        return !TransactionSynchronizationManager.isActualTransactionActive()
+                || TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+
+    private EventTopReviews loadTopReviews(Long eventId) {
+        return toTopReviews(findBestReviews(eventId), findWorstReviews(eventId));
+    }
+
+    private EventTopReviews loadTopReviewsInParallel(Long eventId) {
+        CompletableFuture<List<RankedReview>> bestReviews =
+                CompletableFuture.supplyAsync(() -> findBestReviews(eventId), analyticsExecutor);
+        CompletableFuture<List<RankedReview>> worstReviews =
+                CompletableFuture.supplyAsync(() -> findWorstReviews(eventId), analyticsExecutor);
+        try {
+            return toTopReviews(bestReviews.join(), worstReviews.join());
+        } catch (CompletionException e) {
+            bestReviews.cancel(true);
+            worstReviews.cancel(true);
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    private List<RankedReview> findBestReviews(Long eventId) {
+        return reviewStorage.findBestEvents(eventId, MARK_LIMITATION_POSITIVE_REVIEWS, LIMIT_OF_REVIEWS_IN_ISSUE)
                 .stream()
-                .map(reviewMapper::toDtoWithoutAuthor)
+                .map(this::toRankedReview)
                 .toList();
-        List<ReviewDto> worstReviews = reviewStorage.findWorstEvents(eventId, MARK_LIMITATION_NEGATIVE_REVIEWS,
-                        LIMIT_OF_REVIEWS_IN_ISSUE)
+    }
+
+    private List<RankedReview> findWorstReviews(Long eventId) {
+        return reviewStorage.findWorstEvents(eventId, MARK_LIMITATION_NEGATIVE_REVIEWS, LIMIT_OF_REVIEWS_IN_ISSUE)
                 .stream()
-                .map(reviewMapper::toDtoWithoutAuthor)
+                .map(this::toRankedReview)
+                .toList();
+    }
+
+    private RankedReview toRankedReview(Review review) {
+        return new RankedReview(review.getAuthor().getId(), reviewMapper.toDtoWithoutAuthor(review));
+    }
+
+    private static EventTopReviews toTopReviews(List<RankedReview> bestReviews, List<RankedReview> worstReviews) {
+        List<RankedReview> reviews = new ArrayList<>(bestReviews);
+        reviews.addAll(worstReviews);
+        return EventTopReviews.of(LIMIT_OF_REVIEWS_IN_ISSUE, reviews);
+    }
+
+    private static BestAndWorstReviews toBestAndWorstReviews(Long eventId, EventTopReviews topReviews) {
+        return new BestAndWorstReviews(eventId, topReviews.getBestReviews(), topReviews.getWorstReviews());
+    }
+
+    @Transactional(propagation = Propagation.SUPPORTS)
+    @Override
+    public EventSummary getEventSummary(Long eventId) {
+        BestAndWorstReviews bestAndWorstReviews;
+        EventReviewStats stats;
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            // Other connections would not see the caller's uncommitted changes, so stay in its transaction.
+            stats = reviewStatsService.getEventStats(eventId);
+            bestAndWorstReviews = getBestAndWorstReviews(eventId);
+        } else {
+            bestAndWorstReviews = toBestAndWorstReviews(eventId,
+                    eventTopReviewsCache.get(eventId, this::loadTopReviewsInParallel));
+            stats = reviewStatsService.getEventStats(eventId);
+        }
+        log.info("Event summary got: eventId={}", eventId);
+        return new EventSummary(eventId, toEventAverageMark(stats), toEventIndicators(stats), bestAndWorstReviews);
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public List<EventAverageMark> getEventAverageMarks(List<Long> eventIds) {
+        Map<Long, EventReviewStats> stats = reviewStatsService.getEventStats(eventIds);
+        log.info("Event average marks got: count={}", eventIds.size());
+        return eventIds.stream()
+                .map(eventId -> toEventAverageMark(stats.get(eventId)))
                 .toList();
-        return new BestAndWorstReviews(eventId, bestReviews, worstReviews);
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public List<AuthorAverageMark> getAuthorAverageMarks(List<Long> authorIds) {
+        Map<Long, AuthorReviewStats> stats = reviewStatsService.getAuthorStats(authorIds);
+        log.info("Author average marks got: count={}", authorIds.size());
+        return authorIds.stream()
+                .map(authorId -> toAuthorAverageMark(stats.get(authorId)))
+                .toList();
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public List<EventIndicators> getEventIndicators(List<Long> eventIds) {
+        Map<Long, EventReviewStats> stats = reviewStatsService.getEventStats(eventIds);
+        log.info("Event indicators got: count={}", eventIds.size());
+        return eventIds.stream()
+                .map(eventId -> toEventIndicators(stats.get(eventId)))
+                .toList();
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public List<BestAndWorstReviews> getBestAndWorstReviews(List<Long> eventIds) {
+        Map<Long, EventTopReviews> topReviews = isCacheable()
+                ? eventTopReviewsCache.getAll(eventIds, this::loadTopReviews)
+                : loadTopReviews(new HashSet<>(eventIds));
+        log.info("Best and worst reviews got: events={}", eventIds.size());
+        return eventIds.stream()
+                .map(eventId -> toBestAndWorstReviews(eventId, topReviews.get(eventId)))
+                .toList();
+    }
+
+    private Map<Long, EventTopReviews> loadTopReviews(Set<Long> eventIds) {
+        List<Long> reviewIds = reviewStorage.findBestAndWorstIds(eventIds,
+                MARK_LIMITATION_POSITIVE_REVIEWS, MARK_LIMITATION_NEGATIVE_REVIEWS, LIMIT_OF_REVIEWS_IN_ISSUE);
+        Map<Long, List<RankedReview>> reviewsByEvent = reviewIds.isEmpty() ? Map.of()
+                : reviewStorage.findByIdIn(reviewIds).stream()
+                .collect(Collectors.groupingBy(Review::getEventId,
+                        Collectors.mapping(this::toRankedReview, Collectors.toList())));
+        log.debug("Best and worst reviews loaded: events={}, reviews={}", eventIds.size(), reviewIds.size());
+        return eventIds.stream()
+                .collect(Collectors.toMap(Function.identity(), eventId -> EventTopReviews.of(LIMIT_OF_REVIEWS_IN_ISSUE,
+                        reviewsByEvent.getOrDefault(eventId, List.of()))));
     }
 }
@@ -0,0 +1,167 @@
+package ru.practicum.workshop.reviewservice.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.workshop.reviewservice.model.AuthorReviewStats;
+import ru.practicum.workshop.reviewservice.model.EventReviewStats;
+import ru.practicum.workshop.reviewservice.storage.AuthorReviewStatsStorage;
+import ru.practicum.workshop.reviewservice.storage.EventReviewStatsStorage;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import static ru.practicum.workshop.reviewservice.dto.Constants.LIMIT_OF_SUM_LIKES_DISLIKES;
+import static ru.practicum.workshop.reviewservice.dto.Constants.MARK_LIMITATION_NEGATIVE_REVIEWS;
+import static ru.practicum.workshop.reviewservice.dto.Constants.MARK_LIMITATION_POSITIVE_REVIEWS;
+
+/**
+ * Keeps {@code event_review_stats} and {@code author_review_stats} in step with {@code reviews}. Every change
+ * is applied as a delta inside the caller's transaction; a missing row is materialized from {@code reviews}
+ * on first touch, and the read path falls back to the same aggregate for rows that do not exist yet.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional(propagation = Propagation.MANDATORY)
+public class ReviewStatsService {
+    private static final Predicate<ReviewScore> ANY = score -> true;
+
+    private final EventReviewStatsStorage eventReviewStatsStorage;
+    private final AuthorReviewStatsStorage authorReviewStatsStorage;
+
+    public void recordCreated(ReviewScore score) {
+        recordChanged(null, score);
+    }
+
+    /**
+     * Records many new reviews with one delta per event and one per author.
+     */
+    public void recordCreated(Collection<ReviewScore> scores) {
+        Map<Long, List<ReviewScore>> scoresByEvent = scores.stream()
+                .collect(Collectors.groupingBy(ReviewScore::getEventId, TreeMap::new, Collectors.toList()));
+        scoresByEvent.forEach((eventId, eventScores) -> applyEventDelta(eventId, eventScores.size(),
+                count(eventScores, ReviewScore::isPositive), count(eventScores, ReviewScore::isNegative),
+                markSum(eventScores, ANY), count(eventScores, ReviewScore::isTrusted),
+                markSum(eventScores, ReviewScore::isTrusted)));
+        Map<Long, List<ReviewScore>> scoresByAuthor = scores.stream()
+                .filter(score -> score.getAuthorId() != null)
+                .collect(Collectors.groupingBy(ReviewScore::getAuthorId, TreeMap::new, Collectors.toList()));
+        scoresByAuthor.forEach((authorId, authorScores) -> applyAuthorDelta(authorId, authorScores.size(),
+                markSum(authorScores, ANY), count(authorScores, ReviewScore::isTrusted),
+                markSum(authorScores, ReviewScore::isTrusted)));
+    }
+
+    public void recordDeleted(ReviewScore score) {
+        recordChanged(score, null);
+    }
+
+    public void recordChanged(ReviewScore before, ReviewScore after) {
+        ReviewScore current = after != null ? after : before;
+        long reviews = count(after, ANY) - count(before, ANY);
+        long markSum = markSum(after, ANY) - markSum(before, ANY);
+        long trusted = count(after, ReviewScore::isTrusted) - count(before, ReviewScore::isTrusted);
+        long trustedMarkSum = markSum(after, ReviewScore::isTrusted) - markSum(before, ReviewScore::isTrusted);
+        long positive = count(after, ReviewScore::isPositive) - count(before, ReviewScore::isPositive);
+        long negative = count(after, ReviewScore::isNegative) - count(before, ReviewScore::isNegative);
+
+        if (reviews != 0 || markSum != 0 || trusted != 0 || trustedMarkSum != 0 || positive != 0 || negative != 0) {
+            applyEventDelta(current.getEventId(), reviews, positive, negative, markSum, trusted, trustedMarkSum);
+        }
+        if (current.getAuthorId() != null && (reviews != 0 || markSum != 0 || trusted != 0 || trustedMarkSum != 0)) {
+            applyAuthorDelta(current.getAuthorId(), reviews, markSum, trusted, trustedMarkSum);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public EventReviewStats getEventStats(Long eventId) {
+        return eventReviewStatsStorage.findByEventId(eventId)
+                .or(() -> eventReviewStatsStorage.computeFromReviews(eventId, MARK_LIMITATION_POSITIVE_REVIEWS,
+                        MARK_LIMITATION_NEGATIVE_REVIEWS, LIMIT_OF_SUM_LIKES_DISLIKES))
+                .orElseGet(() -> new EventReviewStats(eventId, 0, 0, 0, 0, 0, 0));
+    }
+
+    @Transactional(readOnly = true)
+    public AuthorReviewStats getAuthorStats(Long authorId) {
+        return authorReviewStatsStorage.findByAuthorId(authorId)
+                .or(() -> authorReviewStatsStorage.computeFromReviews(authorId, LIMIT_OF_SUM_LIKES_DISLIKES))
+                .orElseGet(() -> new AuthorReviewStats(authorId, 0, 0, 0, 0));
+    }
+
+    /**
+     * Stats of many events: one query over the stats table and one grouped query over {@code reviews} for the
+     * events that have no stats row yet.
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, EventReviewStats> getEventStats(Collection<Long> eventIds) {
+        Map<Long, EventReviewStats> stats = eventReviewStatsStorage.findByEventIds(eventIds).stream()
+                .collect(Collectors.toMap(EventReviewStats::getEventId, Function.identity()));
+        Set<Long> missingIds = eventIds.stream()
+                .filter(eventId -> !stats.containsKey(eventId))
+                .collect(Collectors.toSet());
+        if (!missingIds.isEmpty()) {
+            eventReviewStatsStorage.computeFromReviews(missingIds, MARK_LIMITATION_POSITIVE_REVIEWS,
+                            MARK_LIMITATION_NEGATIVE_REVIEWS, LIMIT_OF_SUM_LIKES_DISLIKES)
+                    .forEach(computed -> stats.put(computed.getEventId(), computed));
+            missingIds.forEach(eventId -> stats.putIfAbsent(eventId, new EventReviewStats(eventId, 0, 0, 0, 0, 0, 0)));
+        }
+        return stats;
+    }
+
+    @Transactional(readOnly = true)
+    public Map<Long, AuthorReviewStats> getAuthorStats(Collection<Long> authorIds) {
+        Map<Long, AuthorReviewStats> stats = authorReviewStatsStorage.findByAuthorIds(authorIds).stream()
+                .collect(Collectors.toMap(AuthorReviewStats::getAuthorId, Function.identity()));
+        Set<Long> missingIds = authorIds.stream()
+                .filter(authorId -> !stats.containsKey(authorId))
+                .collect(Collectors.toSet());
+        if (!missingIds.isEmpty()) {
+            authorReviewStatsStorage.computeFromReviews(missingIds, LIMIT_OF_SUM_LIKES_DISLIKES)
+                    .forEach(computed -> stats.put(computed.getAuthorId(), computed));
+            missingIds.forEach(authorId -> stats.putIfAbsent(authorId, new AuthorReviewStats(authorId, 0, 0, 0, 0)));
+        }
+        return stats;
+    }
+
+    private void applyEventDelta(Long eventId, long reviews, long positive, long negative, long markSum,
+                                 long trusted, long trustedMarkSum) {
+        if (eventReviewStatsStorage.addDelta(eventId, reviews, positive, negative, markSum, trusted, trustedMarkSum) == 0
+                && eventReviewStatsStorage.insertFromReviews(eventId, MARK_LIMITATION_POSITIVE_REVIEWS,
+                MARK_LIMITATION_NEGATIVE_REVIEWS, LIMIT_OF_SUM_LIKES_DISLIKES) == 0) {
+            eventReviewStatsStorage.addDelta(eventId, reviews, positive, negative, markSum, trusted, trustedMarkSum);
+        }
+        log.debug("Event stats changed: eventId={}, reviews={}, trusted={}", eventId, reviews, trusted);
+    }
+
+    private void applyAuthorDelta(Long authorId, long reviews, long markSum, long trusted, long trustedMarkSum) {
+        if (authorReviewStatsStorage.addDelta(authorId, reviews, markSum, trusted, trustedMarkSum) == 0
+                && authorReviewStatsStorage.insertFromReviews(authorId, LIMIT_OF_SUM_LIKES_DISLIKES) == 0) {
+            authorReviewStatsStorage.addDelta(authorId, reviews, markSum, trusted, trustedMarkSum);
+        }
+        log.debug("Author stats changed: authorId={}, reviews={}, trusted={}", authorId, reviews, trusted);
+    }
+
+    private static long count(ReviewScore score, Predicate<ReviewScore> filter) {
+        return score != null && filter.test(score) ? 1 : 0;
+    }
+
+    private static long markSum(ReviewScore score, Predicate<ReviewScore> filter) {
+        return score != null && filter.test(score) ? score.getMark() : 0;
+    }
+
+    private static long count(List<ReviewScore> scores, Predicate<ReviewScore> filter) {
+        return scores.stream().filter(filter).count();
+    }
+
+    private static long markSum(List<ReviewScore> scores, Predicate<ReviewScore> filter) {
+        return scores.stream().filter(filter).mapToLong(ReviewScore::getMark).sum();
+    }
+}
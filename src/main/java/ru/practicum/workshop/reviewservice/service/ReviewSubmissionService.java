@@ -0,0 +1,390 @@
+package ru.practicum.workshop.reviewservice.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.workshop.reviewservice.enums.SubmissionStatus;
+import ru.practicum.workshop.reviewservice.exception.ConflictException;
+import ru.practicum.workshop.reviewservice.exception.ForbiddenException;
+import ru.practicum.workshop.reviewservice.exception.GatewayTimeoutException;
+import ru.practicum.workshop.reviewservice.exception.ServiceUnavailableException;
+import ru.practicum.workshop.reviewservice.mapper.ReviewMapper;
+import ru.practicum.workshop.reviewservice.model.PendingReview;
+import ru.practicum.workshop.reviewservice.model.Review;
+import ru.practicum.workshop.reviewservice.storage.PendingReviewStorage;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Asynchronous creation of reviews, enabled with {@code review-service.async-submissions.enabled}. A submission
+ * is stored in {@code pending_reviews} and answered at once; a background worker claims up to
+ * {@code batch-size} ready submissions, runs the event and registration checks of all of them on a pool of
+ * {@code workers} threads and writes the accepted reviews and the outcome of every submission in one
+ * transaction. Rejections by the checks are final; timeouts and unavailable services put the submission back
+ * for another attempt after {@code retry-delay} times the attempts made, until {@code max-attempts} is reached.
+ * <p>
+ * Claims are made with a conditional update, so several instances can share the queue; submissions whose worker
+ * stopped before finishing them are released after {@code claim-timeout}. Pollers waiting for a submission are
+ * notified when this instance finishes it and re-read it otherwise.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "review-service.async-submissions.enabled", havingValue = "true")
+public class ReviewSubmissionService {
+    private static final int MAX_ERROR_MESSAGE_LENGTH = 1000;
+
+    private final PendingReviewStorage pendingReviewStorage;
+    private final ReviewCreationChecks reviewCreationChecks;
+    private final ReviewImportWriter reviewImportWriter;
+    private final ReviewMapper reviewMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final Duration pollInterval;
+    private final int maxAttempts;
+    private final Duration retryDelay;
+    private final Duration claimTimeout;
+    private final Duration retention;
+    private final Map<SubmissionStatus, Counter> finished = new HashMap<>();
+    private final Counter retried;
+    private final Map<Long, List<CompletableFuture<PendingReview>>> waiters = new HashMap<>();
+    private final AtomicBoolean drainRequested = new AtomicBoolean();
+    private final ScheduledExecutorService scheduler =
+            Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("review-submission-"));
+    private final ExecutorService checkExecutor;
+
+    public ReviewSubmissionService(PendingReviewStorage pendingReviewStorage,
+                                   ReviewCreationChecks reviewCreationChecks,
+                                   ReviewImportWriter reviewImportWriter,
+                                   ReviewMapper reviewMapper,
+                                   TransactionTemplate transactionTemplate,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${review-service.async-submissions.workers:16}") int workers,
+                                   @Value("${review-service.async-submissions.batch-size:50}") int batchSize,
+                                   @Value("${review-service.async-submissions.poll-interval:1s}") Duration pollInterval,
+                                   @Value("${review-service.async-submissions.max-attempts:5}") int maxAttempts,
+                                   @Value("${review-service.async-submissions.retry-delay:10s}") Duration retryDelay,
+                                   @Value("${review-service.async-submissions.claim-timeout:5m}") Duration claimTimeout,
+                                   @Value("${review-service.async-submissions.retention:7d}") Duration retention) {
+        this.pendingReviewStorage = pendingReviewStorage;
+        this.reviewCreationChecks = reviewCreationChecks;
+        this.reviewImportWriter = reviewImportWriter;
+        this.reviewMapper = reviewMapper;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.pollInterval = pollInterval;
+        this.maxAttempts = maxAttempts;
+        this.retryDelay = retryDelay;
+        this.claimTimeout = claimTimeout;
+        this.retention = retention;
+        for (SubmissionStatus status : SubmissionStatus.values()) {
+            if (status.isFinished()) {
+                finished.put(status, counter(meterRegistry, status.name().toLowerCase()));
+            }
+        }
+        this.retried = counter(meterRegistry, "retried");
+        this.checkExecutor = Executors.newFixedThreadPool(workers,
+                new CustomizableThreadFactory("review-submission-check-"));
+    }
+
+    @PostConstruct
+    void start() {
+        scheduler.scheduleWithFixedDelay(this::drainQuietly, 0, pollInterval.toMillis(), TimeUnit.MILLISECONDS);
+        scheduler.scheduleWithFixedDelay(this::cleanUpQuietly, 0, 1, TimeUnit.MINUTES);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        // The batch in progress is finished, the remaining submissions wait for the next start.
+        scheduler.shutdown();
+        scheduler.awaitTermination(1, TimeUnit.MINUTES);
+        checkExecutor.shutdown();
+        log.info("Review submission worker stopped");
+    }
+
+    public PendingReview submit(PendingReview submission) {
+        PendingReview savedSubmission = pendingReviewStorage.save(submission);
+        log.info("Review submitted: {}", savedSubmission);
+        requestDrain();
+        return savedSubmission;
+    }
+
+    public PendingReview getSubmission(Long submissionId) {
+        return pendingReviewStorage.findById(submissionId).orElseThrow(() -> {
+            log.error("NOT FOUND. Получение заявки на отзыв. Заявка с id {} не найдена.", submissionId);
+            return new EntityNotFoundException(String.format("Review submission with id = %d was not found",
+                    submissionId));
+        });
+    }
+
+    /**
+     * Returns a future completed with the submission once it is finished. The future is completed only if this
+     * instance finishes the submission; cancel it to stop waiting.
+     */
+    public CompletableFuture<PendingReview> awaitFinished(Long submissionId) {
+        CompletableFuture<PendingReview> finishedSubmission = new CompletableFuture<>();
+        synchronized (waiters) {
+            waiters.computeIfAbsent(submissionId, id -> new ArrayList<>()).add(finishedSubmission);
+        }
+        finishedSubmission.whenComplete((submission, e) -> {
+            synchronized (waiters) {
+                List<CompletableFuture<PendingReview>> futures = waiters.get(submissionId);
+                if (futures != null && futures.remove(finishedSubmission) && futures.isEmpty()) {
+                    waiters.remove(submissionId);
+                }
+            }
+        });
+        // Read after registering, so a submission finished in between is not missed.
+        try {
+            PendingReview submission = getSubmission(submissionId);
+            if (submission.getStatus().isFinished()) {
+                finishedSubmission.complete(submission);
+            }
+        } catch (RuntimeException e) {
+            finishedSubmission.cancel(false);
+            throw e;
+        }
+        return finishedSubmission;
+    }
+
+    private void requestDrain() {
+        if (drainRequested.compareAndSet(false, true)) {
+            try {
+                scheduler.execute(this::drainQuietly);
+            } catch (RuntimeException e) {
+                // Stopping: the submission is picked up after the next start.
+                drainRequested.set(false);
+            }
+        }
+    }
+
+    private void drainQuietly() {
+        drainRequested.set(false);
+        try {
+            List<PendingReview> batch;
+            while (!scheduler.isShutdown() && !(batch = claimBatch()).isEmpty()) {
+                process(batch);
+            }
+        } catch (RuntimeException e) {
+            log.error("Ошибка обработки заявок на отзывы, повтор через {}.", pollInterval, e);
+        }
+    }
+
+    private void cleanUpQuietly() {
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            int released = transactionTemplate.execute(status ->
+                    pendingReviewStorage.releaseClaimedBefore(now.minus(claimTimeout)));
+            int deleted = transactionTemplate.execute(status ->
+                    pendingReviewStorage.deleteFinishedBefore(now.minus(retention)));
+            if (released > 0) {
+                log.warn("Заявки на отзывы, не обработанные за {}, возвращены в очередь: {}.", claimTimeout, released);
+            }
+            log.debug("Review submissions cleaned up: released={}, deleted={}", released, deleted);
+        } catch (RuntimeException e) {
+            log.error("Ошибка очистки заявок на отзывы.", e);
+        }
+    }
+
+    private List<PendingReview> claimBatch() {
+        String claim = UUID.randomUUID().toString();
+        return transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<Long> ids = pendingReviewStorage.findReadyIds(now, PageRequest.of(0, batchSize));
+            if (ids.isEmpty() || pendingReviewStorage.claim(ids, claim, now) == 0) {
+                return List.of();
+            }
+            return pendingReviewStorage.findByClaimOrderById(claim);
+        });
+    }
+
+    private void process(List<PendingReview> batch) {
+        List<Future<Outcome>> checks = new ArrayList<>(batch.size());
+        for (PendingReview submission : batch) {
+            checks.add(checkExecutor.submit(() -> check(submission)));
+        }
+        List<Outcome> outcomes = new ArrayList<>(batch.size());
+        for (Future<Outcome> check : checks) {
+            outcomes.add(await(check));
+        }
+        String claim = batch.get(0).getClaim();
+        try {
+            notifyFinished(finish(claim, outcomes));
+        } catch (RuntimeException e) {
+            log.error("Пакет из {} заявок на отзывы не записан, заявки записываются по одной.", outcomes.size(), e);
+            for (Outcome outcome : outcomes) {
+                finishAlone(claim, outcome);
+            }
+        }
+    }
+
+    private void finishAlone(String claim, Outcome outcome) {
+        try {
+            notifyFinished(finish(claim, List.of(outcome)));
+        } catch (RuntimeException e) {
+            log.error("Заявка на отзыв с id {} не записана.", outcome.submission.getId(), e);
+            notifyFinished(finish(claim, List.of(Outcome.retryable(outcome.submission, 500, e))));
+        }
+    }
+
+    private Outcome check(PendingReview submission) {
+        try {
+            reviewCreationChecks.check(reviewMapper.toEntity(submission), submission.getAttendanceToken());
+            return Outcome.accepted(submission);
+        } catch (ForbiddenException e) {
+            return Outcome.rejected(submission, 403, e);
+        } catch (ConflictException e) {
+            return Outcome.rejected(submission, 409, e);
+        } catch (GatewayTimeoutException e) {
+            return Outcome.retryable(submission, 504, e);
+        } catch (ServiceUnavailableException e) {
+            return Outcome.retryable(submission, 503, e);
+        } catch (RuntimeException e) {
+            return Outcome.retryable(submission, 500, e);
+        }
+    }
+
+    private static Outcome await(Future<Outcome> check) {
+        try {
+            return check.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while checking review submissions", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Writes the accepted reviews and the outcomes of the submissions this worker still holds the claim of, and
+     * returns the submissions that are finished now.
+     */
+    private List<PendingReview> finish(String claim, List<Outcome> outcomes) {
+        return transactionTemplate.execute(status -> {
+            Map<Long, PendingReview> held = pendingReviewStorage.lockByClaim(claim).stream()
+                    .collect(Collectors.toMap(PendingReview::getId, Function.identity()));
+            List<Outcome> heldOutcomes = outcomes.stream()
+                    .filter(outcome -> held.containsKey(outcome.submission.getId()))
+                    .toList();
+            Map<Long, Review> reviews = new HashMap<>();
+            for (Outcome outcome : heldOutcomes) {
+                if (outcome.accepted) {
+                    reviews.put(outcome.submission.getId(), reviewMapper.toEntity(outcome.submission));
+                }
+            }
+            if (!reviews.isEmpty()) {
+                reviewImportWriter.write(new ArrayList<>(reviews.values()));
+            }
+            // The writer clears the persistence context, so the submissions are read again to be updated.
+            Map<Long, PendingReview> submissions = pendingReviewStorage.findAllById(held.keySet()).stream()
+                    .collect(Collectors.toMap(PendingReview::getId, Function.identity()));
+            LocalDateTime now = LocalDateTime.now();
+            List<PendingReview> finishedSubmissions = new ArrayList<>();
+            for (Outcome outcome : heldOutcomes) {
+                PendingReview submission = submissions.get(outcome.submission.getId());
+                submission.setClaim(null);
+                submission.setClaimedOn(null);
+                submission.setAttempts(submission.getAttempts() + 1);
+                if (outcome.accepted) {
+                    submission.setStatus(SubmissionStatus.CREATED);
+                    submission.setReviewId(reviews.get(submission.getId()).getId());
+                } else if (outcome.rejected || submission.getAttempts() >= maxAttempts) {
+                    submission.setStatus(outcome.rejected ? SubmissionStatus.REJECTED : SubmissionStatus.FAILED);
+                    submission.setErrorStatus(outcome.errorStatus);
+                    submission.setErrorMessage(outcome.errorMessage);
+                } else {
+                    submission.setStatus(SubmissionStatus.PENDING);
+                    submission.setErrorStatus(outcome.errorStatus);
+                    submission.setErrorMessage(outcome.errorMessage);
+                    submission.setNotBefore(now.plus(retryDelay.multipliedBy(submission.getAttempts())));
+                    retried.increment();
+                    continue;
+                }
+                submission.setFinishedOn(now);
+                finishedSubmissions.add(submission);
+            }
+            log.debug("Review submissions processed: claim={}, submissions={}, finished={}", claim,
+                    heldOutcomes.size(), finishedSubmissions.size());
+            return finishedSubmissions;
+        });
+    }
+
+    private void notifyFinished(List<PendingReview> finishedSubmissions) {
+        for (PendingReview submission : finishedSubmissions) {
+            finished.get(submission.getStatus()).increment();
+            List<CompletableFuture<PendingReview>> futures;
+            synchronized (waiters) {
+                futures = waiters.remove(submission.getId());
+            }
+            if (futures != null) {
+                futures.forEach(future -> future.complete(submission));
+            }
+        }
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("review-service.submissions")
+                .description("Processed asynchronous review submissions")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private static final class Outcome {
+        private final PendingReview submission;
+        private final boolean accepted;
+        private final boolean rejected;
+        private final Integer errorStatus;
+        private final String errorMessage;
+
+        private Outcome(PendingReview submission, boolean accepted, boolean rejected, Integer errorStatus,
+                        String errorMessage) {
+            this.submission = submission;
+            this.accepted = accepted;
+            this.rejected = rejected;
+            this.errorStatus = errorStatus;
+            this.errorMessage = errorMessage;
+        }
+
+        private static Outcome accepted(PendingReview submission) {
+            return new Outcome(submission, true, false, null, null);
+        }
+
+        private static Outcome rejected(PendingReview submission, int errorStatus, RuntimeException e) {
+            return new Outcome(submission, false, true, errorStatus, messageOf(e));
+        }
+
+        private static Outcome retryable(PendingReview submission, int errorStatus, RuntimeException e) {
+            return new Outcome(submission, false, false, errorStatus, messageOf(e));
+        }
+
+        private static String messageOf(RuntimeException e) {
+            String message = String.valueOf(e.getMessage());
+            return message.length() > MAX_ERROR_MESSAGE_LENGTH ? message.substring(0, MAX_ERROR_MESSAGE_LENGTH)
+                    : message;
+        }
+    }
+}
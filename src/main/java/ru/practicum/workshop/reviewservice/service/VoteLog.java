@@ -0,0 +1,199 @@
+package ru.practicum.workshop.reviewservice.service;
+
+import lombok.extern.slf4j.Slf4j;
+import ru.practicum.workshop.reviewservice.enums.Label;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Append-only log of accepted opinion changes, split into numbered segments. Appends are made durable by
+ * group commit: the first caller that needs an fsync forces everything written so far, and callers whose
+ * records were covered by that fsync return without forcing again.
+ */
+@Slf4j
+public class VoteLog implements Closeable {
+    private static final String SEGMENT_PREFIX = "votes-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String FIELD_SEPARATOR = " ";
+
+    private final Path directory;
+    private final List<Path> recoveredSegments;
+    private final Object appendLock = new Object();
+    private final Object syncLock = new Object();
+    private long segmentNumber;
+    private Path segment;
+    private FileChannel channel;
+    private long written;
+    private volatile long durable;
+
+    public VoteLog(Path directory) {
+        this.directory = directory;
+        try {
+            Files.createDirectories(directory);
+            recoveredSegments = listSegments();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        segmentNumber = recoveredSegments.isEmpty() ? 0 : segmentNumber(recoveredSegments.get(recoveredSegments.size() - 1));
+        openNextSegment();
+    }
+
+    /**
+     * Segments left over by a previous run, oldest first. They are not written to by this instance.
+     */
+    public List<Path> getRecoveredSegments() {
+        return recoveredSegments;
+    }
+
+    /**
+     * Appends the change and returns the log position to pass to {@link #awaitDurable(long)}.
+     */
+    public long append(OpinionChange change) {
+        byte[] record = (change.getReviewId() + FIELD_SEPARATOR + change.getEvaluatorId() + FIELD_SEPARATOR
+                + change.getLabel() + FIELD_SEPARATOR + change.getChange() + "\n").getBytes(StandardCharsets.UTF_8);
+        synchronized (appendLock) {
+            try {
+                ByteBuffer buffer = ByteBuffer.wrap(record);
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            written += record.length;
+            return written;
+        }
+    }
+
+    public void awaitDurable(long position) {
+        if (durable >= position) {
+            return;
+        }
+        synchronized (syncLock) {
+            if (durable >= position) {
+                return;
+            }
+            long target;
+            FileChannel current;
+            synchronized (appendLock) {
+                target = written;
+                current = channel;
+            }
+            try {
+                current.force(false);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            durable = target;
+        }
+    }
+
+    /**
+     * Makes the current segment durable, closes it and starts a new one. Returns the closed segment.
+     */
+    public Path rotate() {
+        synchronized (syncLock) {
+            synchronized (appendLock) {
+                Path closedSegment = segment;
+                closeSegment();
+                openNextSegment();
+                return closedSegment;
+            }
+        }
+    }
+
+    public void delete(Path segmentToDelete) {
+        try {
+            Files.deleteIfExists(segmentToDelete);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() {
+        synchronized (syncLock) {
+            synchronized (appendLock) {
+                Path lastSegment = segment;
+                boolean empty = closeSegment();
+                if (empty) {
+                    delete(lastSegment);
+                }
+            }
+        }
+    }
+
+    public static List<OpinionChange> read(Path segment) {
+        String content;
+        try {
+            content = Files.readString(segment, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        List<OpinionChange> changes = new ArrayList<>();
+        int lineStart = 0;
+        int lineEnd;
+        while ((lineEnd = content.indexOf('\n', lineStart)) >= 0) {
+            String[] fields = content.substring(lineStart, lineEnd).split(FIELD_SEPARATOR);
+            lineStart = lineEnd + 1;
+            try {
+                changes.add(new OpinionChange(Long.valueOf(fields[0]), Long.valueOf(fields[1]),
+                        Label.valueOf(fields[2]), Long.parseLong(fields[3])));
+            } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+                log.error("Повреждённая запись журнала оценок {} пропущена: {}", segment, String.join(" ", fields));
+            }
+        }
+        if (lineStart < content.length()) {
+            // A crash in the middle of an append leaves an unterminated record that was never acknowledged.
+            log.warn("Незавершённая запись в конце журнала оценок {} пропущена.", segment);
+        }
+        return changes;
+    }
+
+    private List<Path> listSegments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().startsWith(SEGMENT_PREFIX)
+                            && file.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                    .sorted((first, second) -> Long.compare(segmentNumber(first), segmentNumber(second)))
+                    .toList();
+        }
+    }
+
+    private static long segmentNumber(Path segment) {
+        String fileName = segment.getFileName().toString();
+        return Long.parseLong(fileName.substring(SEGMENT_PREFIX.length(), fileName.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    private void openNextSegment() {
+        segmentNumber++;
+        segment = directory.resolve(SEGMENT_PREFIX + segmentNumber + SEGMENT_SUFFIX);
+        try {
+            channel = FileChannel.open(segment, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private boolean closeSegment() {
+        try {
+            boolean empty = channel.size() == 0;
+            channel.force(false);
+            channel.close();
+            durable = written;
+            return empty;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
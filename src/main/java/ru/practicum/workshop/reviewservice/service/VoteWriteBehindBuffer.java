@@ -0,0 +1,280 @@
+package ru.practicum.workshop.reviewservice.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import ru.practicum.workshop.reviewservice.enums.Label;
+import ru.practicum.workshop.reviewservice.model.OpinionKey;
+import ru.practicum.workshop.reviewservice.storage.OpinionStorage;
+import ru.practicum.workshop.reviewservice.storage.ReviewStorage;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Write-behind mode for likes and dislikes, enabled with {@code review-service.votes.write-behind.enabled}.
+ * A vote is resolved against the evaluator's latest opinion (pending, being flushed or stored), appended
+ * to the {@link VoteLog} and kept in a stripe of in-memory changes; the caller returns once the log record
+ * is durable. A background task moves all stripes to the database in one transaction every few milliseconds,
+ * and segments that did not reach the database are replayed on the next start.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "review-service.votes.write-behind.enabled", havingValue = "true")
+public class VoteWriteBehindBuffer {
+    private final ReviewStorage reviewStorage;
+    private final OpinionStorage opinionStorage;
+    private final OpinionChangeWriter opinionChangeWriter;
+    private final VoteLog voteLog;
+    private final Stripe[] stripes;
+    private final long flushIntervalMillis;
+    private final Map<Long, Optional<Long>> reviewAuthors = new ConcurrentHashMap<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final List<Path> unflushedSegments = new ArrayList<>();
+    private final ScheduledExecutorService flushScheduler =
+            Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("vote-flush-"));
+    private boolean closed;
+
+    public VoteWriteBehindBuffer(ReviewStorage reviewStorage,
+                                 OpinionStorage opinionStorage,
+                                 OpinionChangeWriter opinionChangeWriter,
+                                 @Value("${review-service.votes.write-behind.stripes:16}") int stripeCount,
+                                 @Value("${review-service.votes.write-behind.flush-interval-ms:5}") long flushIntervalMillis,
+                                 @Value("${review-service.votes.write-behind.log-dir:vote-log}") Path logDirectory) {
+        this.reviewStorage = reviewStorage;
+        this.opinionStorage = opinionStorage;
+        this.opinionChangeWriter = opinionChangeWriter;
+        this.flushIntervalMillis = flushIntervalMillis;
+        this.voteLog = new VoteLog(logDirectory);
+        this.stripes = new Stripe[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    @PostConstruct
+    void start() {
+        for (Path segment : voteLog.getRecoveredSegments()) {
+            List<OpinionChange> changes = VoteLog.read(segment);
+            opinionChangeWriter.apply(changes);
+            voteLog.delete(segment);
+            log.info("Vote log segment replayed: segment={}, changes={}", segment, changes.size());
+        }
+        flushScheduler.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMillis, flushIntervalMillis,
+                TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        lockAll();
+        try {
+            closed = true;
+        } finally {
+            unlockAll();
+        }
+        flushScheduler.shutdown();
+        flushScheduler.awaitTermination(1, TimeUnit.MINUTES);
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.error("Накопленные оценки не записаны при остановке, они будут восстановлены из журнала.", e);
+        }
+        voteLog.close();
+        log.info("Vote write-behind buffer drained");
+    }
+
+    public void addOpinion(Long reviewId, Long evaluatorId, Label label) {
+        awaitDurable(submitAddition(reviewId, evaluatorId, label));
+    }
+
+    public void removeOpinion(Long reviewId, Long evaluatorId, Label label) {
+        awaitDurable(submitRemoval(reviewId, evaluatorId, label));
+    }
+
+    /**
+     * Accepts the vote without waiting for its log record to become durable; the returned position is
+     * passed to {@link #awaitDurable(long)} before the vote is acknowledged.
+     */
+    public long submitAddition(Long reviewId, Long evaluatorId, Label label) {
+        Stripe stripe = stripeOf(reviewId);
+        Long authorId = findAuthorId(reviewId);
+        long generation = stripe.generation;
+        Optional<Label> storedLabel = opinionStorage.findLabel(reviewId, evaluatorId);
+        stripe.lock.lock();
+        try {
+            OpinionChange change = OpinionChange.addition(reviewId, evaluatorId, label, authorId,
+                    () -> stripe.currentLabel(reviewId, evaluatorId, generation, storedLabel, opinionStorage));
+            return record(stripe, change);
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    public long submitRemoval(Long reviewId, Long evaluatorId, Label label) {
+        Stripe stripe = stripeOf(reviewId);
+        long generation = stripe.generation;
+        Optional<Label> storedLabel = opinionStorage.findLabel(reviewId, evaluatorId);
+        stripe.lock.lock();
+        try {
+            OpinionChange change = OpinionChange.removal(reviewId, evaluatorId, label,
+                    stripe.currentLabel(reviewId, evaluatorId, generation, storedLabel, opinionStorage));
+            return record(stripe, change);
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    public void awaitDurable(long position) {
+        voteLog.awaitDurable(position);
+    }
+
+    /**
+     * Writes every accepted change to the database. On failure the changes are put back in front of the
+     * ones accepted meanwhile and their log segments are kept until a later flush succeeds.
+     */
+    public void flush() {
+        flushLock.lock();
+        try {
+            List<OpinionChange> batch = new ArrayList<>();
+            lockAll();
+            try {
+                for (Stripe stripe : stripes) {
+                    batch.addAll(stripe.changes);
+                }
+                if (batch.isEmpty()) {
+                    return;
+                }
+                unflushedSegments.add(voteLog.rotate());
+                for (Stripe stripe : stripes) {
+                    stripe.startFlush();
+                }
+                reviewAuthors.clear();
+            } finally {
+                unlockAll();
+            }
+            boolean flushed = false;
+            try {
+                opinionChangeWriter.apply(batch);
+                flushed = true;
+            } finally {
+                lockAll();
+                try {
+                    for (Stripe stripe : stripes) {
+                        stripe.finishFlush(flushed);
+                    }
+                } finally {
+                    unlockAll();
+                }
+            }
+            unflushedSegments.forEach(voteLog::delete);
+            unflushedSegments.clear();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.error("Ошибка записи накопленных оценок, повтор через {} мс.", flushIntervalMillis, e);
+        }
+    }
+
+    private long record(Stripe stripe, OpinionChange change) {
+        if (closed) {
+            throw new IllegalStateException("Vote buffer is closed");
+        }
+        long position = voteLog.append(change);
+        stripe.changes.add(change);
+        stripe.labels.put(new OpinionKey(change.getReviewId(), change.getEvaluatorId()), change.getResultingLabel());
+        return position;
+    }
+
+    private Long findAuthorId(Long reviewId) {
+        Optional<Long> authorId = reviewAuthors.get(reviewId);
+        if (authorId == null) {
+            authorId = Optional.ofNullable(reviewStorage.findVoteState(reviewId).orElseThrow(() -> {
+                log.error("NOT FOUND. Получение отзыва по id. Отзыв с id {} не найден.", reviewId);
+                return new EntityNotFoundException(String.format("Review with id = %d was not found", reviewId));
+            }).getAuthorId());
+            reviewAuthors.put(reviewId, authorId);
+        }
+        return authorId.orElse(null);
+    }
+
+    private Stripe stripeOf(Long reviewId) {
+        return stripes[Math.floorMod(reviewId.hashCode(), stripes.length)];
+    }
+
+    private void lockAll() {
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+        }
+    }
+
+    private void unlockAll() {
+        for (Stripe stripe : stripes) {
+            stripe.lock.unlock();
+        }
+    }
+
+    private static final class Stripe {
+        private final ReentrantLock lock = new ReentrantLock();
+        private List<OpinionChange> changes = new ArrayList<>();
+        private Map<OpinionKey, Optional<Label>> labels = new HashMap<>();
+        private List<OpinionChange> flushingChanges = List.of();
+        private Map<OpinionKey, Optional<Label>> flushingLabels = Map.of();
+        // Bumped whenever flushed labels stop being visible here, so a label read from the database before
+        // taking the lock is only trusted if no flush has completed in between.
+        private volatile long generation;
+
+        private Optional<Label> currentLabel(Long reviewId, Long evaluatorId, long readGeneration,
+                                             Optional<Label> storedLabel, OpinionStorage opinionStorage) {
+            OpinionKey key = new OpinionKey(reviewId, evaluatorId);
+            Optional<Label> label = labels.get(key);
+            if (label == null) {
+                label = flushingLabels.get(key);
+            }
+            if (label == null) {
+                label = generation == readGeneration ? storedLabel : opinionStorage.findLabel(reviewId, evaluatorId);
+            }
+            return label;
+        }
+
+        private void startFlush() {
+            flushingChanges = changes;
+            flushingLabels = labels;
+            changes = new ArrayList<>();
+            labels = new HashMap<>();
+        }
+
+        private void finishFlush(boolean flushed) {
+            if (!flushed) {
+                List<OpinionChange> requeuedChanges = new ArrayList<>(flushingChanges);
+                requeuedChanges.addAll(changes);
+                Map<OpinionKey, Optional<Label>> requeuedLabels = new HashMap<>(flushingLabels);
+                requeuedLabels.putAll(labels);
+                changes = requeuedChanges;
+                labels = requeuedLabels;
+            }
+            flushingChanges = List.of();
+            flushingLabels = Map.of();
+            generation++;
+        }
+    }
+}
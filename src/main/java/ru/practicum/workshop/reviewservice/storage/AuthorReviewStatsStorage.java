@@ -0,0 +1,80 @@
+package ru.practicum.workshop.reviewservice.storage;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import ru.practicum.workshop.reviewservice.model.AuthorReviewStats;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface AuthorReviewStatsStorage extends JpaRepository<AuthorReviewStats, Long> {
+
+    @Query("SELECT new ru.practicum.workshop.reviewservice.model.AuthorReviewStats(s.authorId, s.reviewsCount, " +
+            "s.markSum, s.trustedCount, s.trustedMarkSum) " +
+            "FROM AuthorReviewStats AS s " +
+            "WHERE s.authorId = :authorId")
+    Optional<AuthorReviewStats> findByAuthorId(@Param("authorId") Long authorId);
+
+    @Query("SELECT new ru.practicum.workshop.reviewservice.model.AuthorReviewStats(s.authorId, s.reviewsCount, " +
+            "s.markSum, s.trustedCount, s.trustedMarkSum) " +
+            "FROM AuthorReviewStats AS s " +
+            "WHERE s.authorId IN (:authorIds)")
+    List<AuthorReviewStats> findByAuthorIds(@Param("authorIds") Collection<Long> authorIds);
+
+    @Modifying
+    @Query(value = "UPDATE author_review_stats " +
+            "SET reviews_count = reviews_count + :reviews, " +
+            "mark_sum = mark_sum + :markSum, " +
+            "trusted_count = trusted_count + :trusted, " +
+            "trusted_mark_sum = trusted_mark_sum + :trustedMarkSum " +
+            "WHERE author_id = :authorId", nativeQuery = true)
+    int addDelta(@Param("authorId") Long authorId,
+                 @Param("reviews") long reviews,
+                 @Param("markSum") long markSum,
+                 @Param("trusted") long trusted,
+                 @Param("trustedMarkSum") long trustedMarkSum);
+
+    @Modifying(flushAutomatically = true)
+    @Query(value = "INSERT INTO author_review_stats (author_id, reviews_count, mark_sum, trusted_count, " +
+            "trusted_mark_sum) " +
+            "SELECT r.author_id, " +
+            "COUNT(*), " +
+            "SUM(r.mark), " +
+            "SUM(CASE WHEN r.likes + r.dislikes <= :sumLimitation OR r.dislikes < r.likes THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN r.likes + r.dislikes <= :sumLimitation OR r.dislikes < r.likes THEN r.mark ELSE 0 END) " +
+            "FROM reviews AS r " +
+            "WHERE r.author_id = :authorId " +
+            "GROUP BY r.author_id " +
+            "ON CONFLICT DO NOTHING", nativeQuery = true)
+    int insertFromReviews(@Param("authorId") Long authorId,
+                          @Param("sumLimitation") Integer sumLimitation);
+
+    @Query("SELECT new ru.practicum.workshop.reviewservice.model.AuthorReviewStats(r.author.id, " +
+            "COUNT(r), " +
+            "SUM(CAST(r.mark AS Long)), " +
+            "SUM(CASE WHEN r.likes + r.dislikes <= :sumLimitation OR r.dislikes < r.likes THEN 1L ELSE 0L END), " +
+            "SUM(CASE WHEN r.likes + r.dislikes <= :sumLimitation OR r.dislikes < r.likes " +
+            "THEN CAST(r.mark AS Long) ELSE 0L END)) " +
+            "FROM Review AS r " +
+            "WHERE r.author.id = :authorId " +
+            "GROUP BY r.author.id")
+    Optional<AuthorReviewStats> computeFromReviews(@Param("authorId") Long authorId,
+                                                   @Param("sumLimitation") Integer sumLimitation);
+
+    @Query("SELECT new ru.practicum.workshop.reviewservice.model.AuthorReviewStats(r.author.id, " +
+            "COUNT(r), " +
+            "SUM(CAST(r.mark AS Long)), " +
+            "SUM(CASE WHEN r.likes + r.dislikes <= :sumLimitation OR r.dislikes < r.likes THEN 1L ELSE 0L END), " +
+            "SUM(CASE WHEN r.likes + r.dislikes <= :sumLimitation OR r.dislikes < r.likes " +
+            "THEN CAST(r.mark AS Long) ELSE 0L END)) " +
+            "FROM Review AS r " +
+            "WHERE r.author.id IN (:authorIds) " +
+            "GROUP BY r.author.id")
+    List<AuthorReviewStats> computeFromReviews(@Param("authorIds") Collection<Long> authorIds,
+                                               @Param("sumLimitation") Integer sumLimitation);
+}
@@ -0,0 +1,96 @@
+package ru.practicum.workshop.reviewservice.storage;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import ru.practicum.workshop.reviewservice.model.EventReviewStats;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface EventReviewStatsStorage extends JpaRepository<EventReviewStats, Long> {
+
+    @Query("SELECT new ru.practicum.workshop.reviewservice.model.EventReviewStats(s.eventId, s.reviewsCount, " +
+            "s.positiveCount, s.negativeCount, s.markSum, s.trustedCount, s.trustedMarkSum) " +
+            "FROM EventReviewStats AS s " +
+            "WHERE s.eventId = :eventId")
+    Optional<EventReviewStats> findByEventId(@Param("eventId") Long eventId);
+
+    @Query("SELECT new ru.practicum.workshop.reviewservice.model.EventReviewStats(s.eventId, s.reviewsCount, " +
+            "s.positiveCount, s.negativeCount, s.markSum, s.trustedCount, s.trustedMarkSum) " +
+            "FROM EventReviewStats AS s " +
+            "WHERE s.eventId IN (:eventIds)")
+    List<EventReviewStats> findByEventIds(@Param("eventIds") Collection<Long> eventIds);
+
+    @Modifying
+    @Query(value = "UPDATE event_review_stats " +
+            "SET reviews_count = reviews_count + :reviews, " +
+            "positive_count = positive_count + :positive, " +
+            "negative_count = negative_count + :negative, " +
+            "mark_sum = mark_sum + :markSum, " +
+            "trusted_count = trusted_count + :trusted, " +
+            "trusted_mark_sum = trusted_mark_sum + :trustedMarkSum " +
+            "WHERE event_id = :eventId", nativeQuery = true)
+    int addDelta(@Param("eventId") Long eventId,
+                 @Param("reviews") long reviews,
+                 @Param("positive") long positive,
+                 @Param("negative") long negative,
+                 @Param("markSum") long markSum,
+                 @Param("trusted") long trusted,
+                 @Param("trustedMarkSum") long trustedMarkSum);
+
+    @Modifying(flushAutomatically = true)
+    @Query(value = "INSERT INTO event_review_stats (event_id, reviews_count, positive_count, negative_count, " +
+            "mark_sum, trusted_count, trusted_mark_sum) " +
+            "SELECT r.event_id, " +
+            "COUNT(*), " +
+            "SUM(CASE WHEN r.mark > :positiveLimitation THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN r.mark < :negativeLimitation THEN 1 ELSE 0 END), " +
+            "SUM(r.mark), " +
+            "SUM(CASE WHEN r.likes + r.dislikes <= :sumLimitation OR r.dislikes < r.likes THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN r.likes + r.dislikes <= :sumLimitation OR r.dislikes < r.likes THEN r.mark ELSE 0 END) " +
+            "FROM reviews AS r " +
+            "WHERE r.event_id = :eventId " +
+            "GROUP BY r.event_id " +
+            "ON CONFLICT DO NOTHING", nativeQuery = true)
+    int insertFromReviews(@Param("eventId") Long eventId,
+                          @Param("positiveLimitation") Integer positiveLimitation,
+                          @Param("negativeLimitation") Integer negativeLimitation,
+                          @Param("sumLimitation") Integer sumLimitation);
+
+    @Query("SELECT new ru.practicum.workshop.reviewservice.model.EventReviewStats(r.eventId, " +
+            "COUNT(r), " +
+            "SUM(CASE WHEN r.mark > :positiveLimitation THEN 1L ELSE 0L END), " +
+            "SUM(CASE WHEN r.mark < :negativeLimitation THEN 1L ELSE 0L END), " +
+            "SUM(CAST(r.mark AS Long)), " +
+            "SUM(CASE WHEN r.likes + r.dislikes <= :sumLimitation OR r.dislikes < r.likes THEN 1L ELSE 0L END), " +
+            "SUM(CASE WHEN r.likes + r.dislikes <= :sumLimitation OR r.dislikes < r.likes " +
+            "THEN CAST(r.mark AS Long) ELSE 0L END)) " +
+            "FROM Review AS r " +
+            "WHERE r.eventId = :eventId " +
+            "GROUP BY r.eventId")
+    Optional<EventReviewStats> computeFromReviews(@Param("eventId") Long eventId,
+                                                  @Param("positiveLimitation") Integer positiveLimitation,
+                                                  @Param("negativeLimitation") Integer negativeLimitation,
+                                                  @Param("sumLimitation") Integer sumLimitation);
+
+    @Query("SELECT new ru.practicum.workshop.reviewservice.model.EventReviewStats(r.eventId, " +
+            "COUNT(r), " +
+            "SUM(CASE WHEN r.mark > :positiveLimitation THEN 1L ELSE 0L END), " +
+            "SUM(CASE WHEN r.mark < :negativeLimitation THEN 1L ELSE 0L END), " +
+            "SUM(CAST(r.mark AS Long)), " +
+            "SUM(CASE WHEN r.likes + r.dislikes <= :sumLimitation OR r.dislikes < r.likes THEN 1L ELSE 0L END), " +
+            "SUM(CASE WHEN r.likes + r.dislikes <= :sumLimitation OR r.dislikes < r.likes " +
+            "THEN CAST(r.mark AS Long) ELSE 0L END)) " +
+            "FROM Review AS r " +
+            "WHERE r.eventId IN (:eventIds) " +
+            "GROUP BY r.eventId")
+    List<EventReviewStats> computeFromReviews(@Param("eventIds") Collection<Long> eventIds,
+                                              @Param("positiveLimitation") Integer positiveLimitation,
+                                              @Param("negativeLimitation") Integer negativeLimitation,
+                                              @Param("sumLimitation") Integer sumLimitation);
+}
@@ -0,0 +1,104 @@
+package ru.practicum.workshop.reviewservice.storage;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+import ru.practicum.workshop.reviewservice.enums.Label;
+import ru.practicum.workshop.reviewservice.model.OpinionKey;
+import ru.practicum.workshop.reviewservice.model.VoteDelta;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * JDBC access to {@code opinions} for multi-vote writes. {@code Opinion} ids are generated by the database,
+ * which rules out Hibernate insert batching, so these statements go through JDBC batches instead.
+ */
+@Repository
+@RequiredArgsConstructor
+public class OpinionBatchStorage {
+    // Two bind values per key, which keeps a statement at the 1000 values the IN lists used to be capped at.
+    private static final int KEYS_CHUNK_SIZE = 500;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * Looks the keys up in chunks of exact {@code (review_id, evaluator_id)} pairs, so that every statement binds
+     * a bounded number of values and reads no more rows than it has keys.
+     */
+    public Map<OpinionKey, Label> findLabels(Set<OpinionKey> keys) {
+        List<Object[]> pairs = keys.stream()
+                .map(key -> new Object[]{key.getReviewId(), key.getEvaluatorId()})
+                .toList();
+        Map<OpinionKey, Label> labels = new HashMap<>();
+        for (int from = 0; from < pairs.size(); from += KEYS_CHUNK_SIZE) {
+            MapSqlParameterSource parameters = new MapSqlParameterSource("keys",
+                    pairs.subList(from, Math.min(from + KEYS_CHUNK_SIZE, pairs.size())));
+            jdbcTemplate.query("SELECT review_id, evaluator_id, label " +
+                    "FROM opinions " +
+                    "WHERE (review_id, evaluator_id) IN (:keys)", parameters, resultSet -> {
+                        labels.put(new OpinionKey(resultSet.getLong("review_id"), resultSet.getLong("evaluator_id")),
+                                Label.values()[resultSet.getInt("label")]);
+                    });
+        }
+        return labels;
+    }
+
+    /**
+     * Inserts the opinions that do not exist yet and returns the keys that were actually inserted.
+     */
+    public Set<OpinionKey> insertIfAbsent(Map<OpinionKey, Label> opinions) {
+        return update("INSERT INTO opinions (evaluator_id, review_id, label) " +
+                "VALUES (:evaluatorId, :reviewId, :label) " +
+                "ON CONFLICT DO NOTHING", opinions);
+    }
+
+    /**
+     * Deletes the opinions that still carry the given labels and returns the keys that were actually deleted.
+     */
+    public Set<OpinionKey> delete(Map<OpinionKey, Label> opinions) {
+        return update("DELETE FROM opinions " +
+                "WHERE review_id = :reviewId AND evaluator_id = :evaluatorId AND label = :label", opinions);
+    }
+
+    public void addVotes(Collection<VoteDelta> deltas) {
+        SqlParameterSource[] batch = deltas.stream()
+                .map(delta -> new MapSqlParameterSource()
+                        .addValue("id", delta.getReviewId())
+                        .addValue("likes", delta.getLikes())
+                        .addValue("dislikes", delta.getDislikes()))
+                .toArray(SqlParameterSource[]::new);
+        jdbcTemplate.batchUpdate("UPDATE reviews " +
+                "SET likes = likes + :likes, dislikes = dislikes + :dislikes " +
+                "WHERE id = :id", batch);
+    }
+
+    private Set<OpinionKey> update(String sql, Map<OpinionKey, Label> opinions) {
+        List<OpinionKey> keys = new ArrayList<>(opinions.keySet());
+        SqlParameterSource[] batch = keys.stream()
+                .map(key -> toParameters(key, opinions.get(key)))
+                .toArray(SqlParameterSource[]::new);
+        int[] changedRows = jdbcTemplate.batchUpdate(sql, batch);
+        Set<OpinionKey> changedKeys = new HashSet<>();
+        for (int i = 0; i < changedRows.length; i++) {
+            if (changedRows[i] > 0) {
+                changedKeys.add(keys.get(i));
+            }
+        }
+        return changedKeys;
+    }
+
+    private static SqlParameterSource toParameters(OpinionKey key, Label label) {
+        return new MapSqlParameterSource()
+                .addValue("reviewId", key.getReviewId())
+                .addValue("evaluatorId", key.getEvaluatorId())
+                .addValue("label", label.ordinal());
+    }
+}
@@ -1,7 +1,10 @@
 package ru.practicum.workshop.reviewservice.storage;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import ru.practicum.workshop.reviewservice.enums.Label;
 import ru.practicum.workshop.reviewservice.model.Opinion;
 
 import java.util.Optional;
@@ -9,6 +12,9 @@ import java.util.Optional;
 @Repository
 public interface OpinionStorage extends JpaRepository<Opinion, Long> {
 
-    Optional<Opinion> findOneByReview_IdAndEvaluatorId(long reviewId, long evaluatorId);
-
+    @Query("SELECT o.label " +
+            "FROM Opinion AS o " +
+            "WHERE o.review.id = :reviewId AND o.evaluatorId = :evaluatorId")
+    Optional<Label> findLabel(@Param("reviewId") Long reviewId,
+                              @Param("evaluatorId") Long evaluatorId);
 }
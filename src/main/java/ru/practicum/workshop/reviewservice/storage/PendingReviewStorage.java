@@ -0,0 +1,55 @@
+package ru.practicum.workshop.reviewservice.storage;
+
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import ru.practicum.workshop.reviewservice.model.PendingReview;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface PendingReviewStorage extends JpaRepository<PendingReview, Long> {
+
+    @Query("SELECT p.id " +
+            "FROM PendingReview AS p " +
+            "WHERE p.status = ru.practicum.workshop.reviewservice.enums.SubmissionStatus.PENDING " +
+            "AND (p.notBefore IS NULL OR p.notBefore <= :now) " +
+            "ORDER BY p.id")
+    List<Long> findReadyIds(@Param("now") LocalDateTime now, Pageable pageable);
+
+    /**
+     * Takes those of the submissions that are still pending; another worker may have taken the rest meanwhile.
+     */
+    @Modifying
+    @Query(value = "UPDATE pending_reviews " +
+            "SET status = 'PROCESSING', claim = :claim, claimed_on = :now " +
+            "WHERE id IN (:ids) AND status = 'PENDING'", nativeQuery = true)
+    int claim(@Param("ids") Collection<Long> ids, @Param("claim") String claim, @Param("now") LocalDateTime now);
+
+    List<PendingReview> findByClaimOrderById(String claim);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM PendingReview AS p WHERE p.claim = :claim")
+    List<PendingReview> lockByClaim(@Param("claim") String claim);
+
+    /**
+     * Returns submissions whose worker stopped before finishing them to the queue.
+     */
+    @Modifying
+    @Query(value = "UPDATE pending_reviews " +
+            "SET status = 'PENDING', claim = NULL, claimed_on = NULL " +
+            "WHERE status = 'PROCESSING' AND claimed_on < :claimedBefore", nativeQuery = true)
+    int releaseClaimedBefore(@Param("claimedBefore") LocalDateTime claimedBefore);
+
+    @Modifying
+    @Query(value = "DELETE FROM pending_reviews " +
+            "WHERE finished_on < :finishedBefore", nativeQuery = true)
+    int deleteFinishedBefore(@Param("finishedBefore") LocalDateTime finishedBefore);
+}
@@ -1,53 +1,103 @@
 package ru.practicum.workshop.reviewservice.storage;
 
+import jakarta.persistence.QueryHint;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import ru.practicum.workshop.reviewservice.dto.ReviewDto;
 import ru.practicum.workshop.reviewservice.model.Review;
+import ru.practicum.workshop.reviewservice.model.ReviewVoteState;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 @Repository
 public interface ReviewStorage extends JpaRepository<Review, Long> {
-    List<Review> findByEventId(Long eventId, Pageable pageable);
+    String EXPORT_FETCH_SIZE = "500";
 
-    Optional<Review> findByIdAndAuthorId(Long id, Long authorId);
+    @EntityGraph(attributePaths = "author")
+    List<Review> findByEventId(Long eventId, Pageable pageable);
 
-    @Query("SELECT AVG(r.mark) " +
+    @Query("SELECT r " +
             "FROM Review AS r " +
-            "WHERE r.eventId = :eventId AND (r.likes + r.dislikes <= :sumLimitation OR r.dislikes < r.likes) " +
-            "GROUP BY r.eventId")
-    Optional<Double> getEventAverageMark(@Param("eventId") Long eventId,
-                                         @Param("sumLimitation") Integer sumLimitation);
+            "LEFT JOIN FETCH r.author " +
+            "WHERE r.eventId = :eventId AND (r.createdOn, r.id) < (:createdOn, :id) " +
+            "ORDER BY r.createdOn DESC, r.id DESC " +
+            "LIMIT :limit")
+    List<Review> findByEventIdBefore(@Param("eventId") Long eventId,
+                                     @Param("createdOn") LocalDateTime createdOn,
+                                     @Param("id") Long id,
+                                     @Param("limit") Integer limit);
 
-    @Query("SELECT AVG(r.mark) " +
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new ru.practicum.workshop.reviewservice.dto.ReviewDto(r.id, r.eventId, u.username, r.title, " +
+            "r.content, r.createdOn, r.updatedOn, r.mark, r.likes, r.dislikes) " +
             "FROM Review AS r " +
-            "WHERE r.author.id = :authorId AND (r.likes + r.dislikes <= :sumLimitation OR r.dislikes < r.likes) " +
-            "GROUP BY r.author.id")
-    Optional<Double> getAuthorAverageMark(@Param("authorId") Long authorId,
-                                          @Param("sumLimitation") Integer sumLimitation);
+            "LEFT JOIN r.author AS u " +
+            "WHERE r.eventId = :eventId " +
+            "ORDER BY r.createdOn DESC, r.id DESC")
+    Stream<ReviewDto> streamByEventId(@Param("eventId") Long eventId);
 
-    @Query("SELECT COUNT(r.eventId) " +
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new ru.practicum.workshop.reviewservice.dto.ReviewDto(r.id, r.eventId, u.username, r.title, " +
+            "r.content, r.createdOn, r.updatedOn, r.mark, r.likes, r.dislikes) " +
             "FROM Review AS r " +
-            "WHERE r.eventId = :eventId AND r.mark < :markLimitation " +
-            "GROUP BY r.eventId")
-    Optional<Integer> getNumberOfNegativeReviews(@Param("eventId") Long eventId,
-                                                 @Param("markLimitation") Integer markLimitation);
+            "JOIN r.author AS u " +
+            "WHERE u.id = :authorId " +
+            "ORDER BY r.createdOn DESC, r.id DESC")
+    Stream<ReviewDto> streamByAuthorId(@Param("authorId") Long authorId);
 
-    @Query("SELECT COUNT(r.eventId) " +
-            "FROM Review AS r " +
-            "WHERE r.eventId = :eventId AND r.mark > :markLimitation " +
-            "GROUP BY r.eventId")
-    Optional<Integer> getNumberOfPositiveReviews(@Param("eventId") Long eventId,
-                                                 @Param("markLimitation") Integer markLimitation);
+    @EntityGraph(attributePaths = "author")
+    List<Review> findByIdIn(Collection<Long> ids);
+
+    @EntityGraph(attributePaths = "author")
+    Optional<Review> findWithAuthorById(Long id);
+
+    @EntityGraph(attributePaths = "author")
+    Optional<Review> findByIdAndAuthorId(Long id, Long authorId);
+
+    @Query(value = "SELECT r.id AS id, r.author_id AS authorId, r.event_id AS eventId, r.mark AS mark, " +
+            "r.likes AS likes, r.dislikes AS dislikes " +
+            "FROM reviews AS r " +
+            "WHERE r.id = :id " +
+            "FOR UPDATE", nativeQuery = true)
+    Optional<ReviewVoteState> lockVoteState(@Param("id") Long id);
+
+    @Query(value = "SELECT r.id AS id, r.author_id AS authorId, r.event_id AS eventId, r.mark AS mark, " +
+            "r.likes AS likes, r.dislikes AS dislikes " +
+            "FROM reviews AS r " +
+            "WHERE r.id IN (:ids) " +
+            "ORDER BY r.id " +
+            "FOR UPDATE", nativeQuery = true)
+    List<ReviewVoteState> lockVoteStates(@Param("ids") Collection<Long> ids);
+
+    @Query(value = "SELECT r.id AS id, r.author_id AS authorId, r.event_id AS eventId, r.mark AS mark, " +
+            "r.likes AS likes, r.dislikes AS dislikes " +
+            "FROM reviews AS r " +
+            "WHERE r.id = :id", nativeQuery = true)
+    Optional<ReviewVoteState> findVoteState(@Param("id") Long id);
 
     @Query("SELECT r " +
             "FROM Review AS r " +
+            "LEFT JOIN FETCH r.author " +
             "WHERE r.eventId = :eventId AND r.mark < :markLimitation " +
-            "ORDER BY r.mark ASC " +
+            "ORDER BY r.mark ASC, r.likes DESC, r.id " +
             "LIMIT :limit")
     List<Review> findWorstEvents(@Param("eventId") Long eventId,
                                  @Param("markLimitation") Integer markLimitation,
@@ -55,10 +105,27 @@ public interface ReviewStorage extends JpaRepository<Review, Long> {
 
     @Query("SELECT r " +
             "FROM Review AS r " +
+            "LEFT JOIN FETCH r.author " +
             "WHERE r.eventId = :eventId AND r.mark > :markLimitation " +
-            "ORDER BY r.mark DESC " +
+            "ORDER BY r.mark DESC, r.likes DESC, r.id " +
             "LIMIT :limit")
     List<Review> findBestEvents(@Param("eventId") Long eventId,
                                 @Param("markLimitation") Integer markLimitation,
                                 @Param("limit") Integer limit);
+
+    /**
+     * Ids of the best and the worst reviews of every given event, at most {@code limit} of each per event.
+     */
+    @Query(value = "SELECT ranked.id " +
+            "FROM (SELECT r.id AS id, r.mark AS mark, " +
+            "ROW_NUMBER() OVER (PARTITION BY r.event_id ORDER BY r.mark DESC, r.likes DESC, r.id) AS best_rank, " +
+            "ROW_NUMBER() OVER (PARTITION BY r.event_id ORDER BY r.mark ASC, r.likes DESC, r.id) AS worst_rank " +
+            "FROM reviews AS r " +
+            "WHERE r.event_id IN (:eventIds)) AS ranked " +
+            "WHERE (ranked.mark > :positiveLimitation AND ranked.best_rank <= :limit) " +
+            "OR (ranked.mark < :negativeLimitation AND ranked.worst_rank <= :limit)", nativeQuery = true)
+    List<Long> findBestAndWorstIds(@Param("eventIds") Collection<Long> eventIds,
+                                   @Param("positiveLimitation") Integer positiveLimitation,
+                                   @Param("negativeLimitation") Integer negativeLimitation,
+                                   @Param("limit") Integer limit);
 }
@@ -0,0 +1,46 @@
+package ru.practicum.workshop.reviewservice.storage;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+import ru.practicum.workshop.reviewservice.model.User;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+@Repository
+@RequiredArgsConstructor
+public class UserBatchStorage {
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * Inserts missing users and renames existing ones in two JDBC batches. H2 has no
+     * {@code ON CONFLICT DO UPDATE}, so the upsert is split into an insert and an update. Returns the ids of
+     * the users that were renamed.
+     */
+    public Set<Long> upsert(Collection<User> users) {
+        List<User> orderedUsers = List.copyOf(users);
+        SqlParameterSource[] batch = orderedUsers.stream()
+                .map(user -> new MapSqlParameterSource()
+                        .addValue("id", user.getId())
+                        .addValue("username", user.getUsername()))
+                .toArray(SqlParameterSource[]::new);
+        jdbcTemplate.batchUpdate("INSERT INTO users (id, username) " +
+                "VALUES (:id, :username) " +
+                "ON CONFLICT DO NOTHING", batch);
+        int[] renamedRows = jdbcTemplate.batchUpdate("UPDATE users " +
+                "SET username = :username " +
+                "WHERE id = :id AND username <> :username", batch);
+        Set<Long> renamedIds = new HashSet<>();
+        for (int i = 0; i < renamedRows.length; i++) {
+            if (renamedRows[i] > 0) {
+                renamedIds.add(orderedUsers.get(i).getId());
+            }
+        }
+        return renamedIds;
+    }
+}
@@ -0,0 +1 @@
+CREATE INDEX IF NOT EXISTS idx_reviews_event_created_id ON reviews (event_id, created_date DESC, id DESC);
@@ -0,0 +1,21 @@
+CREATE TABLE IF NOT EXISTS event_review_stats (
+    event_id         BIGINT NOT NULL PRIMARY KEY,
+    reviews_count    BIGINT NOT NULL,
+    positive_count   BIGINT NOT NULL,
+    negative_count   BIGINT NOT NULL,
+    mark_sum         BIGINT NOT NULL,
+    trusted_count    BIGINT NOT NULL,
+    trusted_mark_sum BIGINT NOT NULL
+);
+
+INSERT INTO event_review_stats (event_id, reviews_count, positive_count, negative_count, mark_sum,
+                                trusted_count, trusted_mark_sum)
+SELECT event_id,
+       COUNT(*),
+       SUM(CASE WHEN mark > 5 THEN 1 ELSE 0 END),
+       SUM(CASE WHEN mark < 6 THEN 1 ELSE 0 END),
+       SUM(mark),
+       SUM(CASE WHEN likes + dislikes <= 10 OR dislikes < likes THEN 1 ELSE 0 END),
+       SUM(CASE WHEN likes + dislikes <= 10 OR dislikes < likes THEN mark ELSE 0 END)
+FROM reviews
+GROUP BY event_id;
@@ -0,0 +1,19 @@
+CREATE INDEX IF NOT EXISTS idx_reviews_author_id ON reviews (author_id);
+
+CREATE TABLE IF NOT EXISTS author_review_stats (
+    author_id        BIGINT NOT NULL PRIMARY KEY,
+    reviews_count    BIGINT NOT NULL,
+    mark_sum         BIGINT NOT NULL,
+    trusted_count    BIGINT NOT NULL,
+    trusted_mark_sum BIGINT NOT NULL
+);
+
+INSERT INTO author_review_stats (author_id, reviews_count, mark_sum, trusted_count, trusted_mark_sum)
+SELECT author_id,
+       COUNT(*),
+       SUM(mark),
+       SUM(CASE WHEN likes + dislikes <= 10 OR dislikes < likes THEN 1 ELSE 0 END),
+       SUM(CASE WHEN likes + dislikes <= 10 OR dislikes < likes THEN mark ELSE 0 END)
+FROM reviews
+WHERE author_id IS NOT NULL
+GROUP BY author_id;
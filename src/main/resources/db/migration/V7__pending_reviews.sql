@@ -0,0 +1,24 @@
+CREATE TABLE IF NOT EXISTS pending_reviews (
+    id               BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    event_id         BIGINT NOT NULL,
+    author_id        BIGINT NOT NULL,
+    username         VARCHAR(250) NOT NULL,
+    title            VARCHAR(120),
+    content          VARCHAR(10000) NOT NULL,
+    mark             INTEGER NOT NULL,
+    attendance_token VARCHAR(512),
+    status           VARCHAR(16) NOT NULL,
+    attempts         INTEGER NOT NULL,
+    not_before       TIMESTAMP WITHOUT TIME ZONE,
+    claim            VARCHAR(36),
+    claimed_on       TIMESTAMP WITHOUT TIME ZONE,
+    review_id        BIGINT,
+    error_status     INTEGER,
+    error_message    VARCHAR(1000),
+    submitted_on     TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    finished_on      TIMESTAMP WITHOUT TIME ZONE
+);
+
+-- Workers look for submissions to claim by status, and for their own claim once it is taken.
+CREATE INDEX IF NOT EXISTS idx_pending_reviews_status_id ON pending_reviews (status, id);
+CREATE INDEX IF NOT EXISTS idx_pending_reviews_claim ON pending_reviews (claim);
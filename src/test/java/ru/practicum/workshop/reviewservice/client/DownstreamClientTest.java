@@ -0,0 +1,258 @@
+package ru.practicum.workshop.reviewservice.client;
+
+import feign.Client;
+import feign.Request;
+import feign.Response;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.practicum.workshop.reviewservice.exception.ServiceUnavailableException;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class DownstreamClientTest {
+    private static final Request.Options OPTIONS = new Request.Options();
+    private static final Duration OPEN_DURATION = Duration.ofSeconds(10);
+
+    private final AtomicLong nanoTime = new AtomicLong();
+    private MeterRegistry meterRegistry;
+    private DownstreamClient client;
+
+    @BeforeEach
+    void beforeEach() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void afterEach() {
+        client.close();
+    }
+
+    @DisplayName("Вызовы сверх разрешённого числа одновременных отклоняются, не дожидаясь сервиса")
+    @Test
+    void rejectsCallsBeyondBulkhead() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(2);
+        client = client((request, options) -> {
+            started.countDown();
+            await(release);
+            return response(request, 200);
+        }, null);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        Future<Response> first = executor.submit(() -> client.execute(get(), OPTIONS));
+        Future<Response> second = executor.submit(() -> client.execute(get(), OPTIONS));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        assertThrows(ServiceUnavailableException.class, () -> client.execute(get(), OPTIONS));
+
+        release.countDown();
+        assertEquals(200, first.get().status());
+        assertEquals(200, second.get().status());
+        executor.shutdown();
+        assertEquals(200, client.execute(get(), OPTIONS).status());
+        assertEquals(1, requests("REJECTED"));
+        assertEquals(3, requests("200"));
+    }
+
+    @DisplayName("После череды ошибок вызовы отклоняются, а по истечении паузы пробные вызовы снова закрывают цепь")
+    @Test
+    void opensAndClosesCircuit() throws Exception {
+        AtomicInteger status = new AtomicInteger(503);
+        AtomicInteger calls = new AtomicInteger();
+        client = client((request, options) -> {
+            calls.incrementAndGet();
+            return response(request, status.get());
+        }, null);
+        for (int i = 0; i < 4; i++) {
+            client.execute(get(), OPTIONS);
+        }
+
+        assertThrows(ServiceUnavailableException.class, () -> client.execute(get(), OPTIONS));
+        assertEquals(4, calls.get());
+        assertEquals(1, circuitOpen());
+
+        status.set(200);
+        nanoTime.addAndGet(OPEN_DURATION.toNanos());
+        assertEquals(200, client.execute(get(), OPTIONS).status());
+        assertEquals(200, client.execute(get(), OPTIONS).status());
+        assertEquals(0, circuitOpen());
+        assertEquals(200, client.execute(get(), OPTIONS).status());
+    }
+
+    @DisplayName("Неудачный пробный вызов снова размыкает цепь")
+    @Test
+    void failedTrialReopensCircuit() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        client = client((request, options) -> {
+            calls.incrementAndGet();
+            throw new ConnectException("refused");
+        }, null);
+        for (int i = 0; i < 4; i++) {
+            assertThrows(ConnectException.class, () -> client.execute(get(), OPTIONS));
+        }
+        nanoTime.addAndGet(OPEN_DURATION.toNanos());
+
+        assertThrows(ConnectException.class, () -> client.execute(get(), OPTIONS));
+
+        assertThrows(ServiceUnavailableException.class, () -> client.execute(get(), OPTIONS));
+        assertEquals(5, calls.get());
+        assertEquals(5, requests("IO_ERROR"));
+    }
+
+    @DisplayName("Ответы 4xx не считаются сбоями сервиса")
+    @Test
+    void clientErrorsKeepCircuitClosed() throws Exception {
+        client = client((request, options) -> response(request, 404), null);
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals(404, client.execute(get(), OPTIONS).status());
+        }
+
+        assertEquals(0, circuitOpen());
+        assertEquals(10, requests("404"));
+    }
+
+    @DisplayName("Неотвеченный вовремя GET отправляется повторно, побеждает первый ответ, проигравший отменяется")
+    @Test
+    void hedgesSlowGet() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch cancelled = new CountDownLatch(1);
+        client = client((request, options) -> {
+            if (calls.incrementAndGet() == 1) {
+                try {
+                    await(release);
+                } catch (IOException e) {
+                    cancelled.countDown();
+                    throw e;
+                }
+                return response(request, 500);
+            }
+            return response(request, 200);
+        }, Duration.ofMillis(50), Duration.ofSeconds(5));
+
+        assertEquals(200, client.execute(get(), OPTIONS).status());
+
+        assertTrue(cancelled.await(5, TimeUnit.SECONDS));
+        assertEquals(2, calls.get());
+        assertEquals(1, meterRegistry.get("review-service.downstream.hedges").counter().count());
+        assertEquals(200, client.execute(get(), OPTIONS).status());
+        assertEquals(200, client.execute(get(), OPTIONS).status());
+    }
+
+    @DisplayName("Повторный GET не отправляется, если все разрешённые вызовы заняты")
+    @Test
+    void doesNotHedgeBeyondBulkhead() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(2);
+        CountDownLatch release = new CountDownLatch(1);
+        client = client((request, options) -> {
+            calls.incrementAndGet();
+            started.countDown();
+            await(release);
+            return response(request, 200);
+        }, Duration.ofMillis(50));
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        Future<Response> first = executor.submit(() -> client.execute(get(), OPTIONS));
+        Future<Response> second = executor.submit(() -> client.execute(get(), OPTIONS));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        Thread.sleep(150);
+        release.countDown();
+
+        assertEquals(200, first.get().status());
+        assertEquals(200, second.get().status());
+        executor.shutdown();
+        assertEquals(2, calls.get());
+        assertEquals(0, meterRegistry.get("review-service.downstream.hedges").counter().count());
+    }
+
+    @DisplayName("Быстрый GET и запросы с телом повторно не отправляются")
+    @Test
+    void doesNotHedgeFastGetOrPost() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        client = client((request, options) -> {
+            calls.incrementAndGet();
+            if (request.httpMethod() == Request.HttpMethod.POST) {
+                sleep(150);
+            }
+            return response(request, 200);
+        }, Duration.ofMillis(50));
+
+        assertEquals(200, client.execute(get(), OPTIONS).status());
+        assertEquals(200, client.execute(request(Request.HttpMethod.POST), OPTIONS).status());
+
+        assertEquals(2, calls.get());
+        assertEquals(0, meterRegistry.get("review-service.downstream.hedges").counter().count());
+    }
+
+    private DownstreamClient client(Client delegate, Duration hedgeDelay) {
+        return client(delegate, hedgeDelay, Duration.ZERO);
+    }
+
+    private DownstreamClient client(Client delegate, Duration hedgeDelay, Duration maxWait) {
+        CircuitBreaker circuitBreaker = new CircuitBreaker(4, 4, 0.5, OPEN_DURATION, 2, nanoTime::get);
+        return new DownstreamClient("test-client", delegate, 2, maxWait, circuitBreaker, hedgeDelay,
+                meterRegistry);
+    }
+
+    private long requests(String status) {
+        return meterRegistry.get("review-service.downstream.requests").tag("client", "test-client")
+                .tag("status", status).timer().count();
+    }
+
+    private double circuitOpen() {
+        return meterRegistry.get("review-service.downstream.circuit.open").gauge().value();
+    }
+
+    private static Request get() {
+        return request(Request.HttpMethod.GET);
+    }
+
+    private static Request request(Request.HttpMethod method) {
+        return Request.create(method, "http://localhost/events/1", Map.of(), null, StandardCharsets.UTF_8, null);
+    }
+
+    private static Response response(Request request, int status) {
+        return Response.builder()
+                .request(request)
+                .status(status)
+                .headers(Map.of())
+                .body(new byte[0])
+                .build();
+    }
+
+    private static void await(CountDownLatch latch) throws IOException {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            throw new IOException(e);
+        }
+    }
+
+    private static void sleep(long millis) throws IOException {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            throw new IOException(e);
+        }
+    }
+}
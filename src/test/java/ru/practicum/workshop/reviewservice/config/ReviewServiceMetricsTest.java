@@ -0,0 +1,58 @@
+package ru.practicum.workshop.reviewservice.config;
+
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.workshop.reviewservice.service.ReviewService;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false)
+@ActiveProfiles(value = "test")
+public class ReviewServiceMetricsTest {
+    private static final Long MISSING_REVIEW_ID = 7_000_000L;
+    private static final Long EVALUATOR_ID = 7_000_001L;
+
+    @Autowired
+    private MockMvc mvc;
+    @Autowired
+    private ReviewService reviewService;
+
+    @DisplayName("Вызовы сервиса и репозиториев выгружаются в Prometheus с исходом, исключением и меткой")
+    @Test
+    void exportsServiceAndRepositoryTimers() throws Exception {
+        reviewService.getEventAverageMark(7_000_002L);
+        reviewService.getEventIndicators(List.of(7_000_002L));
+        assertThrows(EntityNotFoundException.class, () -> reviewService.getReviewById(MISSING_REVIEW_ID));
+        assertThrows(EntityNotFoundException.class, () -> reviewService.addLike(MISSING_REVIEW_ID, EVALUATOR_ID));
+
+        String body = mvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertTrue(body.contains("review_service_service_calls_seconds_count{exception=\"none\",label=\"none\","
+                + "method=\"getEventAverageMark\",outcome=\"SUCCESS\"}"), body);
+        assertTrue(body.contains("review_service_service_calls_seconds_count{exception=\"none\",label=\"none\","
+                + "method=\"getEventIndicators(List)\",outcome=\"SUCCESS\"}"), body);
+        assertTrue(body.contains("review_service_service_calls_seconds_count{exception=\"EntityNotFoundException\","
+                + "label=\"none\",method=\"getReviewById\",outcome=\"CLIENT_ERROR\"}"), body);
+        assertTrue(body.contains("review_service_service_calls_seconds_count{exception=\"EntityNotFoundException\","
+                + "label=\"LIKE\",method=\"addLike\",outcome=\"CLIENT_ERROR\"}"), body);
+        assertTrue(body.contains("review_service_service_calls_seconds_bucket{exception=\"none\""), body);
+        assertTrue(body.contains("spring_data_repository_invocations_seconds_count{exception=\"None\","
+                + "method=\"findWithAuthorById\",repository=\"ReviewStorage\""), body);
+    }
+}
@@ -0,0 +1,363 @@
+package ru.practicum.workshop.reviewservice.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import ru.practicum.workshop.reviewservice.client.EventClient;
+import ru.practicum.workshop.reviewservice.client.RegistrationClient;
+import ru.practicum.workshop.reviewservice.dto.EventResponse;
+import ru.practicum.workshop.reviewservice.dto.ReviewCreateDto;
+import ru.practicum.workshop.reviewservice.dto.ReviewCursor;
+import ru.practicum.workshop.reviewservice.dto.ReviewUpdateDto;
+import ru.practicum.workshop.reviewservice.dto.opinion.OpinionBatchItem;
+import ru.practicum.workshop.reviewservice.enums.Label;
+import ru.practicum.workshop.reviewservice.enums.OpinionAction;
+import ru.practicum.workshop.reviewservice.model.Review;
+import ru.practicum.workshop.reviewservice.model.User;
+import ru.practicum.workshop.reviewservice.service.EventTopReviewsCache;
+import ru.practicum.workshop.reviewservice.service.ReviewCache;
+import ru.practicum.workshop.reviewservice.storage.AuthorReviewStatsStorage;
+import ru.practicum.workshop.reviewservice.storage.EventReviewStatsStorage;
+import ru.practicum.workshop.reviewservice.storage.OpinionStorage;
+import ru.practicum.workshop.reviewservice.storage.ReviewStorage;
+import ru.practicum.workshop.reviewservice.storage.UserStorage;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Persistence contract of every endpoint: a request may not issue more JDBC statements, read more rows, load
+ * more entities or trigger more lazy fetches than its budget. When a change legitimately needs more, raise
+ * the budget in the same change so the cost is visible in review.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles(value = "test")
+@Import(StatementCounter.Configuration.class)
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+public class ReviewControllerStatementBudgetTest {
+    private static final Long EVENT_ID = 6_000_000L;
+    private static final Long AUTHOR_ID = 6_000_001L;
+    private static final Long OTHER_AUTHOR_ID = 6_000_002L;
+    private static final Long EVALUATOR_ID = 6_000_003L;
+    private static final Long OTHER_EVALUATOR_ID = 6_000_004L;
+    private static final int REVIEWS = 10;
+
+    @Autowired
+    private MockMvc mvc;
+    @Autowired
+    private ObjectMapper mapper;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private ReviewStorage reviewStorage;
+    @Autowired
+    private UserStorage userStorage;
+    @Autowired
+    private OpinionStorage opinionStorage;
+    @Autowired
+    private EventReviewStatsStorage eventReviewStatsStorage;
+    @Autowired
+    private AuthorReviewStatsStorage authorReviewStatsStorage;
+    @Autowired
+    private EventTopReviewsCache eventTopReviewsCache;
+    @Autowired
+    private ReviewCache reviewCache;
+
+    @MockBean
+    private EventClient eventClient;
+    @MockBean
+    private RegistrationClient registrationClient;
+
+    private final List<Review> reviews = new ArrayList<>();
+
+    @BeforeEach
+    void beforeEach() {
+        User author = userStorage.save(new User(AUTHOR_ID, "author"));
+        User otherAuthor = userStorage.save(new User(OTHER_AUTHOR_ID, "other author"));
+        for (int i = 0; i < REVIEWS; i++) {
+            reviews.add(reviewStorage.save(Review.builder()
+                    .author(i % 2 == 0 ? author : otherAuthor)
+                    .eventId(EVENT_ID)
+                    .title("title " + i)
+                    .content("content " + i)
+                    .createdOn(LocalDateTime.now().minusMinutes(i))
+                    .mark(i + 1)
+                    .build()));
+        }
+        when(eventClient.readEventById(any(Long.class), any(Long.class)))
+                .thenReturn(new EventResponse(EVENT_ID, "name", "description", LocalDateTime.now().minusDays(2),
+                        LocalDateTime.now().minusDays(1), "location", AUTHOR_ID, LocalDateTime.now().minusDays(3)));
+        when(registrationClient.getStatusOfRegistration(any(Long.class), any(Long.class)))
+                .thenReturn("APPROVED");
+    }
+
+    @AfterEach
+    void afterEach() {
+        opinionStorage.deleteAll();
+        reviewStorage.deleteAll(reviewStorage.findAll().stream()
+                .filter(review -> review.getEventId().equals(EVENT_ID))
+                .toList());
+        reviews.clear();
+        for (Long userId : List.of(AUTHOR_ID, OTHER_AUTHOR_ID, EVALUATOR_ID, OTHER_EVALUATOR_ID)) {
+            userStorage.findById(userId).ifPresent(userStorage::delete);
+            authorReviewStatsStorage.findById(userId).ifPresent(authorReviewStatsStorage::delete);
+        }
+        eventReviewStatsStorage.findById(EVENT_ID).ifPresent(eventReviewStatsStorage::delete);
+        eventTopReviewsCache.invalidateAll();
+        reviewCache.invalidateAll();
+    }
+
+    private void assertBudget(StatementCounter.Usage budget, RequestBuilder request) throws Exception {
+        String[] endpoint = new String[1];
+        StatementCounter.Usage usage = StatementCounter.getInstance().measure(entityManagerFactory, () -> {
+            MvcResult result = mvc.perform(request).andReturn();
+            endpoint[0] = result.getRequest().getMethod() + " " + result.getRequest().getRequestURI();
+            if (result.getRequest().isAsyncStarted()) {
+                result = mvc.perform(asyncDispatch(result)).andReturn();
+            }
+            int status = result.getResponse().getStatus();
+            assertTrue(status < 300, "Unexpected status " + status + ": " + result.getResponse().getContentAsString());
+        });
+        assertTrue(usage.fitsInto(budget),
+                "Statement budget of " + endpoint[0] + " exceeded: budget=" + budget + ", usage=" + usage);
+    }
+
+    private static StatementCounter.Usage budget(long statements, long rows, long entityLoads, long lazyFetches) {
+        return new StatementCounter.Usage(statements, rows, entityLoads, lazyFetches);
+    }
+
+    private Long reviewId() {
+        return reviews.get(0).getId();
+    }
+
+    @DisplayName("Бюджет запросов: создание отзыва")
+    @Test
+    void createReview() throws Exception {
+        ReviewCreateDto dto = new ReviewCreateDto(AUTHOR_ID, EVENT_ID, "author", "title", "content", 7);
+        assertBudget(budget(6, 1, 1, 0), post("/reviews")
+                .content(mapper.writeValueAsString(dto))
+                .characterEncoding(StandardCharsets.UTF_8)
+                .contentType(MediaType.APPLICATION_JSON));
+    }
+
+    @DisplayName("Бюджет запросов: создание отзыва новым пользователем")
+    @Test
+    void createReviewByNewUser() throws Exception {
+        ReviewCreateDto dto = new ReviewCreateDto(EVALUATOR_ID, EVENT_ID, "newcomer", "title", "content", 7);
+        assertBudget(budget(7, 0, 0, 0), post("/reviews")
+                .content(mapper.writeValueAsString(dto))
+                .characterEncoding(StandardCharsets.UTF_8)
+                .contentType(MediaType.APPLICATION_JSON));
+    }
+
+    @DisplayName("Бюджет запросов: обновление отзыва")
+    @Test
+    void updateReview() throws Exception {
+        ReviewUpdateDto dto = new ReviewUpdateDto("renamed", "new title", "new content", 3);
+        assertBudget(budget(8, 2, 2, 0), patch("/reviews/" + reviewId())
+                .header("X-Review-User-Id", AUTHOR_ID)
+                .content(mapper.writeValueAsString(dto))
+                .characterEncoding(StandardCharsets.UTF_8)
+                .contentType(MediaType.APPLICATION_JSON));
+    }
+
+    @DisplayName("Бюджет запросов: получение отзыва")
+    @Test
+    void getReviewById() throws Exception {
+        assertBudget(budget(1, 1, 2, 0), get("/reviews/" + reviewId()));
+        assertBudget(budget(0, 0, 0, 0), get("/reviews/" + reviewId()));
+    }
+
+    @DisplayName("Бюджет запросов: страница отзывов события")
+    @Test
+    void getReviewsByEvent() throws Exception {
+        assertBudget(budget(1, 5, 7, 0), get("/reviews")
+                .param("eventId", EVENT_ID.toString())
+                .param("size", "5"));
+    }
+
+    @DisplayName("Бюджет запросов: страница отзывов события по курсору")
+    @Test
+    void getReviewsByEventWithCursor() throws Exception {
+        assertBudget(budget(1, 5, 7, 0), get("/reviews")
+                .param("eventId", EVENT_ID.toString())
+                .param("size", "5")
+                .param("cursor", ReviewCursor.of(reviews.get(2)).encode()));
+    }
+
+    @DisplayName("Бюджет запросов: получение отзывов по списку id")
+    @Test
+    void getReviewsByIds() throws Exception {
+        assertBudget(budget(1, 2, 3, 0), get("/reviews/batch")
+                .param("ids", reviews.get(3).getId() + "," + reviews.get(1).getId() + ",1000000000"));
+    }
+
+    @DisplayName("Бюджет запросов: выгрузка отзывов события")
+    @Test
+    void exportReviews() throws Exception {
+        assertBudget(budget(1, 10, 0, 0), get("/reviews/export")
+                .param("eventId", EVENT_ID.toString()));
+    }
+
+    @DisplayName("Бюджет запросов: импорт отзывов")
+    @Test
+    void importReviews() throws Exception {
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < REVIEWS; i++) {
+            body.append(mapper.writeValueAsString(new ReviewCreateDto(i % 2 == 0 ? AUTHOR_ID : EVALUATOR_ID, EVENT_ID,
+                    "importer", "title", "content", i + 1))).append('\n');
+        }
+        assertBudget(budget(9, 0, 0, 0), post("/reviews/import")
+                .content(body.toString())
+                .characterEncoding(StandardCharsets.UTF_8)
+                .contentType(ReviewController.IMPORT_MEDIA_TYPE));
+    }
+
+    @DisplayName("Бюджет запросов: удаление отзыва")
+    @Test
+    void deleteReview() throws Exception {
+        assertBudget(budget(6, 1, 2, 0), delete("/reviews/" + reviewId())
+                .header("X-Review-User-Id", AUTHOR_ID));
+    }
+
+    @DisplayName("Бюджет запросов: лайк отзыва")
+    @Test
+    void addLike() throws Exception {
+        assertBudget(budget(4, 1, 0, 0), put("/reviews/" + reviewId() + "/like")
+                .header("X-Review-User-Id", EVALUATOR_ID));
+    }
+
+    @DisplayName("Бюджет запросов: смена лайка на дизлайк")
+    @Test
+    void addDislikeOverLike() throws Exception {
+        mvc.perform(put("/reviews/" + reviewId() + "/like").header("X-Review-User-Id", EVALUATOR_ID))
+                .andExpect(status().isOk());
+        assertBudget(budget(4, 2, 0, 0), put("/reviews/" + reviewId() + "/dislike")
+                .header("X-Review-User-Id", EVALUATOR_ID));
+    }
+
+    @DisplayName("Бюджет запросов: удаление лайка")
+    @Test
+    void removeLike() throws Exception {
+        mvc.perform(put("/reviews/" + reviewId() + "/like").header("X-Review-User-Id", EVALUATOR_ID))
+                .andExpect(status().isOk());
+        assertBudget(budget(4, 2, 0, 0), delete("/reviews/" + reviewId() + "/like")
+                .header("X-Review-User-Id", EVALUATOR_ID));
+    }
+
+    @DisplayName("Бюджет запросов: пачка оценок")
+    @Test
+    void applyOpinions() throws Exception {
+        List<OpinionBatchItem> items = new ArrayList<>();
+        for (Review review : reviews) {
+            items.add(new OpinionBatchItem(review.getId(), EVALUATOR_ID, Label.LIKE, OpinionAction.ADD));
+        }
+        assertBudget(budget(4, 10, 0, 0), post("/reviews/opinions/batch")
+                .content(mapper.writeValueAsString(items))
+                .characterEncoding(StandardCharsets.UTF_8)
+                .contentType(MediaType.APPLICATION_JSON));
+    }
+
+    @DisplayName("Бюджет запросов: пачка оценок разных пользователей читает только их собственные оценки")
+    @Test
+    void applyOpinionsOfSeveralEvaluators() throws Exception {
+        List<OpinionBatchItem> likes = new ArrayList<>();
+        List<OpinionBatchItem> removals = new ArrayList<>();
+        for (int i = 0; i < REVIEWS; i++) {
+            Long reviewId = reviews.get(i).getId();
+            likes.add(new OpinionBatchItem(reviewId, EVALUATOR_ID, Label.LIKE, OpinionAction.ADD));
+            likes.add(new OpinionBatchItem(reviewId, OTHER_EVALUATOR_ID, Label.LIKE, OpinionAction.ADD));
+            removals.add(new OpinionBatchItem(reviewId, i % 2 == 0 ? EVALUATOR_ID : OTHER_EVALUATOR_ID, Label.LIKE,
+                    OpinionAction.REMOVE));
+        }
+        mvc.perform(post("/reviews/opinions/batch")
+                        .content(mapper.writeValueAsString(likes))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+        assertBudget(budget(4, 20, 0, 0), post("/reviews/opinions/batch")
+                .content(mapper.writeValueAsString(removals))
+                .characterEncoding(StandardCharsets.UTF_8)
+                .contentType(MediaType.APPLICATION_JSON));
+    }
+
+    @DisplayName("Бюджет запросов: средняя оценка события")
+    @Test
+    void getEventAverageMark() throws Exception {
+        assertBudget(budget(2, 1, 0, 0), get("/reviews/analytics/average-mark/event/" + EVENT_ID));
+    }
+
+    @DisplayName("Бюджет запросов: средняя оценка автора")
+    @Test
+    void getAuthorAverageMark() throws Exception {
+        assertBudget(budget(2, 1, 0, 0), get("/reviews/analytics/average-mark/author/" + AUTHOR_ID));
+    }
+
+    @DisplayName("Бюджет запросов: показатели события")
+    @Test
+    void getEventIndicators() throws Exception {
+        assertBudget(budget(2, 1, 0, 0), get("/reviews/analytics/indicators/event/" + EVENT_ID));
+    }
+
+    @DisplayName("Бюджет запросов: лучшие и худшие отзывы события")
+    @Test
+    void getBestAndWorstReviews() throws Exception {
+        assertBudget(budget(2, 6, 8, 0), get("/reviews/analytics/best-and-worst/event/" + EVENT_ID));
+    }
+
+    @DisplayName("Бюджет запросов: лучшие и худшие отзывы события из кэша")
+    @Test
+    void getBestAndWorstReviewsFromCache() throws Exception {
+        mvc.perform(get("/reviews/analytics/best-and-worst/event/" + EVENT_ID));
+        assertBudget(budget(0, 0, 0, 0), get("/reviews/analytics/best-and-worst/event/" + EVENT_ID));
+        assertBudget(budget(0, 0, 0, 0), get("/reviews/analytics/best-and-worst/events")
+                .param("ids", String.valueOf(EVENT_ID)));
+        assertBudget(budget(2, 1, 0, 0), get("/reviews/analytics/event/" + EVENT_ID + "/summary"));
+    }
+
+    @DisplayName("Бюджет запросов: сводная аналитика события")
+    @Test
+    void getEventSummary() throws Exception {
+        assertBudget(budget(4, 7, 10, 0), get("/reviews/analytics/event/" + EVENT_ID + "/summary"));
+    }
+
+    @DisplayName("Бюджет запросов: пакетная аналитика событий")
+    @Test
+    void getAnalyticsForManyEvents() throws Exception {
+        String ids = EVENT_ID + "," + (EVENT_ID + 1);
+        assertBudget(budget(2, 1, 0, 0), get("/reviews/analytics/average-mark/events").param("ids", ids));
+        assertBudget(budget(2, 1, 0, 0), get("/reviews/analytics/indicators/events").param("ids", ids));
+        assertBudget(budget(2, 12, 8, 0), get("/reviews/analytics/best-and-worst/events").param("ids", ids));
+    }
+
+    @DisplayName("Бюджет запросов: пакетная средняя оценка авторов")
+    @Test
+    void getAuthorAverageMarks() throws Exception {
+        assertBudget(budget(2, 2, 0, 0), get("/reviews/analytics/average-mark/authors")
+                .param("ids", AUTHOR_ID + "," + OTHER_AUTHOR_ID));
+    }
+}
@@ -10,11 +10,14 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 import ru.practicum.workshop.reviewservice.dto.ReviewCreateDto;
+import ru.practicum.workshop.reviewservice.dto.ReviewCursor;
 import ru.practicum.workshop.reviewservice.dto.ReviewDto;
 import ru.practicum.workshop.reviewservice.dto.ReviewDtoWithAuthor;
 import ru.practicum.workshop.reviewservice.dto.ReviewUpdateDto;
@@ -22,18 +25,35 @@ import ru.practicum.workshop.reviewservice.dto.analytics.AuthorAverageMark;
 import ru.practicum.workshop.reviewservice.dto.analytics.BestAndWorstReviews;
 import ru.practicum.workshop.reviewservice.dto.analytics.EventAverageMark;
 import ru.practicum.workshop.reviewservice.dto.analytics.EventIndicators;
+import ru.practicum.workshop.reviewservice.dto.analytics.EventSummary;
+import ru.practicum.workshop.reviewservice.dto.batch.ReviewBatchItem;
+import ru.practicum.workshop.reviewservice.dto.importing.ReviewImportError;
+import ru.practicum.workshop.reviewservice.dto.importing.ReviewImportResult;
+import ru.practicum.workshop.reviewservice.dto.opinion.OpinionBatchItem;
+import ru.practicum.workshop.reviewservice.dto.opinion.OpinionBatchItemResult;
+import ru.practicum.workshop.reviewservice.enums.Label;
+import ru.practicum.workshop.reviewservice.enums.ReviewExportFormat;
+import ru.practicum.workshop.reviewservice.enums.OpinionAction;
 import ru.practicum.workshop.reviewservice.mapper.ReviewMapper;
 import ru.practicum.workshop.reviewservice.mapper.ReviewMapperImpl;
 import ru.practicum.workshop.reviewservice.model.Review;
+import ru.practicum.workshop.reviewservice.service.ReviewExportService;
+import ru.practicum.workshop.reviewservice.service.ReviewImportService;
 import ru.practicum.workshop.reviewservice.service.ReviewService;
 
+import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static ru.practicum.workshop.reviewservice.dto.ReviewDtoValidationConstants.*;
 
@@ -47,6 +67,12 @@ class ReviewControllerTest {
     @MockBean
     private final ReviewService reviewService;
 
+    @MockBean
+    private final ReviewImportService reviewImportService;
+
+    @MockBean
+    private final ReviewExportService reviewExportService;
+
     private static ReviewMapper reviewMapper;
 
     private ReviewCreateDto createDto;
@@ -84,7 +110,7 @@ class ReviewControllerTest {
         review = reviewMapper.toEntity(createDto);
         dtoWithAuthorId = reviewMapper.toDtoWithAuthor(review);
 
-        when(reviewService.createReview(any(Review.class)))
+        when(reviewService.createReview(any(Review.class), isNull()))
                 .thenReturn(review);
 
         response = createReviewResponse(createDto);
@@ -93,7 +119,31 @@ class ReviewControllerTest {
         assertEquals(mapper.writeValueAsString(dtoWithAuthorId), response.getContentAsString());
 
         verify(reviewService, times(1))
-                .createReview(any(Review.class));
+                .createReview(any(Review.class), isNull());
+        verifyNoMoreInteractions(reviewService);
+    }
+
+    @DisplayName("Добавить отзыв с токеном участия в событии")
+    @Test
+    void createReviewWithAttendanceToken() throws Exception {
+        createDto = createCreationDto();
+        review = reviewMapper.toEntity(createDto);
+
+        when(reviewService.createReview(any(Review.class), eq("token")))
+                .thenReturn(review);
+
+        response = mvc.perform(post("/reviews")
+                        .header(ReviewController.ATTENDANCE_TOKEN_HEADER, "token")
+                        .content(mapper.writeValueAsString(createDto))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andReturn()
+                .getResponse();
+
+        assertEquals(201, response.getStatus());
+        verify(reviewService, times(1))
+                .createReview(any(Review.class), eq("token"));
         verifyNoMoreInteractions(reviewService);
     }
 
@@ -496,8 +546,8 @@ class ReviewControllerTest {
         review = reviewMapper.toEntity(createDto);
         dto = reviewMapper.toDtoWithoutAuthor(review);
 
-        when(reviewService.getReviewById(any(Long.class)))
-                .thenReturn(review);
+        when(reviewService.getReviewDtoById(any(Long.class)))
+                .thenReturn(dto);
 
         response = getReviewResponse(++id);
 
@@ -505,7 +555,7 @@ class ReviewControllerTest {
         assertEquals(mapper.writeValueAsString(dto), response.getContentAsString());
 
         verify(reviewService, times(1))
-                .getReviewById(any(Long.class));
+                .getReviewDtoById(any(Long.class));
         verifyNoMoreInteractions(reviewService);
     }
 
@@ -539,6 +589,50 @@ class ReviewControllerTest {
         verifyNoMoreInteractions(reviewService);
     }
 
+    @DisplayName("Получить отзывы по id события по курсору")
+    @Test
+    void getReviewsByEventIdWithCursor() throws Exception {
+        createDto = createCreationDto();
+        review = reviewMapper.toEntity(createDto);
+        review.setId(++id);
+        dto = reviewMapper.toDtoWithoutAuthor(review);
+        ReviewCursor cursor = new ReviewCursor(LocalDateTime.now(), Long.MAX_VALUE);
+
+        when(reviewService.getReviewsByEvent(any(Long.class), any(ReviewCursor.class), anyInt()))
+                .thenReturn(List.of(review));
+
+        result = mvc.perform(get("/reviews")
+                        .param("size", "1")
+                        .param("eventId", String.valueOf(review.getEventId()))
+                        .param("cursor", cursor.encode())
+                        .accept(MediaType.APPLICATION_JSON))
+                .andReturn();
+        response = result.getResponse();
+
+        assertEquals(200, response.getStatus());
+        assertEquals(mapper.writeValueAsString(List.of(dto)), response.getContentAsString());
+        assertEquals(ReviewCursor.of(review).encode(), response.getHeader(ReviewController.NEXT_CURSOR_HEADER));
+
+        verify(reviewService, times(1))
+                .getReviewsByEvent(review.getEventId(), cursor, 1);
+        verifyNoMoreInteractions(reviewService);
+    }
+
+    @DisplayName("Ошибка Bad Request при некорректном курсоре")
+    @Test
+    void shouldThrowBadRequestWhenCursorIsMalformed() throws Exception {
+        result = mvc.perform(get("/reviews")
+                        .param("eventId", "1")
+                        .param("cursor", "not-a-cursor")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andReturn();
+        response = result.getResponse();
+
+        assertEquals(400, response.getStatus());
+
+        verifyNoInteractions(reviewService);
+    }
+
     private MockHttpServletResponse deleteReviewResponse(Long reviewId, Long authorId) throws Exception {
         result = mvc.perform(delete("/reviews/" + reviewId)
                         .header("X-Review-User-Id", authorId)
@@ -603,6 +697,179 @@ class ReviewControllerTest {
                 .andExpect(status().isNoContent());
     }
 
+    @DisplayName("Применить пачку оценок")
+    @Test
+    void applyOpinions() throws Exception {
+        List<OpinionBatchItem> items = List.of(new OpinionBatchItem(1L, 2L, Label.LIKE, OpinionAction.ADD),
+                new OpinionBatchItem(1L, 3L, Label.DISLIKE, OpinionAction.REMOVE));
+        List<OpinionBatchItemResult> results = List.of(OpinionBatchItemResult.applied(items.get(0)),
+                OpinionBatchItemResult.rejected(items.get(1), HttpStatus.NOT_FOUND, "not found"));
+
+        when(reviewService.applyOpinions(any()))
+                .thenReturn(results);
+
+        result = mvc.perform(post("/reviews/opinions/batch")
+                        .content(mapper.writeValueAsString(items))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andReturn();
+        response = result.getResponse();
+
+        assertEquals(200, response.getStatus());
+        assertEquals(mapper.writeValueAsString(results), response.getContentAsString());
+
+        verify(reviewService, times(1))
+                .applyOpinions(items);
+        verifyNoMoreInteractions(reviewService);
+    }
+
+    @DisplayName("Импортировать отзывы из NDJSON")
+    @Test
+    void importReviews() throws Exception {
+        ReviewImportResult importResult = new ReviewImportResult(1, 1,
+                List.of(new ReviewImportError(2, "Malformed JSON")));
+
+        when(reviewImportService.importReviews(any()))
+                .thenReturn(importResult);
+
+        result = mvc.perform(post("/reviews/import")
+                        .content(mapper.writeValueAsString(createCreationDto()) + "\n{")
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(ReviewController.IMPORT_MEDIA_TYPE)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andReturn();
+        response = result.getResponse();
+
+        assertEquals(200, response.getStatus());
+        assertEquals(mapper.writeValueAsString(importResult), response.getContentAsString());
+
+        verify(reviewImportService, times(1))
+                .importReviews(any());
+        verifyNoInteractions(reviewService);
+    }
+
+    @DisplayName("Выгрузить отзывы события в CSV")
+    @Test
+    void exportReviewsByEvent() throws Exception {
+        when(reviewExportService.exportByEvent(eq(1L), eq(ReviewExportFormat.CSV), any()))
+                .thenAnswer(invocation -> {
+                    invocation.getArgument(2, OutputStream.class).write("id\n1\n".getBytes(StandardCharsets.UTF_8));
+                    return 1L;
+                });
+
+        result = mvc.perform(get("/reviews/export")
+                        .param("eventId", "1")
+                        .param("format", "CSV"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        response = mvc.perform(asyncDispatch(result))
+                .andReturn()
+                .getResponse();
+
+        assertEquals(200, response.getStatus());
+        assertEquals("text/csv", response.getContentType());
+        assertEquals("attachment; filename=reviews-event-1.csv", response.getHeader(HttpHeaders.CONTENT_DISPOSITION));
+        assertEquals("id\n1\n", response.getContentAsString());
+        verify(reviewExportService, times(1))
+                .exportByEvent(eq(1L), eq(ReviewExportFormat.CSV), any());
+        verifyNoMoreInteractions(reviewExportService);
+    }
+
+    @DisplayName("Ошибка Bad Request при выгрузке без события и автора")
+    @Test
+    void shouldThrowBadRequestWhenExportFilterIsMissing() throws Exception {
+        mvc.perform(get("/reviews/export"))
+                .andExpect(status().isBadRequest());
+        mvc.perform(get("/reviews/export")
+                        .param("eventId", "1")
+                        .param("authorId", "1"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(reviewExportService);
+    }
+
+    @DisplayName("Ошибка Bad Request при слишком большой странице отзывов")
+    @Test
+    void shouldThrowBadRequestWhenPageSizeIsTooLarge() throws Exception {
+        mvc.perform(get("/reviews")
+                        .param("eventId", "1")
+                        .param("size", "100000"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(reviewService);
+    }
+
+    @DisplayName("Получить отзывы по списку id в порядке запроса")
+    @Test
+    void getReviewsByIds() throws Exception {
+        Review first = reviewMapper.toEntity(createCreationDto()).toBuilder().id(id).build();
+        Review second = reviewMapper.toEntity(createCreationDto()).toBuilder().id(id).build();
+        List<ReviewBatchItem> expected = List.of(ReviewBatchItem.found(reviewMapper.toDtoWithoutAuthor(second)),
+                ReviewBatchItem.missing(100L),
+                ReviewBatchItem.found(reviewMapper.toDtoWithoutAuthor(first)));
+
+        when(reviewService.getReviewsByIds(any()))
+                .thenReturn(Map.of(first.getId(), first, second.getId(), second));
+
+        result = mvc.perform(get("/reviews/batch")
+                        .param("ids", second.getId() + "," + 100 + "," + first.getId())
+                        .accept(MediaType.APPLICATION_JSON))
+                .andReturn();
+        response = result.getResponse();
+
+        assertEquals(200, response.getStatus());
+        assertEquals(mapper.writeValueAsString(expected), response.getContentAsString());
+
+        result = mvc.perform(post("/reviews/batch")
+                        .content(mapper.writeValueAsString(List.of(second.getId(), 100L, first.getId())))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andReturn();
+        response = result.getResponse();
+
+        assertEquals(200, response.getStatus());
+        assertEquals(mapper.writeValueAsString(expected), response.getContentAsString());
+
+        verify(reviewService, times(2))
+                .getReviewsByIds(List.of(second.getId(), 100L, first.getId()));
+        verifyNoMoreInteractions(reviewService);
+    }
+
+    @DisplayName("Ошибка Bad Request при некорректном списке id отзывов")
+    @Test
+    void shouldThrowBadRequestWhenReviewIdsAreInvalid() throws Exception {
+        mvc.perform(get("/reviews/batch")
+                        .param("ids", "1,-2"))
+                .andExpect(status().isBadRequest());
+        mvc.perform(get("/reviews/batch")
+                        .param("ids", "1,,2"))
+                .andExpect(status().isBadRequest());
+        mvc.perform(post("/reviews/batch")
+                        .content("[]")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(reviewService);
+    }
+
+    @DisplayName("Ошибка Bad Request при некорректной оценке в пачке")
+    @Test
+    void shouldThrowBadRequestWhenBatchItemIsInvalid() throws Exception {
+        List<OpinionBatchItem> items = List.of(new OpinionBatchItem(1L, -2L, Label.LIKE, OpinionAction.ADD));
+
+        result = mvc.perform(post("/reviews/opinions/batch")
+                        .content(mapper.writeValueAsString(items))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andReturn();
+
+        assertEquals(400, result.getResponse().getStatus());
+        verifyNoInteractions(reviewService);
+    }
+
     private EventAverageMark createEventAverageMark() {
         return new EventAverageMark(id, 7.3);
     }
@@ -632,6 +899,51 @@ class ReviewControllerTest {
         verifyNoMoreInteractions(reviewService);
     }
 
+    @DisplayName("Получить средние оценки нескольких событий одним запросом")
+    @Test
+    void getEventAverageMarksByEventIds() throws Exception {
+        List<EventAverageMark> eventAverageMarks = List.of(new EventAverageMark(2L, 7.3), new EventAverageMark(1L, null));
+
+        when(reviewService.getEventAverageMarks(any()))
+                .thenReturn(eventAverageMarks);
+
+        result = mvc.perform(get("/reviews/analytics/average-mark/events")
+                        .param("ids", "2,1")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andReturn();
+        response = result.getResponse();
+
+        assertEquals(200, response.getStatus());
+        assertEquals(mapper.writeValueAsString(eventAverageMarks), response.getContentAsString());
+
+        verify(reviewService, times(1))
+                .getEventAverageMarks(List.of(2L, 1L));
+        verifyNoMoreInteractions(reviewService);
+    }
+
+    @DisplayName("Ошибка Bad Request при пустом списке событий для пакетной аналитики")
+    @Test
+    void shouldThrowBadRequestWhenAnalyticsIdsAreEmpty() throws Exception {
+        mvc.perform(get("/reviews/analytics/indicators/events")
+                        .param("ids", ""))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(reviewService);
+    }
+
+    @DisplayName("Ошибка Bad Request при пропущенном id в списке для пакетной аналитики")
+    @Test
+    void shouldThrowBadRequestWhenAnalyticsIdIsMissing() throws Exception {
+        for (String path : List.of("/reviews/analytics/average-mark/events", "/reviews/analytics/average-mark/authors",
+                "/reviews/analytics/indicators/events", "/reviews/analytics/best-and-worst/events")) {
+            mvc.perform(get(path)
+                            .param("ids", "1,,2"))
+                    .andExpect(status().isBadRequest());
+        }
+
+        verifyNoInteractions(reviewService);
+    }
+
     private AuthorAverageMark createAuthorAverageMark() {
         return new AuthorAverageMark(id, 8.3);
     }
@@ -724,4 +1036,28 @@ class ReviewControllerTest {
                 .getBestAndWorstReviews(any(Long.class));
         verifyNoMoreInteractions(reviewService);
     }
-}
\ No newline at end of file
+
+    @DisplayName("Получить сводную аналитику по eventId")
+    @Test
+    void getEventSummaryByEventId() throws Exception {
+        BestAndWorstReviews bestAndWorstReviews = createBestAndWorstReviews();
+        Long eventId = bestAndWorstReviews.getEventId();
+        EventSummary eventSummary = new EventSummary(eventId, new EventAverageMark(eventId, 5.5),
+                new EventIndicators(eventId, 2, 50.0, 50.0), bestAndWorstReviews);
+
+        when(reviewService.getEventSummary(any(Long.class)))
+                .thenReturn(eventSummary);
+
+        result = mvc.perform(get("/reviews/analytics/event/" + eventId + "/summary")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andReturn();
+        response = result.getResponse();
+
+        assertEquals(200, response.getStatus());
+        assertEquals(mapper.writeValueAsString(eventSummary), response.getContentAsString());
+
+        verify(reviewService, times(1))
+                .getEventSummary(eventId);
+        verifyNoMoreInteractions(reviewService);
+    }
+}
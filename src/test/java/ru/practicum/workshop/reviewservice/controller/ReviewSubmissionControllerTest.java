@@ -0,0 +1,130 @@
+package ru.practicum.workshop.reviewservice.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import ru.practicum.workshop.reviewservice.dto.ReviewCreateDto;
+import ru.practicum.workshop.reviewservice.enums.SubmissionStatus;
+import ru.practicum.workshop.reviewservice.mapper.ReviewMapperImpl;
+import ru.practicum.workshop.reviewservice.model.PendingReview;
+import ru.practicum.workshop.reviewservice.service.ReviewSubmissionService;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+@WebMvcTest(controllers = ReviewSubmissionController.class,
+        properties = "review-service.async-submissions.enabled=true")
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@Import(ReviewMapperImpl.class)
+class ReviewSubmissionControllerTest {
+    private final ObjectMapper mapper;
+    private final MockMvc mvc;
+
+    @MockBean
+    private final ReviewSubmissionService reviewSubmissionService;
+
+    @DisplayName("Заявка на отзыв принимается с кодом 202 и адресом для опроса")
+    @Test
+    void submitReview() throws Exception {
+        when(reviewSubmissionService.submit(any(PendingReview.class)))
+                .thenAnswer(invocation -> {
+                    PendingReview submission = invocation.getArgument(0);
+                    assertEquals("token", submission.getAttendanceToken());
+                    assertEquals(SubmissionStatus.PENDING, submission.getStatus());
+                    submission.setId(5L);
+                    return submission;
+                });
+
+        MockHttpServletResponse response = mvc.perform(post("/reviews/submissions")
+                        .header(ReviewController.ATTENDANCE_TOKEN_HEADER, "token")
+                        .content(mapper.writeValueAsString(new ReviewCreateDto(1L, 2L, "user", "title", "content", 7)))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andReturn()
+                .getResponse();
+
+        assertEquals(202, response.getStatus());
+        assertTrue(response.getHeader("Location").endsWith("/reviews/submissions/5"));
+        assertTrue(response.getContentAsString().contains("\"status\":\"PENDING\""));
+    }
+
+    @DisplayName("Заявка с неверным отзывом не принимается")
+    @Test
+    void submitInvalidReview() throws Exception {
+        MockHttpServletResponse response = mvc.perform(post("/reviews/submissions")
+                        .content(mapper.writeValueAsString(new ReviewCreateDto(1L, 2L, "user", "title", "", 7)))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andReturn()
+                .getResponse();
+
+        assertEquals(400, response.getStatus());
+        verify(reviewSubmissionService, never()).submit(any(PendingReview.class));
+    }
+
+    @DisplayName("Без ожидания возвращается текущее состояние заявки")
+    @Test
+    void getSubmission() throws Exception {
+        when(reviewSubmissionService.getSubmission(5L)).thenReturn(submission(SubmissionStatus.PROCESSING));
+
+        MvcResult result = mvc.perform(get("/reviews/submissions/5")).andReturn();
+        MockHttpServletResponse response = mvc.perform(asyncDispatch(result)).andReturn().getResponse();
+
+        assertEquals(200, response.getStatus());
+        assertTrue(response.getContentAsString().contains("\"status\":\"PROCESSING\""));
+    }
+
+    @DisplayName("Ожидающий заявку получает её, как только она обработана")
+    @Test
+    void awaitSubmission() throws Exception {
+        CompletableFuture<PendingReview> finished = new CompletableFuture<>();
+        when(reviewSubmissionService.awaitFinished(5L)).thenReturn(finished);
+
+        MvcResult result = mvc.perform(get("/reviews/submissions/5").param("waitSeconds", "10")).andReturn();
+        PendingReview created = submission(SubmissionStatus.CREATED);
+        created.setReviewId(42L);
+        finished.complete(created);
+        MockHttpServletResponse response = mvc.perform(asyncDispatch(result)).andReturn().getResponse();
+
+        assertEquals(200, response.getStatus());
+        assertTrue(response.getContentAsString().contains("\"reviewId\":42"));
+    }
+
+    @DisplayName("Ожидание дольше допустимого не принимается")
+    @Test
+    void awaitTooLong() throws Exception {
+        MockHttpServletResponse response = mvc.perform(get("/reviews/submissions/5").param("waitSeconds", "31"))
+                .andReturn()
+                .getResponse();
+
+        assertEquals(400, response.getStatus());
+    }
+
+    private static PendingReview submission(SubmissionStatus status) {
+        PendingReview submission = new PendingReview();
+        submission.setId(5L);
+        submission.setStatus(status);
+        submission.setSubmittedOn(LocalDateTime.now());
+        return submission;
+    }
+}
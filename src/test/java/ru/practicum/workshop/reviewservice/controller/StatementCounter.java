@@ -0,0 +1,112 @@
+package ru.practicum.workshop.reviewservice.controller;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.Value;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.MethodExecutionContext;
+import net.ttddyy.dsproxy.listener.MethodExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts what the persistence layer does against the database: JDBC round trips and rows read through a
+ * datasource proxy, entity loads and lazy fetches through Hibernate {@link Statistics}. A JDBC batch counts as
+ * one statement, since it is one round trip. Fetches of the next block of a pooled sequence are not counted: they
+ * happen once per {@code allocationSize} inserts and would land on whichever test happens to cross a block.
+ */
+public class StatementCounter implements QueryExecutionListener, MethodExecutionListener {
+    private static final StatementCounter INSTANCE = new StatementCounter();
+
+    private final AtomicLong statements = new AtomicLong();
+    private final AtomicLong rows = new AtomicLong();
+
+    public static StatementCounter getInstance() {
+        return INSTANCE;
+    }
+
+    public Usage measure(EntityManagerFactory entityManagerFactory, ThrowingRunnable action) throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        statements.set(0);
+        rows.set(0);
+        action.run();
+        return new Usage(statements.get(), rows.get(), statistics.getEntityLoadCount(),
+                statistics.getEntityFetchCount() + statistics.getCollectionFetchCount());
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        if (queryInfoList.stream().anyMatch(query -> query.getQuery().contains("next value for"))) {
+            // The single row the fetch returns is read after this callback and counted then.
+            rows.decrementAndGet();
+            return;
+        }
+        statements.incrementAndGet();
+    }
+
+    @Override
+    public void beforeMethod(MethodExecutionContext executionContext) {
+    }
+
+    @Override
+    public void afterMethod(MethodExecutionContext executionContext) {
+        if (executionContext.getTarget() instanceof ResultSet
+                && executionContext.getMethod().getName().equals("next")
+                && Boolean.TRUE.equals(executionContext.getResult())) {
+            rows.incrementAndGet();
+        }
+    }
+
+    public interface ThrowingRunnable {
+        void run() throws Exception;
+    }
+
+    @Value
+    public static class Usage {
+        long statements;
+        long rows;
+        long entityLoads;
+        long lazyFetches;
+
+        public boolean fitsInto(Usage budget) {
+            return statements <= budget.statements && rows <= budget.rows && entityLoads <= budget.entityLoads
+                    && lazyFetches <= budget.lazyFetches;
+        }
+    }
+
+    @TestConfiguration
+    public static class Configuration {
+        @Bean
+        public static BeanPostProcessor statementCountingDataSourcePostProcessor() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (bean instanceof DataSource dataSource) {
+                        return ProxyDataSourceBuilder.create(dataSource)
+                                .name(beanName)
+                                .listener(INSTANCE)
+                                .methodListener(INSTANCE)
+                                .proxyResultSet()
+                                .build();
+                    }
+                    return bean;
+                }
+            };
+        }
+    }
+}
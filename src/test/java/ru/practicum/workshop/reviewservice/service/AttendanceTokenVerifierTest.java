@@ -0,0 +1,101 @@
+package ru.practicum.workshop.reviewservice.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+public class AttendanceTokenVerifierTest {
+    private static final long EVENT_ID = 42L;
+    private static final long USER_ID = 7L;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AttendanceTokenVerifier verifier =
+            new AttendanceTokenVerifier(AttendanceTokens.HMAC_KEY, "", meterRegistry);
+
+    @DisplayName("Действующий токен подтверждает статус регистрации")
+    @Test
+    void acceptsValidToken() {
+        assertEquals(Optional.of("APPROVED"), verifier.verify(token("APPROVED", inMinutes(5)), EVENT_ID, USER_ID));
+        assertEquals(Optional.of("PENDING"), verifier.verify(token("PENDING", inMinutes(5)), EVENT_ID, USER_ID));
+        assertEquals(2, meterRegistry.get("review-service.attendance-tokens").tag("result", "valid").counter()
+                .count());
+    }
+
+    @DisplayName("Токен с чужой или испорченной подписью не принимается")
+    @Test
+    void rejectsForgedToken() {
+        String token = token("APPROVED", inMinutes(5));
+        String otherKey = Base64.getEncoder().encodeToString("another-key".getBytes());
+
+        assertEquals(Optional.empty(), verifier.verify(
+                AttendanceTokens.hmac(otherKey, EVENT_ID, USER_ID, "APPROVED", inMinutes(5)), EVENT_ID, USER_ID));
+        assertEquals(Optional.empty(), verifier.verify(
+                token.replace(".APPROVED.", ".APPROVEE."), EVENT_ID, USER_ID));
+        assertEquals(Optional.empty(), verifier.verify(token.substring(0, token.length() - 2), EVENT_ID, USER_ID));
+        assertEquals(3, meterRegistry.get("review-service.attendance-tokens").tag("result", "invalid").counter()
+                .count());
+    }
+
+    @DisplayName("Просроченный токен и токен другого события или пользователя не принимаются")
+    @Test
+    void rejectsExpiredOrForeignToken() {
+        assertEquals(Optional.empty(), verifier.verify(token("APPROVED", inMinutes(-1)), EVENT_ID, USER_ID));
+        assertEquals(Optional.empty(), verifier.verify(token("APPROVED", inMinutes(5)), EVENT_ID + 1, USER_ID));
+        assertEquals(Optional.empty(), verifier.verify(token("APPROVED", inMinutes(5)), EVENT_ID, USER_ID + 1));
+    }
+
+    @DisplayName("Отсутствующий и неразборчивый токены не принимаются")
+    @Test
+    void rejectsMalformedToken() {
+        assertEquals(Optional.empty(), verifier.verify(null, EVENT_ID, USER_ID));
+        assertEquals(Optional.empty(), verifier.verify("", EVENT_ID, USER_ID));
+        assertEquals(Optional.empty(), verifier.verify("42.7.APPROVED", EVENT_ID, USER_ID));
+        assertEquals(Optional.empty(), verifier.verify("42.x.APPROVED.1.AAAA", EVENT_ID, USER_ID));
+        assertEquals(Optional.empty(), verifier.verify("42.7.APPROVED.99999999999.!!!!", EVENT_ID, USER_ID));
+        assertEquals(Optional.empty(), verifier.verify("42.7.APPROVED." + "9".repeat(200) + ".AAAA", EVENT_ID,
+                USER_ID));
+    }
+
+    @DisplayName("Токен с подписью Ed25519 проверяется открытым ключом")
+    @Test
+    void acceptsEd25519Token() throws Exception {
+        KeyPair keys = KeyPairGenerator.getInstance("Ed25519").generateKeyPair();
+        KeyPair otherKeys = KeyPairGenerator.getInstance("Ed25519").generateKeyPair();
+        AttendanceTokenVerifier ed25519Verifier = new AttendanceTokenVerifier("",
+                Base64.getEncoder().encodeToString(keys.getPublic().getEncoded()), meterRegistry);
+
+        assertEquals(Optional.of("APPROVED"), ed25519Verifier.verify(
+                AttendanceTokens.ed25519(keys.getPrivate(), EVENT_ID, USER_ID, "APPROVED", inMinutes(5)),
+                EVENT_ID, USER_ID));
+        assertEquals(Optional.empty(), ed25519Verifier.verify(
+                AttendanceTokens.ed25519(otherKeys.getPrivate(), EVENT_ID, USER_ID, "APPROVED", inMinutes(5)),
+                EVENT_ID, USER_ID));
+        assertEquals(Optional.empty(), ed25519Verifier.verify(token("APPROVED", inMinutes(5)), EVENT_ID, USER_ID));
+    }
+
+    @DisplayName("Без ключа токены не проверяются")
+    @Test
+    void ignoresTokensWithoutKey() {
+        AttendanceTokenVerifier disabled = new AttendanceTokenVerifier("", "", meterRegistry);
+
+        assertFalse(disabled.isEnabled());
+        assertEquals(Optional.empty(), disabled.verify(token("APPROVED", inMinutes(5)), EVENT_ID, USER_ID));
+    }
+
+    private static String token(String status, long expiresAt) {
+        return AttendanceTokens.hmac(AttendanceTokens.HMAC_KEY, EVENT_ID, USER_ID, status, expiresAt);
+    }
+
+    private static long inMinutes(long minutes) {
+        return Instant.now().plusSeconds(minutes * 60).getEpochSecond();
+    }
+}
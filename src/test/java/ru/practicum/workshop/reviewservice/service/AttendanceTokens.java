@@ -0,0 +1,50 @@
+package ru.practicum.workshop.reviewservice.service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.PrivateKey;
+import java.security.Signature;
+import java.util.Base64;
+
+/**
+ * Issues attendance tokens the way registration-service does.
+ */
+class AttendanceTokens {
+    static final String HMAC_KEY = "c2VjcmV0LWtleS1mb3ItdGVzdHMtb2YtYXR0ZW5kYW5jZS10b2tlbnM=";
+
+    private AttendanceTokens() {
+    }
+
+    static String hmac(String base64Key, long eventId, long userId, String status, long expiresAt) {
+        String payload = payload(eventId, userId, status, expiresAt);
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(Base64.getDecoder().decode(base64Key), "HmacSHA256"));
+            return payload + "." + encode(mac.doFinal(payload.getBytes(StandardCharsets.US_ASCII)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static String ed25519(PrivateKey key, long eventId, long userId, String status, long expiresAt) {
+        String payload = payload(eventId, userId, status, expiresAt);
+        try {
+            Signature signer = Signature.getInstance("Ed25519");
+            signer.initSign(key);
+            signer.update(payload.getBytes(StandardCharsets.US_ASCII));
+            return payload + "." + encode(signer.sign());
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String payload(long eventId, long userId, String status, long expiresAt) {
+        return eventId + "." + userId + "." + status + "." + expiresAt;
+    }
+
+    private static String encode(byte[] signature) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(signature);
+    }
+}
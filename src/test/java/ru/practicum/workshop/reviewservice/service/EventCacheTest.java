@@ -0,0 +1,217 @@
+package ru.practicum.workshop.reviewservice.service;
+
+import feign.FeignException;
+import feign.Request;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.practicum.workshop.reviewservice.client.EventClient;
+import ru.practicum.workshop.reviewservice.dto.EventResponse;
+import ru.practicum.workshop.reviewservice.service.EventCache.EventLookup;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class EventCacheTest {
+    private static final Long USER_ID = 1L;
+    private static final Long EVENT_ID = 2L;
+    private static final Duration ENDED_EVENT_TTL = Duration.ofHours(24);
+    private static final Duration ACTIVE_EVENT_TTL = Duration.ofMinutes(1);
+    private static final Duration NOT_FOUND_TTL = Duration.ofSeconds(30);
+
+    private EventClient eventClient;
+    private MeterRegistry meterRegistry;
+    private EventCache eventCache;
+
+    @BeforeEach
+    void beforeEach() {
+        eventClient = mock(EventClient.class);
+        meterRegistry = new SimpleMeterRegistry();
+        eventCache = new EventCache(eventClient, 100, ENDED_EVENT_TTL, ACTIVE_EVENT_TTL, NOT_FOUND_TTL, 4,
+                meterRegistry);
+    }
+
+    @AfterEach
+    void afterEach() {
+        eventCache.stop();
+    }
+
+    @DisplayName("Повторный запрос события не обращается к сервису событий, попадания видны в метриках")
+    @Test
+    void repeatedReadsHitCache() {
+        EventResponse event = event(LocalDateTime.now().minusDays(1));
+        when(eventClient.readEventById(any(Long.class), any(Long.class))).thenReturn(event);
+
+        assertSame(event, eventCache.getEvent(USER_ID, EVENT_ID));
+        assertSame(event, eventCache.getEvent(USER_ID + 1, EVENT_ID));
+
+        verify(eventClient, times(1)).readEventById(USER_ID, EVENT_ID);
+        assertEquals(1, cacheGets("hit"));
+        assertEquals(1, cacheGets("miss"));
+    }
+
+    @DisplayName("Ответ «событие не найдено» запоминается и повторяется без обращения к сервису")
+    @Test
+    void cachesNotFound() {
+        when(eventClient.readEventById(any(Long.class), any(Long.class))).thenThrow(notFound());
+
+        assertThrows(FeignException.NotFound.class, () -> eventCache.getEvent(USER_ID, EVENT_ID));
+        assertThrows(FeignException.NotFound.class, () -> eventCache.getEvent(USER_ID, EVENT_ID));
+
+        verify(eventClient, times(1)).readEventById(USER_ID, EVENT_ID);
+    }
+
+    @DisplayName("Другие ошибки сервиса событий не запоминаются")
+    @Test
+    void doesNotCacheOtherFailures() {
+        EventResponse event = event(LocalDateTime.now().minusDays(1));
+        when(eventClient.readEventById(any(Long.class), any(Long.class)))
+                .thenThrow(new FeignException.InternalServerError("failure", request(), null, Map.of()))
+                .thenReturn(event);
+
+        assertThrows(FeignException.InternalServerError.class, () -> eventCache.getEvent(USER_ID, EVENT_ID));
+        assertSame(event, eventCache.getEvent(USER_ID, EVENT_ID));
+
+        verify(eventClient, times(2)).readEventById(USER_ID, EVENT_ID);
+    }
+
+    @DisplayName("Одновременные промахи по одному событию ждут одного запроса")
+    @Test
+    void concurrentMissesShareOneCall() throws Exception {
+        EventResponse event = event(LocalDateTime.now().minusDays(1));
+        CountDownLatch release = new CountDownLatch(1);
+        when(eventClient.readEventById(any(Long.class), any(Long.class))).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return event;
+        });
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<EventResponse>> futures = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            long userId = i;
+            futures.add(executor.submit(() -> eventCache.getEvent(userId, EVENT_ID)));
+        }
+        while (cacheGets("hit") + cacheGets("miss") < 8) {
+            Thread.sleep(10);
+        }
+        release.countDown();
+
+        for (Future<EventResponse> future : futures) {
+            assertSame(event, future.get());
+        }
+        executor.shutdown();
+        verify(eventClient, times(1)).readEventById(any(Long.class), any(Long.class));
+    }
+
+    @DisplayName("Прерванное ожидание первого запросившего не проваливает запрос для остальных")
+    @Test
+    void interruptedCallerDoesNotFailOthers() throws Exception {
+        EventResponse event = event(LocalDateTime.now().minusDays(1));
+        CountDownLatch release = new CountDownLatch(1);
+        when(eventClient.readEventById(any(Long.class), any(Long.class))).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return event;
+        });
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        Future<EventResponse> first = executor.submit(() -> eventCache.getEvent(USER_ID, EVENT_ID));
+        while (cacheGets("miss") < 1) {
+            Thread.sleep(10);
+        }
+        Future<EventResponse> second = executor.submit(() -> eventCache.getEvent(USER_ID + 1, EVENT_ID));
+        while (cacheGets("hit") < 1) {
+            Thread.sleep(10);
+        }
+        first.cancel(true);
+        release.countDown();
+
+        assertSame(event, second.get());
+        executor.shutdown();
+        verify(eventClient, times(1)).readEventById(any(Long.class), any(Long.class));
+    }
+
+    @DisplayName("Error из клиента возвращается вызывающему, не оставляя запрос незавершённым, и не запоминается")
+    @Test
+    void errorFailsCallerAndIsNotCached() throws Exception {
+        EventResponse event = event(LocalDateTime.now().minusDays(1));
+        when(eventClient.readEventById(any(Long.class), any(Long.class)))
+                .thenThrow(new AssertionError("failure"))
+                .thenReturn(event);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        Future<EventResponse> failed = executor.submit(() -> eventCache.getEvent(USER_ID, EVENT_ID));
+        ExecutionException e = assertThrows(ExecutionException.class, () -> failed.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(AssertionError.class, e.getCause());
+        assertSame(event, executor.submit(() -> eventCache.getEvent(USER_ID, EVENT_ID)).get(5, TimeUnit.SECONDS));
+
+        executor.shutdown();
+        verify(eventClient, times(2)).readEventById(USER_ID, EVENT_ID);
+    }
+
+    @DisplayName("Идущее событие перезапрашивается после своего окончания")
+    @Test
+    void activeEventExpiresAtItsEnd() throws Exception {
+        EventResponse active = event(LocalDateTime.now().plusNanos(200_000_000));
+        EventResponse ended = event(active.getEndDateTime());
+        when(eventClient.readEventById(any(Long.class), any(Long.class))).thenReturn(active, ended);
+
+        assertSame(active, eventCache.getEvent(USER_ID, EVENT_ID));
+        assertSame(active, eventCache.getEvent(USER_ID, EVENT_ID));
+        Thread.sleep(400);
+        assertSame(ended, eventCache.getEvent(USER_ID, EVENT_ID));
+
+        verify(eventClient, times(2)).readEventById(USER_ID, EVENT_ID);
+    }
+
+    @DisplayName("Прошедшее событие хранится долго, идущее - не дольше своего окончания, ненайденное - недолго")
+    @Test
+    void choosesTimeToLive() {
+        LocalDateTime now = LocalDateTime.now();
+
+        assertEquals(ENDED_EVENT_TTL, eventCache.timeToLive(new EventLookup(event(now.minusDays(1)), null), now));
+        assertEquals(ACTIVE_EVENT_TTL, eventCache.timeToLive(new EventLookup(event(now.plusDays(1)), null), now));
+        assertEquals(Duration.ofSeconds(10),
+                eventCache.timeToLive(new EventLookup(event(now.plusSeconds(10)), null), now));
+        assertEquals(NOT_FOUND_TTL, eventCache.timeToLive(new EventLookup(null, notFound()), now));
+    }
+
+    private double cacheGets(String result) {
+        return meterRegistry.get("cache.gets").tag("cache", "events").tag("result", result)
+                .functionCounter().count();
+    }
+
+    private static EventResponse event(LocalDateTime end) {
+        return new EventResponse(EVENT_ID, "name", "description", end.minusDays(1), end, "location", USER_ID,
+                end.minusDays(2));
+    }
+
+    private static FeignException.NotFound notFound() {
+        return new FeignException.NotFound("not found", request(), null, Map.of());
+    }
+
+    private static Request request() {
+        return Request.create(Request.HttpMethod.GET, "/events/" + EVENT_ID, Map.of(), null, StandardCharsets.UTF_8,
+                null);
+    }
+}
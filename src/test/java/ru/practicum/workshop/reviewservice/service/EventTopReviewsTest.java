@@ -0,0 +1,124 @@
+package ru.practicum.workshop.reviewservice.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.practicum.workshop.reviewservice.dto.ReviewDto;
+import ru.practicum.workshop.reviewservice.service.EventTopReviews.RankedReview;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class EventTopReviewsTest {
+    private static final Long EVENT_ID = 1L;
+    private static final Long AUTHOR_ID = 2L;
+
+    @DisplayName("При равной оценке выше отзыв с большим числом лайков, затем с меньшим id")
+    @Test
+    void ordersTiesByLikesAndId() {
+        EventTopReviews topReviews = EventTopReviews.of(3, List.of(review(1L, 9, 0), review(2L, 9, 5),
+                review(3L, 9, 0), review(4L, 2, 0), review(5L, 2, 1), review(6L, 6, 0)));
+
+        assertEquals(List.of(2L, 1L, 3L), ids(topReviews.getBestReviews()));
+        assertEquals(List.of(5L, 4L), ids(topReviews.getWorstReviews()));
+    }
+
+    @DisplayName("Лайки переставляют отзывы с равной оценкой")
+    @Test
+    void reordersByVotes() {
+        EventTopReviews topReviews = EventTopReviews.of(3, List.of(review(1L, 9, 0), review(2L, 9, 0)));
+
+        EventTopReviews voted = topReviews.withVotes(2L, score(9, 0), score(9, 1));
+
+        assertEquals(List.of(2L, 1L), ids(voted.getBestReviews()));
+        assertEquals(1L, voted.getBestReviews().get(0).getLikes());
+    }
+
+    @DisplayName("Новый отзыв вытесняет последний из заполненного списка")
+    @Test
+    void pushesOutLastReview() {
+        EventTopReviews topReviews = EventTopReviews.of(2, List.of(review(1L, 9, 0), review(2L, 7, 0)));
+
+        assertEquals(List.of(3L, 1L), ids(topReviews.withReview(review(3L, 10, 0), false).getBestReviews()));
+        assertSame(topReviews, topReviews.withReview(review(4L, 6, 0), false));
+    }
+
+    @DisplayName("Отзыв уходит из неполного списка без перезагрузки")
+    @Test
+    void removesFromIncompleteList() {
+        EventTopReviews topReviews = EventTopReviews.of(3, List.of(review(1L, 9, 0), review(2L, 7, 0)));
+
+        assertEquals(List.of(1L), ids(topReviews.withoutReview(2L).getBestReviews()));
+        assertEquals(List.of(2L), ids(topReviews.withReview(review(1L, 5, 0), false).getBestReviews()));
+        assertEquals(List.of(1L), ids(topReviews.withReview(review(1L, 5, 0), false).getWorstReviews()));
+    }
+
+    @DisplayName("Из заполненного списка отзыв не может уйти без перезагрузки события")
+    @Test
+    void requiresReloadWhenFullListLosesReview() {
+        EventTopReviews topReviews = EventTopReviews.of(2, List.of(review(1L, 9, 0), review(2L, 8, 1)));
+
+        assertNull(topReviews.withoutReview(1L));
+        assertNull(topReviews.withReview(review(2L, 7, 0), false));
+        assertNull(topReviews.withVotes(2L, score(8, 1), score(8, 0)));
+        assertEquals(List.of(2L, 1L), ids(topReviews.withReview(review(2L, 10, 0), false).getBestReviews()));
+    }
+
+    @DisplayName("Отзыв вне списка, обогнавший последний по лайкам, требует перезагрузки события")
+    @Test
+    void requiresReloadWhenOutsiderOvertakes() {
+        EventTopReviews topReviews = EventTopReviews.of(2, List.of(review(1L, 9, 0), review(2L, 8, 0)));
+
+        assertNull(topReviews.withVotes(3L, score(8, 0), score(8, 1)));
+        assertSame(topReviews, topReviews.withVotes(3L, score(7, 0), score(7, 1)));
+    }
+
+    @DisplayName("Правка отзыва сохраняет счётчики оценок из снимка")
+    @Test
+    void keepsVotesOnUpdate() {
+        EventTopReviews topReviews = EventTopReviews.of(3, List.of(review(1L, 9, 4)));
+
+        ReviewDto updated = topReviews.withReview(review(1L, 10, 0), true).getBestReviews().get(0);
+
+        assertEquals(10, updated.getMark());
+        assertEquals(4L, updated.getLikes());
+        assertNull(EventTopReviews.of(3, List.of()).withReview(review(1L, 10, 0), true));
+    }
+
+    @DisplayName("Снимок события перечитывается через ttl после загрузки, даже если его постоянно читают")
+    @Test
+    void snapshotExpiresAfterTtlDespiteReads() throws Exception {
+        EventTopReviewsCache cache = new EventTopReviewsCache(100, Duration.ofMillis(200), new SimpleMeterRegistry());
+        AtomicInteger loads = new AtomicInteger();
+
+        for (int i = 0; i < 10; i++) {
+            cache.get(EVENT_ID, eventId -> {
+                loads.incrementAndGet();
+                return EventTopReviews.of(3, List.of(review(1L, 9, 0)));
+            });
+            Thread.sleep(50);
+        }
+
+        assertTrue(loads.get() >= 2);
+    }
+
+    private static RankedReview review(Long id, int mark, long likes) {
+        return new RankedReview(AUTHOR_ID, new ReviewDto(id, EVENT_ID, "user", "title", "content",
+                LocalDateTime.now(), null, mark, likes, 0L));
+    }
+
+    private static ReviewScore score(int mark, long likes) {
+        return new ReviewScore(EVENT_ID, AUTHOR_ID, mark, likes, 0);
+    }
+
+    private static List<Long> ids(List<ReviewDto> reviews) {
+        return reviews.stream().map(ReviewDto::getId).toList();
+    }
+}
@@ -0,0 +1,208 @@
+package ru.practicum.workshop.reviewservice.service;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the collapser against a stub registration-service with a bulk route, which approves odd user ids, keeps
+ * even ones pending and does not know users from {@link #UNKNOWN_USER_ID} on.
+ */
+@SpringBootTest(properties = {
+        "review-service.registration-batch.enabled=true",
+        "review-service.registration-batch.window=200ms",
+        "review-service.registration-batch.max-size=5",
+        "review-service.registration-batch.bulk-retry-interval=500ms"
+})
+@ActiveProfiles(value = "test")
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class RegistrationStatusCollapserTest {
+    private static final String SINGLE_PATH = "/registrations/internal/status-of-registration/";
+    private static final String BULK_PATH = "/registrations/internal/status-of-registrations/";
+    private static final long UNKNOWN_USER_ID = 1000;
+    private static final AtomicLong EVENT_IDS = new AtomicLong(9_800_000L);
+    private static final StubHttpServer REGISTRATION_SERVICE = new StubHttpServer(SINGLE_PATH);
+
+    private final RegistrationStatusCollapser registrationStatusCollapser;
+
+    private Long eventId;
+
+    @DynamicPropertySource
+    static void serviceUrls(DynamicPropertyRegistry registry) {
+        registry.add("review-service.registration-service.url", REGISTRATION_SERVICE::url);
+    }
+
+    @AfterAll
+    static void afterAll() {
+        REGISTRATION_SERVICE.stop();
+    }
+
+    @BeforeEach
+    void beforeEach() {
+        REGISTRATION_SERVICE.answer(0, 200, "text/plain", path -> "APPROVED");
+        REGISTRATION_SERVICE.answer(BULK_PATH, 0, 200, "application/json",
+                (path, body) -> statuses(body));
+        // Warms up the client and its connections, so that only the batching is measured.
+        registrationStatusCollapser.getStatus(EVENT_IDS.incrementAndGet(), 1L);
+        eventId = EVENT_IDS.incrementAndGet();
+    }
+
+    @DisplayName("Одновременные проверки регистраций на одно событие уходят одним пакетным запросом")
+    @Test
+    void collapsesConcurrentLookups() throws Exception {
+        int singleBefore = REGISTRATION_SERVICE.requests(SINGLE_PATH);
+        int bulkBefore = REGISTRATION_SERVICE.requests(BULK_PATH);
+
+        List<Optional<String>> statuses = lookUpConcurrently(eventId, 1L, 2L, UNKNOWN_USER_ID);
+
+        assertEquals(List.of(Optional.of("APPROVED"), Optional.of("PENDING"), Optional.empty()), statuses);
+        assertEquals(bulkBefore + 1, REGISTRATION_SERVICE.requests(BULK_PATH));
+        assertEquals(singleBefore, REGISTRATION_SERVICE.requests(SINGLE_PATH));
+    }
+
+    @DisplayName("Заполненный пакет отправляется, не дожидаясь конца окна")
+    @Test
+    void sendsFullBatchAtOnce() throws Exception {
+        int bulkBefore = REGISTRATION_SERVICE.requests(BULK_PATH);
+        long start = System.nanoTime();
+
+        List<Optional<String>> statuses = lookUpConcurrently(eventId, 1L, 3L, 5L, 7L, 9L);
+
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        assertTrue(statuses.stream().allMatch(status -> status.equals(Optional.of("APPROVED"))));
+        assertEquals(bulkBefore + 1, REGISTRATION_SERVICE.requests(BULK_PATH));
+        assertTrue(millis < 150, "Lookups took " + millis + " ms");
+    }
+
+    @DisplayName("Проверки всех участников события разом уходят пакетами, а не по одной")
+    @Test
+    void collapsesLookupsOfManyAttendees() throws Exception {
+        int attendees = 500;
+        int singleBefore = REGISTRATION_SERVICE.requests(SINGLE_PATH);
+        int bulkBefore = REGISTRATION_SERVICE.requests(BULK_PATH);
+        ExecutorService executor = Executors.newFixedThreadPool(50);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Optional<String>>> futures = new ArrayList<>();
+        for (long userId = 1; userId <= attendees; userId++) {
+            long attendeeId = userId;
+            futures.add(executor.submit(() -> {
+                start.await();
+                return registrationStatusCollapser.getStatus(eventId, attendeeId);
+            }));
+        }
+        start.countDown();
+
+        for (int i = 0; i < attendees; i++) {
+            assertEquals(Optional.of(i % 2 == 0 ? "APPROVED" : "PENDING"), futures.get(i).get());
+        }
+        executor.shutdown();
+        int bulkCalls = REGISTRATION_SERVICE.requests(BULK_PATH) - bulkBefore;
+        assertEquals(singleBefore, REGISTRATION_SERVICE.requests(SINGLE_PATH));
+        assertTrue(bulkCalls <= attendees / 3, "Bulk calls: " + bulkCalls);
+    }
+
+    @DisplayName("Проверки разных событий не попадают в один пакет")
+    @Test
+    void batchesPerEvent() throws Exception {
+        int bulkBefore = REGISTRATION_SERVICE.requests(BULK_PATH);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        Future<Optional<String>> first = executor.submit(() -> registrationStatusCollapser.getStatus(eventId, 1L));
+        Future<Optional<String>> second =
+                executor.submit(() -> registrationStatusCollapser.getStatus(EVENT_IDS.incrementAndGet(), 2L));
+
+        assertEquals(Optional.of("APPROVED"), first.get());
+        assertEquals(Optional.of("PENDING"), second.get());
+        executor.shutdown();
+        assertEquals(bulkBefore + 2, REGISTRATION_SERVICE.requests(BULK_PATH));
+    }
+
+    @DisplayName("Отмена первой проверки пакета не срывает проверки остальных")
+    @Test
+    void cancelledFirstLookupDoesNotFailOthers() throws Exception {
+        REGISTRATION_SERVICE.answer(BULK_PATH, 300, 200, "application/json", (path, body) -> statuses(body));
+        int bulkBefore = REGISTRATION_SERVICE.requests(BULK_PATH);
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+
+        Future<Optional<String>> first = executor.submit(() -> registrationStatusCollapser.getStatus(eventId, 1L));
+        Thread.sleep(50);
+        Future<Optional<String>> second = executor.submit(() -> registrationStatusCollapser.getStatus(eventId, 2L));
+        Future<Optional<String>> third = executor.submit(() -> registrationStatusCollapser.getStatus(eventId, 3L));
+        // Within the window: the first request gives up before the bulk call is made.
+        Thread.sleep(50);
+        first.cancel(true);
+
+        assertEquals(Optional.of("PENDING"), second.get());
+        assertEquals(Optional.of("APPROVED"), third.get());
+        executor.shutdown();
+        assertEquals(bulkBefore + 1, REGISTRATION_SERVICE.requests(BULK_PATH));
+    }
+
+    @DisplayName("Без пакетного запроса статусы проверяются по одному, пакетный пробуется снова через время")
+    @Test
+    void fallsBackToSingleLookups() throws Exception {
+        REGISTRATION_SERVICE.answer(BULK_PATH, 0, 404, "application/json", (path, body) -> "");
+        REGISTRATION_SERVICE.answer(0, 200, "text/plain", path -> "PENDING");
+        int singleBefore = REGISTRATION_SERVICE.requests(SINGLE_PATH);
+        int bulkBefore = REGISTRATION_SERVICE.requests(BULK_PATH);
+
+        assertEquals(List.of(Optional.of("PENDING"), Optional.of("PENDING")), lookUpConcurrently(eventId, 1L, 3L));
+        assertEquals(Optional.of("PENDING"), registrationStatusCollapser.getStatus(eventId, 5L));
+
+        assertEquals(bulkBefore + 1, REGISTRATION_SERVICE.requests(BULK_PATH));
+        assertEquals(singleBefore + 3, REGISTRATION_SERVICE.requests(SINGLE_PATH));
+
+        REGISTRATION_SERVICE.answer(BULK_PATH, 0, 200, "application/json", (path, body) -> statuses(body));
+        Thread.sleep(600);
+        assertEquals(Optional.of("APPROVED"), registrationStatusCollapser.getStatus(eventId, 7L));
+        assertEquals(bulkBefore + 2, REGISTRATION_SERVICE.requests(BULK_PATH));
+    }
+
+    private List<Optional<String>> lookUpConcurrently(Long eventId, Long... userIds) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(userIds.length);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Optional<String>>> futures = new ArrayList<>();
+        for (Long userId : userIds) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                return registrationStatusCollapser.getStatus(eventId, userId);
+            }));
+        }
+        start.countDown();
+        List<Optional<String>> statuses = new ArrayList<>();
+        for (Future<Optional<String>> future : futures) {
+            statuses.add(future.get());
+        }
+        executor.shutdown();
+        return statuses;
+    }
+
+    private static String statuses(String userIds) {
+        return Arrays.stream(userIds.replaceAll("[\\[\\]\\s]", "").split(","))
+                .map(Long::valueOf)
+                .filter(userId -> userId < UNKNOWN_USER_ID)
+                .map(userId -> String.format("\"%d\": \"%s\"", userId, userId % 2 == 1 ? "APPROVED" : "PENDING"))
+                .collect(Collectors.joining(", ", "{", "}"));
+    }
+}
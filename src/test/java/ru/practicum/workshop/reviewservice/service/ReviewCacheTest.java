@@ -0,0 +1,183 @@
+package ru.practicum.workshop.reviewservice.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.workshop.reviewservice.dto.ReviewDto;
+import ru.practicum.workshop.reviewservice.model.Review;
+import ru.practicum.workshop.reviewservice.service.ReviewCache.CachedReview;
+import ru.practicum.workshop.reviewservice.model.User;
+import ru.practicum.workshop.reviewservice.storage.AuthorReviewStatsStorage;
+import ru.practicum.workshop.reviewservice.storage.EventReviewStatsStorage;
+import ru.practicum.workshop.reviewservice.storage.OpinionStorage;
+import ru.practicum.workshop.reviewservice.storage.ReviewStorage;
+import ru.practicum.workshop.reviewservice.storage.UserStorage;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles(value = "test")
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class ReviewCacheTest {
+    private static final Long EVENT_ID = 8_000_000L;
+    private static final Long AUTHOR_ID = 8_000_001L;
+    private static final int READERS = 4;
+    private static final int VOTES = 100;
+
+    private final ReviewService reviewService;
+    private final ReviewStorage reviewStorage;
+    private final UserStorage userStorage;
+    private final OpinionStorage opinionStorage;
+    private final EventReviewStatsStorage eventReviewStatsStorage;
+    private final AuthorReviewStatsStorage authorReviewStatsStorage;
+    private final ReviewCache reviewCache;
+    private final MeterRegistry meterRegistry;
+
+    private Review review;
+
+    @BeforeEach
+    void beforeEach() {
+        User author = userStorage.save(new User(AUTHOR_ID, "author"));
+        review = reviewStorage.save(Review.builder()
+                .author(author)
+                .eventId(EVENT_ID)
+                .title("title")
+                .content("content")
+                .createdOn(LocalDateTime.now())
+                .mark(7)
+                .build());
+        reviewCache.invalidateAll();
+    }
+
+    @AfterEach
+    void afterEach() {
+        opinionStorage.deleteAll();
+        reviewStorage.findById(review.getId()).ifPresent(reviewStorage::delete);
+        userStorage.deleteById(AUTHOR_ID);
+        eventReviewStatsStorage.findById(EVENT_ID).ifPresent(eventReviewStatsStorage::delete);
+        authorReviewStatsStorage.findById(AUTHOR_ID).ifPresent(authorReviewStatsStorage::delete);
+        reviewCache.invalidateAll();
+    }
+
+    @DisplayName("Повторное чтение отзыва берётся из кэша, попадания и промахи видны в метриках")
+    @Test
+    void repeatedReadsHitCache() {
+        double hits = cacheGets("hit");
+        double misses = cacheGets("miss");
+
+        ReviewDto first = reviewService.getReviewDtoById(review.getId());
+        ReviewDto second = reviewService.getReviewDtoById(review.getId());
+
+        assertEquals(first, second);
+        assertEquals(hits + 1, cacheGets("hit"));
+        assertEquals(misses + 1, cacheGets("miss"));
+    }
+
+    @DisplayName("Правка, оценка, переименование автора и удаление отзыва сбрасывают его из кэша")
+    @Test
+    void writesInvalidateReview() {
+        reviewService.getReviewDtoById(review.getId());
+
+        reviewService.addLike(review.getId(), 1L);
+        assertEquals(1L, reviewService.getReviewDtoById(review.getId()).getLikes());
+
+        reviewService.addDislike(review.getId(), 2L);
+        reviewService.removeLike(review.getId(), 1L);
+        assertEquals(0L, reviewService.getReviewDtoById(review.getId()).getLikes());
+        assertEquals(1L, reviewService.getReviewDtoById(review.getId()).getDislikes());
+
+        reviewService.updateReview(Review.builder()
+                .id(review.getId())
+                .author(new User(AUTHOR_ID, "renamed author"))
+                .mark(3)
+                .updatedOn(LocalDateTime.now())
+                .build());
+        ReviewDto updated = reviewService.getReviewDtoById(review.getId());
+        assertEquals(3, updated.getMark());
+        assertEquals("renamed author", updated.getUsername());
+
+        reviewService.deleteReview(review.getId(), AUTHOR_ID);
+        assertThrows(EntityNotFoundException.class, () -> reviewService.getReviewDtoById(review.getId()));
+    }
+
+    @DisplayName("Отзыв перечитывается не позже чем через ttl, даже если другой экземпляр сервиса не сбросил его")
+    @Test
+    void cachedReviewExpiresAfterTtl() throws Exception {
+        ReviewCache shortLived = new ReviewCache(100, Duration.ofMillis(200), new SimpleMeterRegistry());
+        ReviewDto dto = reviewService.getReviewDtoById(review.getId());
+        AtomicInteger loads = new AtomicInteger();
+        Function<Long, CachedReview> loader = id -> {
+            loads.incrementAndGet();
+            return new CachedReview(AUTHOR_ID, dto);
+        };
+
+        shortLived.get(review.getId(), loader);
+        shortLived.get(review.getId(), loader);
+        assertEquals(1, loads.get());
+        Thread.sleep(400);
+        shortLived.get(review.getId(), loader);
+
+        assertEquals(2, loads.get());
+    }
+
+    @DisplayName("После фиксации оценки читатели не получают устаревших счётчиков из кэша")
+    @Test
+    void committedVotesAreNeverReadStale() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(READERS);
+        AtomicBoolean voting = new AtomicBoolean(true);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> readers = new ArrayList<>();
+        for (int reader = 0; reader < READERS; reader++) {
+            readers.add(executor.submit(() -> {
+                start.await();
+                long lastSeen = 0;
+                while (voting.get()) {
+                    long likes = reviewService.getReviewDtoById(review.getId()).getLikes();
+                    assertTrue(likes >= lastSeen, "Likes went back from " + lastSeen + " to " + likes);
+                    lastSeen = likes;
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        try {
+            for (long evaluatorId = 1; evaluatorId <= VOTES; evaluatorId++) {
+                reviewService.addLike(review.getId(), evaluatorId);
+                assertEquals(evaluatorId, reviewService.getReviewDtoById(review.getId()).getLikes());
+            }
+        } finally {
+            voting.set(false);
+        }
+        for (Future<?> reader : readers) {
+            reader.get();
+        }
+        executor.shutdown();
+    }
+
+    private double cacheGets(String result) {
+        return meterRegistry.get("cache.gets").tag("cache", "reviews").tag("result", result)
+                .functionCounter().count();
+    }
+}
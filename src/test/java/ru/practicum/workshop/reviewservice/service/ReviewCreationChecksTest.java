@@ -0,0 +1,227 @@
+package ru.practicum.workshop.reviewservice.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import ru.practicum.workshop.reviewservice.exception.ConflictException;
+import ru.practicum.workshop.reviewservice.exception.ForbiddenException;
+import ru.practicum.workshop.reviewservice.exception.GatewayTimeoutException;
+import ru.practicum.workshop.reviewservice.model.Review;
+import ru.practicum.workshop.reviewservice.model.User;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the checks against local stub servers that answer after a set delay, so the time a check takes shows
+ * whether the two calls overlapped.
+ */
+@SpringBootTest(properties = {
+        "review-service.create.checks-timeout=2s",
+        "review-service.attendance-token.hmac-key=" + AttendanceTokens.HMAC_KEY
+})
+@ActiveProfiles(value = "test")
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class ReviewCreationChecksTest {
+    private static final long DELAY_MILLIS = 500;
+    private static final int CONCURRENT_CREATIONS = 60;
+    private static final AtomicLong EVENT_IDS = new AtomicLong(9_000_000L);
+    private static final StubHttpServer EVENT_SERVICE = new StubHttpServer("/events/");
+    private static final String REGISTRATION_PATH = "/registrations/internal/status-of-registration/";
+    private static final StubHttpServer REGISTRATION_SERVICE = new StubHttpServer(REGISTRATION_PATH);
+
+    private final ReviewCreationChecks reviewCreationChecks;
+    private final MeterRegistry meterRegistry;
+
+    private Review review;
+
+    @DynamicPropertySource
+    static void serviceUrls(DynamicPropertyRegistry registry) {
+        registry.add("review-service.event-service.url", EVENT_SERVICE::url);
+        registry.add("review-service.registration-service.url", REGISTRATION_SERVICE::url);
+    }
+
+    @AfterAll
+    static void afterAll() {
+        EVENT_SERVICE.stop();
+        REGISTRATION_SERVICE.stop();
+    }
+
+    @BeforeEach
+    void beforeEach() {
+        EVENT_SERVICE.answer(0, 200, "application/json", ReviewCreationChecksTest::endedEvent);
+        REGISTRATION_SERVICE.answer(0, 200, "text/plain", path -> "APPROVED");
+        // Warms up the clients and their connections, so that only the stub delays are measured.
+        reviewCreationChecks.check(newReview());
+        review = newReview();
+    }
+
+    @DisplayName("Проверки события и регистрации идут параллельно и ждут только более медленную")
+    @Test
+    void runsChecksInParallel() {
+        EVENT_SERVICE.answer(DELAY_MILLIS, 200, "application/json", ReviewCreationChecksTest::endedEvent);
+        REGISTRATION_SERVICE.answer(DELAY_MILLIS, 200, "text/plain", path -> "APPROVED");
+
+        long millis = millisOf(() -> assertDoesNotThrow(() -> reviewCreationChecks.check(review)));
+
+        assertTrue(millis >= DELAY_MILLIS, "Checks took " + millis + " ms");
+        assertTrue(millis < 2 * DELAY_MILLIS - 100, "Checks took " + millis + " ms");
+    }
+
+    @DisplayName("Ненайденное событие сразу отклоняет отзыв, не дожидаясь проверки регистрации")
+    @Test
+    void eventFailureDoesNotWaitForRegistration() {
+        EVENT_SERVICE.answer(0, 404, "application/json", path -> "{}");
+        REGISTRATION_SERVICE.answer(3 * DELAY_MILLIS, 200, "text/plain", path -> "APPROVED");
+
+        long millis = millisOf(() -> assertThrows(ConflictException.class, () -> reviewCreationChecks.check(review)));
+
+        assertTrue(millis < 2 * DELAY_MILLIS, "Checks took " + millis + " ms");
+    }
+
+    @DisplayName("Незавершённое событие важнее отказа в регистрации, даже если тот пришёл раньше")
+    @Test
+    void eventFailureWinsOverEarlierRegistrationFailure() {
+        EVENT_SERVICE.answer(DELAY_MILLIS, 200, "application/json",
+                path -> event(path, LocalDateTime.now().plusDays(1)));
+        REGISTRATION_SERVICE.answer(0, 404, "text/plain", path -> "");
+
+        assertThrows(ConflictException.class, () -> reviewCreationChecks.check(review));
+    }
+
+    @DisplayName("Неподтверждённая регистрация отклоняет отзыв к завершённому событию")
+    @Test
+    void registrationFailureAfterEventPasses() {
+        REGISTRATION_SERVICE.answer(0, 200, "text/plain", path -> "PENDING");
+
+        assertThrows(ForbiddenException.class, () -> reviewCreationChecks.check(review));
+    }
+
+    @DisplayName("Проверки, не уложившиеся в общий срок, отменяются")
+    @Test
+    void failsAfterDeadline() {
+        EVENT_SERVICE.answer(6 * DELAY_MILLIS, 200, "application/json", ReviewCreationChecksTest::endedEvent);
+
+        long millis = millisOf(() -> assertThrows(GatewayTimeoutException.class,
+                () -> reviewCreationChecks.check(review)));
+
+        assertTrue(millis < 5 * DELAY_MILLIS, "Checks took " + millis + " ms");
+    }
+
+    @DisplayName("Одновременные создания отзывов, которых меньше потоков пула, не ждут друг друга")
+    @Test
+    void concurrentCreationsDoNotQueue() throws Exception {
+        EVENT_SERVICE.answer(DELAY_MILLIS, 200, "application/json", ReviewCreationChecksTest::endedEvent);
+        REGISTRATION_SERVICE.answer(DELAY_MILLIS, 200, "text/plain", path -> "APPROVED");
+        ExecutorService executor = Executors.newFixedThreadPool(CONCURRENT_CREATIONS);
+        List<Future<?>> creations = new ArrayList<>();
+
+        long millis = millisOf(() -> {
+            for (int i = 0; i < CONCURRENT_CREATIONS; i++) {
+                Review concurrentReview = newReview();
+                creations.add(executor.submit(() -> reviewCreationChecks.check(concurrentReview)));
+            }
+            creations.forEach(creation -> assertDoesNotThrow(() -> creation.get()));
+        });
+        executor.shutdown();
+
+        assertTrue(millis < 3 * DELAY_MILLIS, "Checks took " + millis + " ms");
+    }
+
+    @DisplayName("Вызовы каждого сервиса попадают в его гистограмму с кодом ответа")
+    @Test
+    void timesCallsPerClientAndStatus() {
+        REGISTRATION_SERVICE.answer(0, 200, "text/plain", path -> "PENDING");
+
+        assertThrows(ForbiddenException.class, () -> reviewCreationChecks.check(review));
+
+        assertTrue(requests("event-service-client", "200") >= 2);
+        assertTrue(requests("registration-service-client", "200") >= 2);
+    }
+
+    @DisplayName("Действующий токен участия заменяет обращение к сервису регистраций")
+    @Test
+    void validAttendanceTokenSkipsRegistrationCall() {
+        REGISTRATION_SERVICE.answer(3 * DELAY_MILLIS, 404, "text/plain", path -> "");
+        int registrationCalls = REGISTRATION_SERVICE.requests(REGISTRATION_PATH);
+
+        long millis = millisOf(() -> assertDoesNotThrow(
+                () -> reviewCreationChecks.check(review, attendanceToken(review, "APPROVED"))));
+
+        assertTrue(millis < DELAY_MILLIS, "Checks took " + millis + " ms");
+        assertEquals(registrationCalls, REGISTRATION_SERVICE.requests(REGISTRATION_PATH));
+    }
+
+    @DisplayName("Токен с неподтверждённой регистрацией отклоняет отзыв без обращения к сервису регистраций")
+    @Test
+    void attendanceTokenWithPendingRegistrationIsForbidden() {
+        int registrationCalls = REGISTRATION_SERVICE.requests(REGISTRATION_PATH);
+
+        assertThrows(ForbiddenException.class,
+                () -> reviewCreationChecks.check(review, attendanceToken(review, "PENDING")));
+        assertEquals(registrationCalls, REGISTRATION_SERVICE.requests(REGISTRATION_PATH));
+    }
+
+    @DisplayName("С недействительным токеном регистрация проверяется в сервисе регистраций")
+    @Test
+    void invalidAttendanceTokenFallsBackToRegistrationCall() {
+        REGISTRATION_SERVICE.answer(0, 200, "text/plain", path -> "PENDING");
+        int registrationCalls = REGISTRATION_SERVICE.requests(REGISTRATION_PATH);
+        String foreignToken = AttendanceTokens.hmac(AttendanceTokens.HMAC_KEY, review.getEventId() + 1,
+                review.getAuthor().getId(), "APPROVED", Instant.now().plusSeconds(60).getEpochSecond());
+
+        assertThrows(ForbiddenException.class, () -> reviewCreationChecks.check(review, foreignToken));
+        assertEquals(registrationCalls + 1, REGISTRATION_SERVICE.requests(REGISTRATION_PATH));
+    }
+
+    private static String attendanceToken(Review review, String status) {
+        return AttendanceTokens.hmac(AttendanceTokens.HMAC_KEY, review.getEventId(), review.getAuthor().getId(),
+                status, Instant.now().plusSeconds(60).getEpochSecond());
+    }
+
+    private long requests(String client, String status) {
+        return meterRegistry.get("review-service.downstream.requests").tag("client", client).tag("status", status)
+                .timer().count();
+    }
+
+    private static Review newReview() {
+        // Every review is for a new event, so no check is answered from the event cache.
+        return Review.builder()
+                .author(new User(1L, "author"))
+                .eventId(EVENT_IDS.incrementAndGet())
+                .build();
+    }
+
+    private static long millisOf(Runnable action) {
+        long start = System.nanoTime();
+        action.run();
+        return (System.nanoTime() - start) / 1_000_000;
+    }
+
+    private static String endedEvent(String path) {
+        return event(path, LocalDateTime.now().minusDays(1));
+    }
+
+    private static String event(String path, LocalDateTime end) {
+        return String.format("{\"id\": %s, \"endDateTime\": \"%s\"}", path.substring(path.lastIndexOf('/') + 1), end);
+    }
+}
@@ -0,0 +1,133 @@
+package ru.practicum.workshop.reviewservice.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import ru.practicum.workshop.reviewservice.model.Review;
+import ru.practicum.workshop.reviewservice.model.User;
+import ru.practicum.workshop.reviewservice.storage.AuthorReviewStatsStorage;
+import ru.practicum.workshop.reviewservice.storage.EventReviewStatsStorage;
+import ru.practicum.workshop.reviewservice.storage.ReviewStorage;
+import ru.practicum.workshop.reviewservice.storage.UserStorage;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Creates reviews while the downstream services answer slowly, with fewer pooled connections than concurrent
+ * creates. Reads must not queue behind the creates for a connection.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.hikari.maximum-pool-size=2",
+        "spring.datasource.hikari.connection-timeout=1000"
+})
+@ActiveProfiles(value = "test")
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class ReviewCreationConnectionTest {
+    private static final Long EVENT_ID = 9_500_000L;
+    private static final long FIRST_AUTHOR_ID = 9_500_001L;
+    private static final int CREATES = 4;
+    private static final long DELAY_MILLIS = 1500;
+    private static final StubHttpServer EVENT_SERVICE = new StubHttpServer("/events/");
+    private static final StubHttpServer REGISTRATION_SERVICE =
+            new StubHttpServer("/registrations/internal/status-of-registration/");
+
+    private final ReviewService reviewService;
+    private final ReviewStorage reviewStorage;
+    private final UserStorage userStorage;
+    private final EventReviewStatsStorage eventReviewStatsStorage;
+    private final AuthorReviewStatsStorage authorReviewStatsStorage;
+    private final MeterRegistry meterRegistry;
+
+    private Review review;
+
+    @DynamicPropertySource
+    static void serviceUrls(DynamicPropertyRegistry registry) {
+        registry.add("review-service.event-service.url", EVENT_SERVICE::url);
+        registry.add("review-service.registration-service.url", REGISTRATION_SERVICE::url);
+    }
+
+    @AfterAll
+    static void afterAll() {
+        EVENT_SERVICE.stop();
+        REGISTRATION_SERVICE.stop();
+    }
+
+    @BeforeEach
+    void beforeEach() {
+        EVENT_SERVICE.answer(DELAY_MILLIS, 200, "application/json", path ->
+                String.format("{\"id\": %d, \"endDateTime\": \"%s\"}", EVENT_ID, LocalDateTime.now().minusDays(1)));
+        REGISTRATION_SERVICE.answer(DELAY_MILLIS, 200, "text/plain", path -> "APPROVED");
+        Review existing = review(FIRST_AUTHOR_ID - 1);
+        existing.setAuthor(userStorage.save(existing.getAuthor()));
+        review = reviewStorage.save(existing);
+    }
+
+    @AfterEach
+    void afterEach() {
+        reviewStorage.deleteAll(reviewStorage.findAll().stream()
+                .filter(review -> review.getEventId().equals(EVENT_ID))
+                .toList());
+        for (long authorId = FIRST_AUTHOR_ID - 1; authorId < FIRST_AUTHOR_ID + CREATES; authorId++) {
+            userStorage.findById(authorId).ifPresent(userStorage::delete);
+            authorReviewStatsStorage.findById(authorId).ifPresent(authorReviewStatsStorage::delete);
+        }
+        eventReviewStatsStorage.findById(EVENT_ID).ifPresent(eventReviewStatsStorage::delete);
+    }
+
+    @DisplayName("Создание отзыва не держит соединение с базой, пока ждёт ответов других сервисов")
+    @Test
+    void readsStayFastWhileCreatesWaitForDownstream() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(CREATES);
+        List<Future<Review>> creates = new ArrayList<>();
+        for (int i = 0; i < CREATES; i++) {
+            long authorId = FIRST_AUTHOR_ID + i;
+            creates.add(executor.submit(() -> reviewService.createReview(review(authorId))));
+        }
+        Thread.sleep(DELAY_MILLIS / 5);
+
+        for (int i = 0; i < 5; i++) {
+            long start = System.nanoTime();
+            assertEquals(review.getId(), reviewService.getReviewById(review.getId()).getId());
+            long millis = (System.nanoTime() - start) / 1_000_000;
+            assertTrue(millis < DELAY_MILLIS / 3, "Read took " + millis + " ms");
+        }
+        assertTrue(creates.stream().noneMatch(Future::isDone));
+
+        for (Future<Review> create : creates) {
+            assertEquals(EVENT_ID, create.get().getEventId());
+        }
+        executor.shutdown();
+        double maxHoldMillis = meterRegistry.get("hikaricp.connections.usage").timer().max(TimeUnit.MILLISECONDS);
+        assertTrue(maxHoldMillis < DELAY_MILLIS / 3, "A connection was held for " + maxHoldMillis + " ms");
+    }
+
+    private static Review review(long authorId) {
+        return Review.builder()
+                .author(new User(authorId, "author " + authorId))
+                .eventId(EVENT_ID)
+                .title("title")
+                .content("content")
+                .createdOn(LocalDateTime.now())
+                .updatedOn(LocalDateTime.now())
+                .mark(7)
+                .build();
+    }
+}
@@ -0,0 +1,110 @@
+package ru.practicum.workshop.reviewservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.workshop.reviewservice.dto.ReviewDto;
+import ru.practicum.workshop.reviewservice.enums.ReviewExportFormat;
+import ru.practicum.workshop.reviewservice.model.Review;
+import ru.practicum.workshop.reviewservice.model.User;
+import ru.practicum.workshop.reviewservice.storage.ReviewStorage;
+import ru.practicum.workshop.reviewservice.storage.UserStorage;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+@ActiveProfiles(value = "test")
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class ReviewExportServiceTest {
+    private static final Long EVENT_ID = 5_000_000L;
+    private static final Long AUTHOR_ID = 5_000_000L;
+    private static final LocalDateTime CREATED_ON = LocalDateTime.of(2024, 5, 1, 12, 0);
+
+    private final ReviewExportService reviewExportService;
+    private final ReviewStorage reviewStorage;
+    private final UserStorage userStorage;
+    private final ObjectMapper objectMapper;
+
+    private Review older;
+    private Review newer;
+
+    @BeforeEach
+    void beforeEach() {
+        User author = userStorage.save(new User(AUTHOR_ID, "exporter"));
+        older = reviewStorage.save(Review.builder()
+                .author(author)
+                .eventId(EVENT_ID)
+                .title("plain")
+                .content("content")
+                .createdOn(CREATED_ON)
+                .mark(7)
+                .build());
+        newer = reviewStorage.save(Review.builder()
+                .author(author)
+                .eventId(EVENT_ID)
+                .title("with, comma")
+                .content("line \"one\"\nline two")
+                .createdOn(CREATED_ON.plusDays(1))
+                .mark(3)
+                .likes(2)
+                .build());
+    }
+
+    @AfterEach
+    void afterEach() {
+        reviewStorage.deleteAllById(List.of(older.getId(), newer.getId()));
+        userStorage.deleteById(AUTHOR_ID);
+    }
+
+    @DisplayName("Выгрузка отзывов события в NDJSON")
+    @Test
+    void exportByEventAsNdjson() throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        long count = reviewExportService.exportByEvent(EVENT_ID, ReviewExportFormat.NDJSON, output);
+
+        String[] lines = output.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, count);
+        assertEquals(2, lines.length);
+        ReviewDto first = objectMapper.readValue(lines[0], ReviewDto.class);
+        assertEquals(newer.getId(), first.getId());
+        assertEquals("exporter", first.getUsername());
+        assertEquals(2L, first.getLikes());
+        assertEquals(older.getId(), objectMapper.readValue(lines[1], ReviewDto.class).getId());
+    }
+
+    @DisplayName("Выгрузка отзывов автора в CSV")
+    @Test
+    void exportByAuthorAsCsv() {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        long count = reviewExportService.exportByAuthor(AUTHOR_ID, ReviewExportFormat.CSV, output);
+
+        assertEquals(2, count);
+        assertEquals("id,eventId,username,title,content,createdOn,updatedOn,mark,likes,dislikes\n"
+                        + newer.getId() + "," + EVENT_ID + ",exporter,\"with, comma\",\"line \"\"one\"\"\nline two\","
+                        + CREATED_ON.plusDays(1) + ",,3,2,0\n"
+                        + older.getId() + "," + EVENT_ID + ",exporter,plain,content," + CREATED_ON + ",,7,0,0\n",
+                output.toString(StandardCharsets.UTF_8));
+    }
+
+    @DisplayName("Выгрузка отзывов события без отзывов")
+    @Test
+    void exportEmptyEvent() {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        assertEquals(0, reviewExportService.exportByEvent(EVENT_ID + 1, ReviewExportFormat.NDJSON, output));
+        assertEquals(0, output.size());
+    }
+}
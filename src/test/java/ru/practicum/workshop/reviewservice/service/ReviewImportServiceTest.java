@@ -0,0 +1,141 @@
+package ru.practicum.workshop.reviewservice.service;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import ru.practicum.workshop.reviewservice.dto.importing.ReviewImportError;
+import ru.practicum.workshop.reviewservice.dto.importing.ReviewImportResult;
+import ru.practicum.workshop.reviewservice.model.AuthorReviewStats;
+import ru.practicum.workshop.reviewservice.model.EventReviewStats;
+import ru.practicum.workshop.reviewservice.model.Review;
+import ru.practicum.workshop.reviewservice.model.User;
+import ru.practicum.workshop.reviewservice.storage.AuthorReviewStatsStorage;
+import ru.practicum.workshop.reviewservice.storage.EventReviewStatsStorage;
+import ru.practicum.workshop.reviewservice.storage.ReviewStorage;
+import ru.practicum.workshop.reviewservice.storage.UserStorage;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static ru.practicum.workshop.reviewservice.dto.ReviewDtoValidationConstants.MARK_MAX_ERROR_MESSAGE;
+
+@SpringBootTest
+@ActiveProfiles(value = "test")
+@TestPropertySource(properties = {
+        "review-service.import.chunk-size=2",
+        "review-service.import.max-errors=2"
+})
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class ReviewImportServiceTest {
+    private static final Long EVENT_ID = 4_000_000L;
+    private static final Long FIRST_AUTHOR_ID = 4_000_001L;
+    private static final Long SECOND_AUTHOR_ID = 4_000_002L;
+
+    private final ReviewImportService reviewImportService;
+    private final ReviewStorage reviewStorage;
+    private final UserStorage userStorage;
+    private final EventReviewStatsStorage eventReviewStatsStorage;
+    private final AuthorReviewStatsStorage authorReviewStatsStorage;
+    @SpyBean
+    private ReviewImportWriter reviewImportWriter;
+
+    @AfterEach
+    void afterEach() {
+        reviewStorage.deleteAll(reviewStorage.findAll().stream()
+                .filter(review -> review.getEventId().equals(EVENT_ID))
+                .toList());
+        userStorage.findById(FIRST_AUTHOR_ID).ifPresent(userStorage::delete);
+        userStorage.findById(SECOND_AUTHOR_ID).ifPresent(userStorage::delete);
+        eventReviewStatsStorage.findById(EVENT_ID).ifPresent(eventReviewStatsStorage::delete);
+        authorReviewStatsStorage.findById(FIRST_AUTHOR_ID).ifPresent(authorReviewStatsStorage::delete);
+        authorReviewStatsStorage.findById(SECOND_AUTHOR_ID).ifPresent(authorReviewStatsStorage::delete);
+    }
+
+    @DisplayName("Импорт отзывов из NDJSON с ошибками в отдельных строках")
+    @Test
+    void importReviews() {
+        userStorage.save(new User(FIRST_AUTHOR_ID, "old name"));
+        String input = String.join("\n",
+                review(FIRST_AUTHOR_ID, "first", 9, "\"createdOn\":\"2020-01-01T10:00:00\""),
+                "",
+                review(SECOND_AUTHOR_ID, "second", 2, null),
+                "{\"authorId\":",
+                review(FIRST_AUTHOR_ID, "first", 11, null),
+                review(FIRST_AUTHOR_ID, "renamed", 5, null),
+                "null");
+
+        ReviewImportResult result = reviewImportService.importReviews(
+                new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(3, result.getImported());
+        assertEquals(3, result.getFailed());
+        assertEquals(2, result.getErrors().size());
+        assertEquals(4, result.getErrors().get(0).getLine());
+        assertTrue(result.getErrors().get(0).getMessage().startsWith("Malformed JSON"));
+        assertEquals(new ReviewImportError(5, MARK_MAX_ERROR_MESSAGE), result.getErrors().get(1));
+
+        List<Review> reviews = reviewStorage.findAll().stream()
+                .filter(review -> review.getEventId().equals(EVENT_ID))
+                .toList();
+        assertEquals(3, reviews.size());
+        assertTrue(reviews.stream().anyMatch(review -> review.getCreatedOn().equals(LocalDateTime.of(2020, 1, 1, 10, 0))));
+        assertEquals("renamed", userStorage.findById(FIRST_AUTHOR_ID).orElseThrow().getUsername());
+        assertEquals("second", userStorage.findById(SECOND_AUTHOR_ID).orElseThrow().getUsername());
+
+        EventReviewStats eventStats = eventReviewStatsStorage.findById(EVENT_ID).orElseThrow();
+        assertEquals(3, eventStats.getReviewsCount());
+        assertEquals(16, eventStats.getMarkSum());
+        assertEquals(1, eventStats.getPositiveCount());
+        assertEquals(2, eventStats.getNegativeCount());
+        AuthorReviewStats authorStats = authorReviewStatsStorage.findById(FIRST_AUTHOR_ID).orElseThrow();
+        assertEquals(2, authorStats.getReviewsCount());
+        assertEquals(14, authorStats.getMarkSum());
+    }
+
+    @DisplayName("Если пакет не сохранился, строки сохраняются по одной и ошибка относится только к неудачной")
+    @Test
+    void importReviewsLineByLineAfterFailedChunk() {
+        doAnswer(invocation -> {
+            List<Review> reviews = invocation.getArgument(0);
+            if (reviews.stream().anyMatch(review -> "broken".equals(review.getTitle()))) {
+                throw new DataIntegrityViolationException("Broken review");
+            }
+            return invocation.callRealMethod();
+        }).when(reviewImportWriter).write(anyList());
+        String input = String.join("\n",
+                review(FIRST_AUTHOR_ID, "first", 9, null),
+                review(SECOND_AUTHOR_ID, "second", 2, "\"title\":\"broken\"").replace("\"title\":\"title\",", ""),
+                review(SECOND_AUTHOR_ID, "second", 4, null));
+
+        ReviewImportResult result = reviewImportService.importReviews(
+                new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(2, result.getImported());
+        assertEquals(1, result.getFailed());
+        assertEquals(List.of(new ReviewImportError(2, "Review was not saved: Broken review")), result.getErrors());
+        assertEquals(2, eventReviewStatsStorage.findById(EVENT_ID).orElseThrow().getReviewsCount());
+        assertEquals(List.of(9), reviewStorage.findAll().stream()
+                .filter(review -> review.getAuthor().getId().equals(FIRST_AUTHOR_ID))
+                .map(Review::getMark)
+                .toList());
+    }
+
+    private static String review(Long authorId, String username, int mark, String extraField) {
+        return "{\"authorId\":" + authorId + ",\"eventId\":" + EVENT_ID + ",\"username\":\"" + username + "\","
+                + "\"title\":\"title\",\"content\":\"content\",\"mark\":" + mark
+                + (extraField != null ? "," + extraField : "") + "}";
+    }
+}
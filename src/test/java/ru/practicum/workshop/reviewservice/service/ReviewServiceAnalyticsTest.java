@@ -1,6 +1,8 @@
 package ru.practicum.workshop.reviewservice.service;
 
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.Hibernate;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -10,14 +12,20 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.annotation.Rollback;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.workshop.reviewservice.dto.ReviewDto;
 import ru.practicum.workshop.reviewservice.dto.analytics.AuthorAverageMark;
 import ru.practicum.workshop.reviewservice.dto.analytics.BestAndWorstReviews;
 import ru.practicum.workshop.reviewservice.dto.analytics.EventAverageMark;
 import ru.practicum.workshop.reviewservice.dto.analytics.EventIndicators;
+import ru.practicum.workshop.reviewservice.dto.analytics.EventSummary;
+import ru.practicum.workshop.reviewservice.model.AuthorReviewStats;
+import ru.practicum.workshop.reviewservice.model.EventReviewStats;
 import ru.practicum.workshop.reviewservice.model.Review;
 import ru.practicum.workshop.reviewservice.model.User;
+import ru.practicum.workshop.reviewservice.storage.AuthorReviewStatsStorage;
+import ru.practicum.workshop.reviewservice.storage.EventReviewStatsStorage;
 import ru.practicum.workshop.reviewservice.storage.ReviewStorage;
 import ru.practicum.workshop.reviewservice.storage.UserStorage;
 
@@ -26,6 +34,7 @@ import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @Transactional
 @SpringBootTest
@@ -35,6 +44,10 @@ public class ReviewServiceAnalyticsTest {
     private final ReviewService reviewService;
     private final ReviewStorage reviewStorage;
     private final UserStorage userStorage;
+    private final EntityManager entityManager;
+    private final EventReviewStatsStorage eventReviewStatsStorage;
+    private final AuthorReviewStatsStorage authorReviewStatsStorage;
+    private final EventTopReviewsCache eventTopReviewsCache;
 
     private static Review review1;
     private static Review review2;
@@ -146,6 +159,7 @@ public class ReviewServiceAnalyticsTest {
     public void setup() {
         reviewStorage.deleteAll();
         userStorage.deleteAll();
+        eventTopReviewsCache.invalidateAll();
     }
 
     @DisplayName("Расчёт средней оценки по событию с учётом выполнения правила включения в расчёт по 3 ревью к событию 1")
@@ -380,4 +394,149 @@ public class ReviewServiceAnalyticsTest {
         assertEquals(bestReviewsSize, bestAndWorstReviews.getBestReviews().size());
         assertEquals(worstReviewsSize, bestAndWorstReviews.getWorstReviews().size());
     }
+
+    @DisplayName("Лучшие и худшие отзывы загружаются вместе с авторами")
+    @Rollback
+    @Test
+    public void findBestAndWorstReviewsWithAuthors() {
+        Long eventId = 2L;
+        entityManager.flush();
+        entityManager.clear();
+        List<Review> bestReviews = reviewStorage.findBestEvents(eventId, 5, 3);
+        List<Review> worstReviews = reviewStorage.findWorstEvents(eventId, 6, 3);
+        assertEquals(3, bestReviews.size());
+        assertEquals(2, worstReviews.size());
+        assertTrue(bestReviews.stream().allMatch(r -> Hibernate.isInitialized(r.getAuthor())));
+        assertTrue(worstReviews.stream().allMatch(r -> Hibernate.isInitialized(r.getAuthor())));
+    }
+
+    @DisplayName("Агрегаты события обновляются инкрементально и совпадают с пересчётом по отзывам")
+    @Rollback
+    @Test
+    public void eventStatsMatchRecomputedAggregates() {
+        Long eventId = review1.getEventId();
+        for (long i = 12; i <= 22; i++) {
+            reviewService.addDislike(review1.getId(), i);
+        }
+        reviewService.addLike(review2.getId(), 12L);
+        reviewService.removeDislike(review1.getId(), 12L);
+        reviewService.updateReview(Review.builder()
+                .id(review6.getId())
+                .author(author2)
+                .mark(3)
+                .updatedOn(LocalDateTime.now())
+                .build());
+        reviewService.deleteReview(review2.getId(), author2.getId());
+
+        EventReviewStats stats = eventReviewStatsStorage.findByEventId(eventId).orElseThrow();
+        EventReviewStats expectedStats = eventReviewStatsStorage.computeFromReviews(eventId, 5, 6, 10).orElseThrow();
+        assertEquals(expectedStats.getReviewsCount(), stats.getReviewsCount());
+        assertEquals(expectedStats.getPositiveCount(), stats.getPositiveCount());
+        assertEquals(expectedStats.getNegativeCount(), stats.getNegativeCount());
+        assertEquals(expectedStats.getMarkSum(), stats.getMarkSum());
+        assertEquals(expectedStats.getTrustedCount(), stats.getTrustedCount());
+        assertEquals(expectedStats.getTrustedMarkSum(), stats.getTrustedMarkSum());
+        assertEquals(2, stats.getTrustedCount());
+    }
+
+    @DisplayName("Агрегаты автора обновляются инкрементально и совпадают с пересчётом по отзывам")
+    @Rollback
+    @Test
+    public void authorStatsMatchRecomputedAggregates() {
+        Long authorId = author1.getId();
+        for (long i = 102; i <= 112; i++) {
+            reviewService.addDislike(review3.getId(), i);
+        }
+        for (long i = 102; i <= 113; i++) {
+            reviewService.addLike(review7.getId(), i);
+        }
+        reviewService.updateReview(Review.builder()
+                .id(review8.getId())
+                .author(author1)
+                .mark(6)
+                .updatedOn(LocalDateTime.now())
+                .build());
+        reviewService.deleteReview(review1.getId(), authorId);
+
+        AuthorReviewStats stats = authorReviewStatsStorage.findByAuthorId(authorId).orElseThrow();
+        AuthorReviewStats expectedStats = authorReviewStatsStorage.computeFromReviews(authorId, 10).orElseThrow();
+        assertEquals(expectedStats.getReviewsCount(), stats.getReviewsCount());
+        assertEquals(expectedStats.getMarkSum(), stats.getMarkSum());
+        assertEquals(expectedStats.getTrustedCount(), stats.getTrustedCount());
+        assertEquals(expectedStats.getTrustedMarkSum(), stats.getTrustedMarkSum());
+        assertEquals(2, stats.getTrustedCount());
+        assertEquals(Math.floor((review7.getMark() + 6) / 2.0 * 10) / 10,
+                reviewService.getAuthorAverageMark(authorId).getAverageMark());
+    }
+
+    private void assertEventSummary(Long eventId) {
+        EventSummary eventSummary = reviewService.getEventSummary(eventId);
+        EventAverageMark eventAverageMark = reviewService.getEventAverageMark(eventId);
+        EventIndicators eventIndicators = reviewService.getEventIndicators(eventId);
+        BestAndWorstReviews bestAndWorstReviews = reviewService.getBestAndWorstReviews(eventId);
+        assertEquals(eventId, eventSummary.getEventId());
+        assertEquals(eventAverageMark.getAverageMark(), eventSummary.getAverageMark().getAverageMark());
+        assertEquals(eventIndicators.getNumberOfReviews(), eventSummary.getIndicators().getNumberOfReviews());
+        assertEquals(eventIndicators.getPositiveReviewsPercent(),
+                eventSummary.getIndicators().getPositiveReviewsPercent());
+        assertEquals(eventIndicators.getNegativeReviewsPercent(),
+                eventSummary.getIndicators().getNegativeReviewsPercent());
+        assertEquals(bestAndWorstReviews.getBestReviews(), eventSummary.getBestAndWorstReviews().getBestReviews());
+        assertEquals(bestAndWorstReviews.getWorstReviews(), eventSummary.getBestAndWorstReviews().getWorstReviews());
+    }
+
+    @DisplayName("Сводная аналитика по событию совпадает с отдельными запросами")
+    @Rollback
+    @Test
+    public void getEventSummary() {
+        assertEventSummary(2L);
+        assertEventSummary(100L);
+    }
+
+    @DisplayName("Сводная аналитика по событию вне транзакции загружает лучшие и худшие отзывы параллельно")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @Test
+    public void getEventSummaryOutsideTransaction() {
+        assertEventSummary(2L);
+        assertEquals(3, reviewService.getEventSummary(2L).getBestAndWorstReviews().getBestReviews().size());
+    }
+
+    @DisplayName("Пакетная аналитика по событиям и авторам совпадает с отдельными запросами")
+    @Rollback
+    @Test
+    public void getAnalyticsForManyEventsAndAuthors() {
+        // The stats row of event 1 gets materialized, event 2 is computed from reviews, event 100 has no reviews.
+        reviewService.addLike(review1.getId(), Long.MAX_VALUE);
+        List<Long> eventIds = List.of(2L, 1L, 100L);
+        List<Long> authorIds = List.of(author2.getId(), author1.getId(), Long.MAX_VALUE);
+
+        List<EventAverageMark> averageMarks = reviewService.getEventAverageMarks(eventIds);
+        List<EventIndicators> indicators = reviewService.getEventIndicators(eventIds);
+        List<BestAndWorstReviews> bestAndWorstReviews = reviewService.getBestAndWorstReviews(eventIds);
+        for (int i = 0; i < eventIds.size(); i++) {
+            Long eventId = eventIds.get(i);
+            assertEquals(eventId, averageMarks.get(i).getEventId());
+            assertEquals(reviewService.getEventAverageMark(eventId).getAverageMark(),
+                    averageMarks.get(i).getAverageMark());
+            EventIndicators expectedIndicators = reviewService.getEventIndicators(eventId);
+            assertEquals(eventId, indicators.get(i).getEventId());
+            assertEquals(expectedIndicators.getNumberOfReviews(), indicators.get(i).getNumberOfReviews());
+            assertEquals(expectedIndicators.getPositiveReviewsPercent(), indicators.get(i).getPositiveReviewsPercent());
+            assertEquals(expectedIndicators.getNegativeReviewsPercent(), indicators.get(i).getNegativeReviewsPercent());
+            BestAndWorstReviews expectedReviews = reviewService.getBestAndWorstReviews(eventId);
+            assertEquals(eventId, bestAndWorstReviews.get(i).getEventId());
+            assertEquals(expectedReviews.getBestReviews(), bestAndWorstReviews.get(i).getBestReviews());
+            assertEquals(expectedReviews.getWorstReviews(), bestAndWorstReviews.get(i).getWorstReviews());
+        }
+        assertEquals(3, bestAndWorstReviews.get(0).getBestReviews().size());
+        assertEquals(2, bestAndWorstReviews.get(0).getWorstReviews().size());
+
+        List<AuthorAverageMark> authorAverageMarks = reviewService.getAuthorAverageMarks(authorIds);
+        for (int i = 0; i < authorIds.size(); i++) {
+            assertEquals(authorIds.get(i), authorAverageMarks.get(i).getAuthorId());
+            assertEquals(reviewService.getAuthorAverageMark(authorIds.get(i)).getAverageMark(),
+                    authorAverageMarks.get(i).getAverageMark());
+        }
+        assertNull(authorAverageMarks.get(2).getAverageMark());
+    }
 }
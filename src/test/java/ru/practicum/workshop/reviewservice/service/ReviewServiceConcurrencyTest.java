@@ -0,0 +1,180 @@
+package ru.practicum.workshop.reviewservice.service;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.workshop.reviewservice.model.AuthorReviewStats;
+import ru.practicum.workshop.reviewservice.model.EventReviewStats;
+import ru.practicum.workshop.reviewservice.model.Review;
+import ru.practicum.workshop.reviewservice.model.User;
+import ru.practicum.workshop.reviewservice.storage.AuthorReviewStatsStorage;
+import ru.practicum.workshop.reviewservice.storage.EventReviewStatsStorage;
+import ru.practicum.workshop.reviewservice.storage.OpinionStorage;
+import ru.practicum.workshop.reviewservice.storage.ReviewStorage;
+import ru.practicum.workshop.reviewservice.storage.UserStorage;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static ru.practicum.workshop.reviewservice.dto.Constants.LIMIT_OF_SUM_LIKES_DISLIKES;
+import static ru.practicum.workshop.reviewservice.dto.Constants.MARK_LIMITATION_NEGATIVE_REVIEWS;
+import static ru.practicum.workshop.reviewservice.dto.Constants.MARK_LIMITATION_POSITIVE_REVIEWS;
+
+@SpringBootTest
+@ActiveProfiles(value = "test")
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class ReviewServiceConcurrencyTest {
+    private static final Long EVENT_ID = 1_000_000L;
+    private static final Long AUTHOR_ID = 1_000_000L;
+    private static final int THREADS = 8;
+    private static final int VOTES_PER_THREAD = 25;
+    private static final int EDITS = 50;
+
+    private final ReviewService reviewService;
+    private final ReviewStorage reviewStorage;
+    private final UserStorage userStorage;
+    private final OpinionStorage opinionStorage;
+    private final EventReviewStatsStorage eventReviewStatsStorage;
+    private final AuthorReviewStatsStorage authorReviewStatsStorage;
+    private final ReviewStatsService reviewStatsService;
+
+    private Review review;
+
+    @BeforeEach
+    void beforeEach() {
+        User author = userStorage.save(new User(AUTHOR_ID, "concurrent author"));
+        review = reviewStorage.save(Review.builder()
+                .author(author)
+                .eventId(EVENT_ID)
+                .title("title")
+                .content("content")
+                .createdOn(LocalDateTime.now())
+                .mark(7)
+                .build());
+    }
+
+    @AfterEach
+    void afterEach() {
+        opinionStorage.deleteAll();
+        reviewStorage.deleteAll();
+        userStorage.deleteById(AUTHOR_ID);
+        eventReviewStatsStorage.findById(EVENT_ID).ifPresent(eventReviewStatsStorage::delete);
+        authorReviewStatsStorage.findById(AUTHOR_ID).ifPresent(authorReviewStatsStorage::delete);
+    }
+
+    @DisplayName("Параллельные лайки и дизлайки не теряют обновлений счётчиков")
+    @Test
+    void concurrentVotesKeepExactCounts() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int thread = 0; thread < THREADS; thread++) {
+            long firstEvaluatorId = 10_000L + (long) thread * VOTES_PER_THREAD;
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (long evaluatorId = firstEvaluatorId; evaluatorId < firstEvaluatorId + VOTES_PER_THREAD;
+                     evaluatorId++) {
+                    if (evaluatorId % 3 == 0) {
+                        reviewService.addDislike(review.getId(), evaluatorId);
+                    } else {
+                        reviewService.addLike(review.getId(), evaluatorId);
+                        if (evaluatorId % 5 == 0) {
+                            reviewService.addDislike(review.getId(), evaluatorId);
+                        }
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        long expectedLikes = 0;
+        long expectedDislikes = 0;
+        for (long evaluatorId = 10_000L; evaluatorId < 10_000L + THREADS * VOTES_PER_THREAD; evaluatorId++) {
+            boolean dislike = evaluatorId % 3 == 0;
+            boolean cancelledLike = !dislike && evaluatorId % 5 == 0;
+            if (dislike) {
+                expectedDislikes++;
+            } else if (!cancelledLike) {
+                expectedLikes++;
+            }
+        }
+        Review savedReview = reviewService.getReviewById(review.getId());
+        assertEquals(expectedLikes, savedReview.getLikes());
+        assertEquals(expectedDislikes, savedReview.getDislikes());
+        assertEquals(expectedLikes + expectedDislikes, opinionStorage.count());
+
+        EventReviewStats stats = reviewStatsService.getEventStats(EVENT_ID);
+        assertEquals(1, stats.getReviewsCount());
+        assertEquals(expectedDislikes < expectedLikes ? 1 : 0, stats.getTrustedCount());
+    }
+
+    @DisplayName("Правка отзыва во время голосования не теряет голосов и не сдвигает агрегаты")
+    @Test
+    void editsDuringVotesKeepCountsAndStats() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        futures.add(executor.submit(() -> {
+            start.await();
+            for (int edit = 0; edit < EDITS; edit++) {
+                reviewService.updateReview(Review.builder()
+                        .id(review.getId())
+                        .author(new User(AUTHOR_ID, null))
+                        .content("content " + edit)
+                        .mark(edit % 2 == 0 ? 3 : 8)
+                        .updatedOn(LocalDateTime.now())
+                        .build());
+            }
+            return null;
+        }));
+        for (int thread = 1; thread < THREADS; thread++) {
+            long firstEvaluatorId = 20_000L + (long) thread * VOTES_PER_THREAD;
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (long evaluatorId = firstEvaluatorId; evaluatorId < firstEvaluatorId + VOTES_PER_THREAD;
+                     evaluatorId++) {
+                    // Mostly dislikes, so the review stops being trusted while it is being edited.
+                    if (evaluatorId % 4 == 0) {
+                        reviewService.addLike(review.getId(), evaluatorId);
+                    } else {
+                        reviewService.addDislike(review.getId(), evaluatorId);
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        Review savedReview = reviewService.getReviewById(review.getId());
+        assertEquals(opinionStorage.count(), savedReview.getLikes() + savedReview.getDislikes());
+        assertEquals((long) (THREADS - 1) * VOTES_PER_THREAD, opinionStorage.count());
+
+        EventReviewStats eventStats = eventReviewStatsStorage.computeFromReviews(EVENT_ID,
+                MARK_LIMITATION_POSITIVE_REVIEWS, MARK_LIMITATION_NEGATIVE_REVIEWS, LIMIT_OF_SUM_LIKES_DISLIKES)
+                .orElseThrow();
+        assertEquals(eventStats.toString(), reviewStatsService.getEventStats(EVENT_ID).toString());
+        AuthorReviewStats authorStats = authorReviewStatsStorage.computeFromReviews(AUTHOR_ID,
+                LIMIT_OF_SUM_LIKES_DISLIKES).orElseThrow();
+        assertEquals(authorStats.toString(), reviewStatsService.getAuthorStats(AUTHOR_ID).toString());
+    }
+}
@@ -1,7 +1,9 @@
 package ru.practicum.workshop.reviewservice.service;
 
+import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.Hibernate;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -12,18 +14,25 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.workshop.reviewservice.client.EventClient;
 import ru.practicum.workshop.reviewservice.client.RegistrationClient;
 import ru.practicum.workshop.reviewservice.dto.EventResponse;
+import ru.practicum.workshop.reviewservice.dto.ReviewCursor;
+import ru.practicum.workshop.reviewservice.dto.opinion.OpinionBatchItem;
+import ru.practicum.workshop.reviewservice.dto.opinion.OpinionBatchItemResult;
 import ru.practicum.workshop.reviewservice.enums.Label;
+import ru.practicum.workshop.reviewservice.enums.OpinionAction;
 import ru.practicum.workshop.reviewservice.exception.*;
 import ru.practicum.workshop.reviewservice.model.*;
 import ru.practicum.workshop.reviewservice.storage.*;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -38,6 +47,7 @@ public class ReviewServiceImplTest {
     private final ReviewService reviewService;
     private final ReviewStorage reviewStorage;
     private final UserStorage userStorage;
+    private final EntityManager entityManager;
     private static Review review;
     private static User author;
     private static Long userId = 0L;
@@ -261,6 +271,57 @@ public class ReviewServiceImplTest {
         assertTrue(savedReviews.containsAll(expectedList));
     }
 
+    @DisplayName("Получение отзывов по id события вместе с авторами")
+    @Test
+    void getReviewsByEventWithAuthors() {
+        Long eventId = userId + 1;
+        createNewReview(eventId);
+        createNewReview(eventId);
+        entityManager.flush();
+        entityManager.clear();
+
+        Sort sort = Sort.by(Sort.Direction.DESC, "createdOn");
+        List<Review> savedReviews = reviewService.getReviewsByEvent(eventId, PageRequest.of(0, 5, sort));
+
+        assertEquals(2, savedReviews.size());
+        assertTrue(savedReviews.stream().allMatch(r -> Hibernate.isInitialized(r.getAuthor())));
+    }
+
+    @DisplayName("Получение отзывов по списку id вместе с авторами")
+    @Test
+    void getReviewsByIds() {
+        Review otherReview = createNewReview(userId + 1);
+        entityManager.flush();
+        entityManager.clear();
+
+        Map<Long, Review> reviews = reviewService.getReviewsByIds(List.of(otherReview.getId(), Long.MAX_VALUE,
+                review.getId(), otherReview.getId()));
+
+        assertEquals(Set.of(review.getId(), otherReview.getId()), reviews.keySet());
+        assertTrue(reviews.values().stream().allMatch(r -> Hibernate.isInitialized(r.getAuthor())));
+    }
+
+    @DisplayName("Получение отзывов по id события по курсору")
+    @Test
+    void getReviewsByEventWithCursor() {
+        Long eventId = userId + 1;
+        LocalDateTime createdOn = LocalDateTime.now().withNano(0);
+        Review review1 = reviewStorage.save(Review.builder().author(author).eventId(eventId).title("title")
+                .content("content").createdOn(createdOn.minusMinutes(1)).mark(1).build());
+        Review review2 = reviewStorage.save(Review.builder().author(author).eventId(eventId).title("title")
+                .content("content").createdOn(createdOn).mark(1).build());
+        Review review3 = reviewStorage.save(Review.builder().author(author).eventId(eventId).title("title")
+                .content("content").createdOn(createdOn).mark(1).build());
+
+        Sort sort = Sort.by(Sort.Direction.DESC, "createdOn").and(Sort.by(Sort.Direction.DESC, "id"));
+        List<Review> firstPage = reviewService.getReviewsByEvent(eventId, PageRequest.of(0, 2, sort));
+        assertEquals(List.of(review3, review2), firstPage);
+
+        ReviewCursor cursor = ReviewCursor.valueOf(ReviewCursor.of(firstPage.get(1)).encode());
+        List<Review> secondPage = reviewService.getReviewsByEvent(eventId, cursor, 2);
+        assertEquals(List.of(review1), secondPage);
+    }
+
     @DisplayName("Удаление отзыва по id")
     @Test
     void deleteReview() {
@@ -293,12 +354,16 @@ public class ReviewServiceImplTest {
         assertTrue(actualMessage.contains(expectedMessage));
     }
 
+    private Review reloadReview() {
+        return reviewService.getReviewById(review.getId());
+    }
+
     @DisplayName("Поставить лайк отзыву")
     @Test
     void putLike() {
         long likes = review.getLikes();
         reviewService.addLike(review.getId(), evaluatorId);
-        assertEquals(likes + 1, review.getLikes());
+        assertEquals(likes + 1, reloadReview().getLikes());
     }
 
     @DisplayName("Удалить лайк отзыву")
@@ -306,9 +371,9 @@ public class ReviewServiceImplTest {
     void removeLike() {
         long likes = review.getLikes();
         reviewService.addLike(review.getId(), evaluatorId);
-        assertEquals(likes + 1, review.getLikes());
+        assertEquals(likes + 1, reloadReview().getLikes());
         reviewService.removeLike(review.getId(), evaluatorId);
-        assertEquals(likes, review.getLikes());
+        assertEquals(likes, reloadReview().getLikes());
     }
 
     @DisplayName("Поставить дизлайк отзыву")
@@ -316,7 +381,7 @@ public class ReviewServiceImplTest {
     void putDislike() {
         long disLikes = review.getLikes();
         reviewService.addDislike(review.getId(), evaluatorId);
-        assertEquals(disLikes + 1, review.getDislikes());
+        assertEquals(disLikes + 1, reloadReview().getDislikes());
     }
 
     @DisplayName("Удалить дизлайк отзыву")
@@ -324,9 +389,9 @@ public class ReviewServiceImplTest {
     void removeDislike() {
         long disLikes = review.getLikes();
         reviewService.addDislike(review.getId(), evaluatorId);
-        assertEquals(disLikes + 1, review.getDislikes());
+        assertEquals(disLikes + 1, reloadReview().getDislikes());
         reviewService.removeDislike(review.getId(), evaluatorId);
-        assertEquals(disLikes, review.getDislikes());
+        assertEquals(disLikes, reloadReview().getDislikes());
     }
 
     @DisplayName("Поставить сначала лайк, а потом дизлайк отзыву")
@@ -335,10 +400,10 @@ public class ReviewServiceImplTest {
         long likes = review.getLikes();
         long disLikes = review.getLikes();
         reviewService.addLike(review.getId(), evaluatorId);
-        assertEquals(likes + 1, review.getLikes());
+        assertEquals(likes + 1, reloadReview().getLikes());
         reviewService.addDislike(review.getId(), evaluatorId);
-        assertEquals(likes, review.getLikes());
-        assertEquals(disLikes, review.getDislikes());
+        assertEquals(likes, reloadReview().getLikes());
+        assertEquals(disLikes, reloadReview().getDislikes());
     }
 
     @DisplayName("Поставить сначала дизлайк, а потом лайк отзыву")
@@ -347,10 +412,10 @@ public class ReviewServiceImplTest {
         long disLikes = review.getLikes();
         long likes = review.getLikes();
         reviewService.addDislike(review.getId(), evaluatorId);
-        assertEquals(disLikes + 1, review.getDislikes());
+        assertEquals(disLikes + 1, reloadReview().getDislikes());
         reviewService.addLike(review.getId(), evaluatorId);
-        assertEquals(disLikes, review.getDislikes());
-        assertEquals(likes, review.getLikes());
+        assertEquals(disLikes, reloadReview().getDislikes());
+        assertEquals(likes, reloadReview().getLikes());
     }
 
     @DisplayName("Ошибка Forbidden при попытке поставить лайк/дизлайк автором отзыва")
@@ -388,4 +453,29 @@ public class ReviewServiceImplTest {
         final String actualMessage = exception.getMessage();
         assertTrue(actualMessage.contains(expectedMessage));
     }
-}
\ No newline at end of file
+
+    @DisplayName("Применить пачку лайков и дизлайков с результатом по каждой оценке")
+    @Test
+    void applyOpinions() {
+        Long otherEvaluatorId = evaluatorId + 1;
+        reviewService.addDislike(review.getId(), otherEvaluatorId);
+
+        List<OpinionBatchItemResult> results = reviewService.applyOpinions(List.of(
+                new OpinionBatchItem(review.getId(), evaluatorId, Label.LIKE, OpinionAction.ADD),
+                new OpinionBatchItem(review.getId(), evaluatorId, Label.LIKE, OpinionAction.ADD),
+                new OpinionBatchItem(review.getId(), review.getAuthor().getId(), Label.LIKE, OpinionAction.ADD),
+                new OpinionBatchItem(review.getId(), otherEvaluatorId, Label.LIKE, OpinionAction.ADD),
+                new OpinionBatchItem(review.getId(), otherEvaluatorId, Label.DISLIKE, OpinionAction.REMOVE),
+                new OpinionBatchItem(review.getId(), evaluatorId, Label.DISLIKE, OpinionAction.REMOVE),
+                new OpinionBatchItem(review.getId() + 1000, evaluatorId, Label.LIKE, OpinionAction.ADD)));
+
+        assertEquals(List.of(HttpStatus.OK, HttpStatus.CONFLICT, HttpStatus.FORBIDDEN, HttpStatus.OK,
+                        HttpStatus.NOT_FOUND, HttpStatus.CONFLICT, HttpStatus.NOT_FOUND),
+                results.stream().map(OpinionBatchItemResult::getStatus).toList());
+        assertEquals(String.format("You have already put %s review with id = %d and cannot do it again",
+                Label.LIKE, review.getId()), results.get(1).getMessage());
+        Review savedReview = reloadReview();
+        assertEquals(1, savedReview.getLikes());
+        assertEquals(0, savedReview.getDislikes());
+    }
+}
@@ -0,0 +1,217 @@
+package ru.practicum.workshop.reviewservice.service;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.workshop.reviewservice.client.EventClient;
+import ru.practicum.workshop.reviewservice.client.RegistrationClient;
+import ru.practicum.workshop.reviewservice.dto.EventResponse;
+import ru.practicum.workshop.reviewservice.dto.analytics.BestAndWorstReviews;
+import ru.practicum.workshop.reviewservice.model.Review;
+import ru.practicum.workshop.reviewservice.model.User;
+import ru.practicum.workshop.reviewservice.storage.AuthorReviewStatsStorage;
+import ru.practicum.workshop.reviewservice.storage.EventReviewStatsStorage;
+import ru.practicum.workshop.reviewservice.storage.OpinionStorage;
+import ru.practicum.workshop.reviewservice.storage.ReviewStorage;
+import ru.practicum.workshop.reviewservice.storage.UserStorage;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+/**
+ * Checks that the cached best and worst reviews stay equal to what the database returns while reviews are
+ * written. Reads inside a read-write transaction bypass the cache, which gives the reference answer.
+ */
+@SpringBootTest
+@ActiveProfiles(value = "test")
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class ReviewServiceTopReviewsTest {
+    private static final Long EVENT_ID = 7_000_000L;
+    private static final Long AUTHOR_ID = 7_000_001L;
+    private static final Long OTHER_AUTHOR_ID = 7_000_002L;
+    private static final int[] MARKS = {9, 9, 9, 8, 7, 2, 2, 1, 3, 6};
+
+    private final ReviewService reviewService;
+    private final ReviewStorage reviewStorage;
+    private final UserStorage userStorage;
+    private final OpinionStorage opinionStorage;
+    private final EventReviewStatsStorage eventReviewStatsStorage;
+    private final AuthorReviewStatsStorage authorReviewStatsStorage;
+    private final EventTopReviewsCache eventTopReviewsCache;
+    private final TransactionTemplate transactionTemplate;
+
+    @MockBean
+    private EventClient eventClient;
+
+    @MockBean
+    private RegistrationClient registrationClient;
+
+    private final List<Review> reviews = new ArrayList<>();
+
+    @BeforeEach
+    void beforeEach() {
+        User author = userStorage.save(new User(AUTHOR_ID, "author"));
+        User otherAuthor = userStorage.save(new User(OTHER_AUTHOR_ID, "other author"));
+        for (int i = 0; i < MARKS.length; i++) {
+            reviews.add(reviewStorage.save(Review.builder()
+                    .author(i % 2 == 0 ? author : otherAuthor)
+                    .eventId(EVENT_ID)
+                    .title("title " + i)
+                    .content("content " + i)
+                    .createdOn(LocalDateTime.now())
+                    .mark(MARKS[i])
+                    .build()));
+        }
+        eventTopReviewsCache.invalidateAll();
+    }
+
+    @AfterEach
+    void afterEach() {
+        opinionStorage.deleteAll();
+        reviewStorage.deleteAll(reviewStorage.findAll().stream()
+                .filter(review -> review.getEventId().equals(EVENT_ID))
+                .toList());
+        reviews.clear();
+        for (Long userId : List.of(AUTHOR_ID, OTHER_AUTHOR_ID)) {
+            userStorage.findById(userId).ifPresent(userStorage::delete);
+            authorReviewStatsStorage.findById(userId).ifPresent(authorReviewStatsStorage::delete);
+        }
+        eventReviewStatsStorage.findById(EVENT_ID).ifPresent(eventReviewStatsStorage::delete);
+        eventTopReviewsCache.invalidateAll();
+    }
+
+    @DisplayName("Кэш лучших и худших отзывов совпадает с базой после каждого изменения отзывов")
+    @Test
+    void cachedTopReviewsFollowWrites() {
+        assertCacheMatchesDatabase();
+
+        reviewService.addLike(reviews.get(2).getId(), 1L);
+        assertEquals(reviews.get(2).getId(), cached().getBestReviews().get(0).getId());
+        assertCacheMatchesDatabase();
+
+        reviewService.removeLike(reviews.get(2).getId(), 1L);
+        assertCacheMatchesDatabase();
+
+        reviewService.addLike(reviews.get(3).getId(), 1L);
+        reviewService.addDislike(reviews.get(5).getId(), 1L);
+        reviewService.addLike(reviews.get(6).getId(), 2L);
+        assertCacheMatchesDatabase();
+
+        reviewService.updateReview(Review.builder()
+                .id(reviews.get(4).getId())
+                .author(new User(AUTHOR_ID, null))
+                .mark(10)
+                .updatedOn(LocalDateTime.now())
+                .build());
+        assertCacheMatchesDatabase();
+
+        reviewService.deleteReview(reviews.get(0).getId(), AUTHOR_ID);
+        assertCacheMatchesDatabase();
+
+        when(eventClient.readEventById(any(Long.class), any(Long.class)))
+                .thenReturn(new EventResponse(EVENT_ID, "name", "description", LocalDateTime.now().minusDays(2),
+                        LocalDateTime.now().minusDays(1), "location", AUTHOR_ID, LocalDateTime.now().minusDays(3)));
+        when(registrationClient.getStatusOfRegistration(any(Long.class), any(Long.class))).thenReturn("APPROVED");
+        reviewService.createReview(Review.builder()
+                .author(new User(OTHER_AUTHOR_ID, "other author"))
+                .eventId(EVENT_ID)
+                .title("title")
+                .content("content")
+                .createdOn(LocalDateTime.now())
+                .mark(1)
+                .build());
+        assertCacheMatchesDatabase();
+
+        reviewService.updateReview(Review.builder()
+                .id(reviews.get(1).getId())
+                .author(new User(OTHER_AUTHOR_ID, "renamed author"))
+                .updatedOn(LocalDateTime.now())
+                .build());
+        assertCacheMatchesDatabase();
+        assertEquals("renamed author", cached().getWorstReviews().get(0).getUsername());
+    }
+
+    @DisplayName("Откаченная транзакция не меняет кэш лучших и худших отзывов")
+    @Test
+    void rolledBackVotesDoNotReachCache() {
+        BestAndWorstReviews before = cached();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            reviewService.addLike(reviews.get(2).getId(), 1L);
+            status.setRollbackOnly();
+        });
+
+        assertSameReviews(before, cached());
+        assertCacheMatchesDatabase();
+    }
+
+    @DisplayName("Параллельные оценки и чтения не оставляют в кэше устаревших отзывов")
+    @Test
+    void concurrentVotesAndReads() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(6);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int thread = 0; thread < 4; thread++) {
+            long firstEvaluatorId = 10_000L + thread * 100L;
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (long evaluatorId = firstEvaluatorId; evaluatorId < firstEvaluatorId + 20; evaluatorId++) {
+                    Review review = reviews.get((int) (evaluatorId % reviews.size()));
+                    reviewService.addLike(review.getId(), evaluatorId);
+                }
+                return null;
+            }));
+        }
+        for (int thread = 0; thread < 2; thread++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < 40; i++) {
+                    eventTopReviewsCache.invalidateAll();
+                    reviewService.getBestAndWorstReviews(EVENT_ID);
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        assertCacheMatchesDatabase();
+    }
+
+    private BestAndWorstReviews cached() {
+        return reviewService.getBestAndWorstReviews(EVENT_ID);
+    }
+
+    private void assertCacheMatchesDatabase() {
+        BestAndWorstReviews fromDatabase = transactionTemplate.execute(status ->
+                reviewService.getBestAndWorstReviews(EVENT_ID));
+        assertSameReviews(fromDatabase, cached());
+        assertSameReviews(fromDatabase, reviewService.getBestAndWorstReviews(List.of(EVENT_ID)).get(0));
+        assertSameReviews(fromDatabase, reviewService.getEventSummary(EVENT_ID).getBestAndWorstReviews());
+    }
+
+    private static void assertSameReviews(BestAndWorstReviews expected, BestAndWorstReviews actual) {
+        assertEquals(expected.getEventId(), actual.getEventId());
+        assertEquals(expected.getBestReviews(), actual.getBestReviews());
+        assertEquals(expected.getWorstReviews(), actual.getWorstReviews());
+    }
+}
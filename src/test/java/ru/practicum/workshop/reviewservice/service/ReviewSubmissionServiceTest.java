@@ -0,0 +1,164 @@
+package ru.practicum.workshop.reviewservice.service;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import ru.practicum.workshop.reviewservice.dto.ReviewCreateDto;
+import ru.practicum.workshop.reviewservice.enums.SubmissionStatus;
+import ru.practicum.workshop.reviewservice.mapper.ReviewMapper;
+import ru.practicum.workshop.reviewservice.model.PendingReview;
+import ru.practicum.workshop.reviewservice.model.Review;
+import ru.practicum.workshop.reviewservice.storage.PendingReviewStorage;
+import ru.practicum.workshop.reviewservice.storage.ReviewStorage;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs submissions through the worker against local stub services. Retries are quick here, and a submission
+ * fails after its second attempt.
+ */
+@SpringBootTest(properties = {
+        "review-service.async-submissions.enabled=true",
+        "review-service.async-submissions.poll-interval=100ms",
+        "review-service.async-submissions.retry-delay=200ms",
+        "review-service.async-submissions.max-attempts=2"
+})
+@ActiveProfiles(value = "test")
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class ReviewSubmissionServiceTest {
+    private static final AtomicLong EVENT_IDS = new AtomicLong(9_900_000L);
+    private static final AtomicLong USER_IDS = new AtomicLong(9_900_000L);
+    private static final StubHttpServer EVENT_SERVICE = new StubHttpServer("/events/");
+    private static final StubHttpServer REGISTRATION_SERVICE =
+            new StubHttpServer("/registrations/internal/status-of-registration/");
+
+    private final ReviewSubmissionService reviewSubmissionService;
+    private final PendingReviewStorage pendingReviewStorage;
+    private final ReviewStorage reviewStorage;
+    private final ReviewMapper reviewMapper;
+
+    @DynamicPropertySource
+    static void serviceUrls(DynamicPropertyRegistry registry) {
+        registry.add("review-service.event-service.url", EVENT_SERVICE::url);
+        registry.add("review-service.registration-service.url", REGISTRATION_SERVICE::url);
+    }
+
+    @AfterAll
+    static void afterAll() {
+        EVENT_SERVICE.stop();
+        REGISTRATION_SERVICE.stop();
+    }
+
+    @BeforeEach
+    void beforeEach() {
+        EVENT_SERVICE.answer(0, 200, "application/json", ReviewSubmissionServiceTest::endedEvent);
+        REGISTRATION_SERVICE.answer(0, 200, "text/plain", path -> "APPROVED");
+    }
+
+    @DisplayName("Принятая заявка создаёт отзыв, а ожидающий её узнаёт об этом")
+    @Test
+    void createsReview() throws Exception {
+        PendingReview submission = reviewSubmissionService.submit(newSubmission());
+
+        PendingReview finished = reviewSubmissionService.awaitFinished(submission.getId()).get(5, TimeUnit.SECONDS);
+
+        assertEquals(SubmissionStatus.CREATED, finished.getStatus());
+        Review review = reviewStorage.findById(finished.getReviewId()).orElseThrow();
+        assertEquals(submission.getEventId(), review.getEventId());
+        assertEquals(submission.getContent(), review.getContent());
+        assertEquals(SubmissionStatus.CREATED, reviewSubmissionService.getSubmission(submission.getId()).getStatus());
+    }
+
+    @DisplayName("Заявки, пришедшие вместе, создают каждая свой отзыв")
+    @Test
+    void createsReviewsOfBurst() throws Exception {
+        List<PendingReview> submissions = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            submissions.add(reviewSubmissionService.submit(newSubmission()));
+        }
+
+        for (PendingReview submission : submissions) {
+            PendingReview finished =
+                    reviewSubmissionService.awaitFinished(submission.getId()).get(10, TimeUnit.SECONDS);
+            assertEquals(SubmissionStatus.CREATED, finished.getStatus());
+            assertEquals(submission.getEventId(), reviewStorage.findById(finished.getReviewId()).orElseThrow()
+                    .getEventId());
+        }
+    }
+
+    @DisplayName("Неподтверждённая регистрация окончательно отклоняет заявку без повторов")
+    @Test
+    void rejectsSubmission() throws Exception {
+        REGISTRATION_SERVICE.answer(0, 200, "text/plain", path -> "PENDING");
+        PendingReview submission = reviewSubmissionService.submit(newSubmission());
+
+        PendingReview finished = reviewSubmissionService.awaitFinished(submission.getId()).get(5, TimeUnit.SECONDS);
+
+        assertEquals(SubmissionStatus.REJECTED, finished.getStatus());
+        assertEquals(403, finished.getErrorStatus());
+        assertEquals(1, finished.getAttempts());
+        assertNull(finished.getReviewId());
+    }
+
+    @DisplayName("После сбоя сервиса событий заявка повторяется и создаёт отзыв")
+    @Test
+    void retriesAfterFailure() throws Exception {
+        EVENT_SERVICE.answer(0, 500, "application/json", path -> "{}");
+        PendingReview submission = reviewSubmissionService.submit(newSubmission());
+        awaitAttempts(submission.getId(), 1);
+        EVENT_SERVICE.answer(0, 200, "application/json", ReviewSubmissionServiceTest::endedEvent);
+
+        PendingReview finished = reviewSubmissionService.awaitFinished(submission.getId()).get(5, TimeUnit.SECONDS);
+
+        assertEquals(SubmissionStatus.CREATED, finished.getStatus());
+        assertEquals(2, finished.getAttempts());
+    }
+
+    @DisplayName("Заявка, не прошедшая проверки за все попытки, завершается ошибкой")
+    @Test
+    void failsAfterLastAttempt() throws Exception {
+        EVENT_SERVICE.answer(0, 500, "application/json", path -> "{}");
+        PendingReview submission = reviewSubmissionService.submit(newSubmission());
+
+        PendingReview finished = reviewSubmissionService.awaitFinished(submission.getId()).get(5, TimeUnit.SECONDS);
+
+        assertEquals(SubmissionStatus.FAILED, finished.getStatus());
+        assertEquals(500, finished.getErrorStatus());
+        assertEquals(2, finished.getAttempts());
+    }
+
+    private void awaitAttempts(Long submissionId, int attempts) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (pendingReviewStorage.findById(submissionId).orElseThrow().getAttempts() < attempts) {
+            assertTrue(System.nanoTime() < deadline, "Submission was not attempted in time");
+            Thread.sleep(10);
+        }
+    }
+
+    private PendingReview newSubmission() {
+        // Every submission is for a new event, so no check is answered from the event cache.
+        long userId = USER_IDS.incrementAndGet();
+        return reviewMapper.toPendingReview(new ReviewCreateDto(userId, EVENT_IDS.incrementAndGet(), "user" + userId,
+                "title", "content", 7), null);
+    }
+
+    private static String endedEvent(String path) {
+        return String.format("{\"id\": %s, \"endDateTime\": \"%s\"}", path.substring(path.lastIndexOf('/') + 1),
+                LocalDateTime.now().minusDays(1));
+    }
+}
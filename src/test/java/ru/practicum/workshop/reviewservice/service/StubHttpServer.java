@@ -0,0 +1,99 @@
+package ru.practicum.workshop.reviewservice.service;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import lombok.AllArgsConstructor;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Local stand-in for a downstream service: answers every request under a path with the configured status and
+ * body after the configured delay. The body is built from the request path, and for routes added with
+ * {@link #answer(String, long, int, String, BiFunction)} also from the request body. Paths without a route are
+ * answered with 404.
+ */
+class StubHttpServer {
+    private final HttpServer server;
+    private final String path;
+    private final Map<String, Answer> answers = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> requests = new ConcurrentHashMap<>();
+
+    StubHttpServer(String path) {
+        try {
+            server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        this.path = path;
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+    }
+
+    String url() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    void answer(long delayMillis, int status, String contentType, Function<String, String> body) {
+        answer(path, delayMillis, status, contentType, (requestPath, requestBody) -> body.apply(requestPath));
+    }
+
+    void answer(String path, long delayMillis, int status, String contentType,
+                BiFunction<String, String, String> body) {
+        if (answers.put(path, new Answer(delayMillis, status, contentType, body)) == null) {
+            requests.put(path, new AtomicInteger());
+            server.createContext(path, exchange -> handle(path, exchange));
+        }
+    }
+
+    /**
+     * Returns how many requests the route of the given path has answered.
+     */
+    int requests(String path) {
+        AtomicInteger count = requests.get(path);
+        return count == null ? 0 : count.get();
+    }
+
+    void stop() {
+        server.stop(0);
+    }
+
+    private void handle(String path, HttpExchange exchange) throws IOException {
+        Answer answer = answers.get(path);
+        requests.get(path).incrementAndGet();
+        String requestBody;
+        try (InputStream in = exchange.getRequestBody()) {
+            requestBody = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        try {
+            Thread.sleep(answer.delayMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        byte[] response = answer.body.apply(exchange.getRequestURI().getPath(), requestBody)
+                .getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", answer.contentType);
+        exchange.sendResponseHeaders(answer.status, response.length == 0 ? -1 : response.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(response);
+        }
+    }
+
+    @AllArgsConstructor
+    private static class Answer {
+        private final long delayMillis;
+        private final int status;
+        private final String contentType;
+        private final BiFunction<String, String, String> body;
+    }
+}
@@ -0,0 +1,70 @@
+package ru.practicum.workshop.reviewservice.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import ru.practicum.workshop.reviewservice.enums.Label;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class VoteLogTest {
+    @TempDir
+    private Path directory;
+
+    @DisplayName("Незаписанные сегменты журнала читаются при следующем запуске")
+    @Test
+    void recoversSegmentsOfPreviousRun() {
+        VoteLog voteLog = new VoteLog(directory);
+        voteLog.awaitDurable(voteLog.append(OpinionChange.insert(1L, 2L, Label.LIKE)));
+        Path firstSegment = voteLog.rotate();
+        voteLog.awaitDurable(voteLog.append(OpinionChange.delete(1L, 2L, Label.LIKE)));
+        voteLog.append(OpinionChange.insert(1L, 3L, Label.DISLIKE));
+        voteLog.close();
+
+        VoteLog recoveredLog = new VoteLog(directory);
+        List<Path> segments = recoveredLog.getRecoveredSegments();
+
+        assertEquals(2, segments.size());
+        assertEquals(firstSegment, segments.get(0));
+        assertEquals(List.of(OpinionChange.insert(1L, 2L, Label.LIKE)), VoteLog.read(segments.get(0)));
+        assertEquals(List.of(OpinionChange.delete(1L, 2L, Label.LIKE), OpinionChange.insert(1L, 3L, Label.DISLIKE)),
+                VoteLog.read(segments.get(1)));
+        recoveredLog.close();
+    }
+
+    @DisplayName("Оборванная последняя запись журнала пропускается")
+    @Test
+    void skipsTornRecord() throws IOException {
+        VoteLog voteLog = new VoteLog(directory);
+        voteLog.append(OpinionChange.insert(1L, 2L, Label.LIKE));
+        Path segment = voteLog.rotate();
+        voteLog.close();
+        Files.writeString(segment, "1 3 DIS", StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+
+        assertEquals(List.of(OpinionChange.insert(1L, 2L, Label.LIKE)), VoteLog.read(segment));
+    }
+
+    @DisplayName("Пустой сегмент удаляется при закрытии журнала")
+    @Test
+    void deletesEmptySegmentOnClose() {
+        VoteLog voteLog = new VoteLog(directory);
+        Path segment = voteLog.rotate();
+        assertTrue(Files.exists(segment));
+        voteLog.delete(segment);
+        voteLog.close();
+        assertFalse(Files.exists(segment));
+
+        VoteLog reopenedLog = new VoteLog(directory);
+        assertTrue(reopenedLog.getRecoveredSegments().isEmpty());
+        reopenedLog.close();
+    }
+}
@@ -0,0 +1,185 @@
+package ru.practicum.workshop.reviewservice.service;
+
+import jakarta.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import ru.practicum.workshop.reviewservice.enums.Label;
+import ru.practicum.workshop.reviewservice.exception.ConflictException;
+import ru.practicum.workshop.reviewservice.exception.ForbiddenException;
+import ru.practicum.workshop.reviewservice.model.Review;
+import ru.practicum.workshop.reviewservice.model.User;
+import ru.practicum.workshop.reviewservice.storage.AuthorReviewStatsStorage;
+import ru.practicum.workshop.reviewservice.storage.EventReviewStatsStorage;
+import ru.practicum.workshop.reviewservice.storage.OpinionStorage;
+import ru.practicum.workshop.reviewservice.storage.ReviewStorage;
+import ru.practicum.workshop.reviewservice.storage.UserStorage;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(properties = {
+        "review-service.votes.write-behind.enabled=true",
+        "review-service.votes.write-behind.flush-interval-ms=600000"
+})
+@ActiveProfiles(value = "test")
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class VoteWriteBehindBufferTest {
+    private static final Long EVENT_ID = 2_000_000L;
+    private static final Long AUTHOR_ID = 2_000_000L;
+    private static final Long EVALUATOR_ID = 2_000_001L;
+
+    private final ReviewService reviewService;
+    private final VoteWriteBehindBuffer voteWriteBehindBuffer;
+    private final OpinionChangeWriter opinionChangeWriter;
+    private final ReviewStorage reviewStorage;
+    private final UserStorage userStorage;
+    private final OpinionStorage opinionStorage;
+    private final EventReviewStatsStorage eventReviewStatsStorage;
+    private final AuthorReviewStatsStorage authorReviewStatsStorage;
+
+    private Review review;
+
+    @DynamicPropertySource
+    static void voteLogDirectory(DynamicPropertyRegistry registry) throws IOException {
+        String directory = Files.createTempDirectory("vote-log").toString();
+        registry.add("review-service.votes.write-behind.log-dir", () -> directory);
+    }
+
+    @BeforeEach
+    void beforeEach() {
+        User author = userStorage.save(new User(AUTHOR_ID, "write-behind author"));
+        review = reviewStorage.save(Review.builder()
+                .author(author)
+                .eventId(EVENT_ID)
+                .title("title")
+                .content("content")
+                .createdOn(LocalDateTime.now())
+                .mark(7)
+                .build());
+    }
+
+    @AfterEach
+    void afterEach() {
+        voteWriteBehindBuffer.flush();
+        opinionStorage.deleteAll();
+        reviewStorage.deleteAll();
+        userStorage.deleteById(AUTHOR_ID);
+        eventReviewStatsStorage.findById(EVENT_ID).ifPresent(eventReviewStatsStorage::delete);
+        authorReviewStatsStorage.findById(AUTHOR_ID).ifPresent(authorReviewStatsStorage::delete);
+    }
+
+    @DisplayName("Оценки записываются в базу при сбросе буфера")
+    @Test
+    void votesAreWrittenOnFlush() {
+        reviewService.addLike(review.getId(), EVALUATOR_ID);
+        reviewService.addDislike(review.getId(), EVALUATOR_ID + 1);
+
+        assertEquals(0, reviewService.getReviewById(review.getId()).getLikes());
+
+        voteWriteBehindBuffer.flush();
+
+        Review savedReview = reviewService.getReviewById(review.getId());
+        assertEquals(1, savedReview.getLikes());
+        assertEquals(1, savedReview.getDislikes());
+        assertEquals(2, opinionStorage.count());
+    }
+
+    @DisplayName("Проверки повторной оценки и оценки своего отзыва учитывают несохранённые оценки")
+    @Test
+    void checksSeePendingVotes() {
+        assertThrows(ForbiddenException.class, () -> reviewService.addLike(review.getId(), AUTHOR_ID));
+        assertThrows(EntityNotFoundException.class, () -> reviewService.addLike(-1L, EVALUATOR_ID));
+        assertThrows(EntityNotFoundException.class, () -> reviewService.removeLike(review.getId(), EVALUATOR_ID));
+
+        reviewService.addLike(review.getId(), EVALUATOR_ID);
+        assertThrows(ConflictException.class, () -> reviewService.addLike(review.getId(), EVALUATOR_ID));
+        assertThrows(ConflictException.class, () -> reviewService.removeDislike(review.getId(), EVALUATOR_ID));
+
+        voteWriteBehindBuffer.flush();
+        assertThrows(ConflictException.class, () -> reviewService.addLike(review.getId(), EVALUATOR_ID));
+
+        reviewService.addDislike(review.getId(), EVALUATOR_ID);
+        assertThrows(EntityNotFoundException.class, () -> reviewService.removeLike(review.getId(), EVALUATOR_ID));
+        voteWriteBehindBuffer.flush();
+
+        Review savedReview = reviewService.getReviewById(review.getId());
+        assertEquals(0, savedReview.getLikes());
+        assertEquals(0, savedReview.getDislikes());
+        assertEquals(0, opinionStorage.count());
+    }
+
+    @DisplayName("Повторное применение изменений оценок не меняет счётчики")
+    @Test
+    void replayingChangesIsIdempotent() {
+        List<OpinionChange> changes = List.of(
+                OpinionChange.insert(review.getId(), EVALUATOR_ID, Label.LIKE),
+                OpinionChange.insert(review.getId(), EVALUATOR_ID + 1, Label.LIKE),
+                OpinionChange.delete(review.getId(), EVALUATOR_ID + 1, Label.LIKE),
+                OpinionChange.insert(review.getId(), EVALUATOR_ID + 2, Label.DISLIKE));
+
+        opinionChangeWriter.apply(changes);
+        opinionChangeWriter.apply(changes);
+
+        Review savedReview = reviewService.getReviewById(review.getId());
+        assertEquals(1, savedReview.getLikes());
+        assertEquals(1, savedReview.getDislikes());
+        assertEquals(2, opinionStorage.count());
+    }
+
+    @DisplayName("Параллельные оценки через буфер не теряются")
+    @Test
+    void concurrentVotesKeepExactCounts() throws Exception {
+        int threads = 8;
+        int votesPerThread = 50;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int thread = 0; thread < threads; thread++) {
+            long firstEvaluatorId = 10_000L + (long) thread * votesPerThread;
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (long evaluatorId = firstEvaluatorId; evaluatorId < firstEvaluatorId + votesPerThread;
+                     evaluatorId++) {
+                    if (evaluatorId % 4 == 0) {
+                        reviewService.addDislike(review.getId(), evaluatorId);
+                    } else {
+                        reviewService.addLike(review.getId(), evaluatorId);
+                    }
+                    if (evaluatorId % 10 == 0) {
+                        voteWriteBehindBuffer.flush();
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+        voteWriteBehindBuffer.flush();
+
+        Review savedReview = reviewService.getReviewById(review.getId());
+        assertEquals(threads * votesPerThread * 3 / 4, savedReview.getLikes());
+        assertEquals(threads * votesPerThread / 4, savedReview.getDislikes());
+        assertEquals(threads * votesPerThread, opinionStorage.count());
+    }
+}